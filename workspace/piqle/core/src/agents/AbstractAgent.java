@@ -2,19 +2,27 @@ package agents;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.Writer;
 
 
 import javax.swing.JFileChooser;
 
 import util.ExtensionFileFilter;
+import algorithms.AbstractMemorySelector;
 import algorithms.ISelector;
 import algorithms.IStrategy;
 import dataset.Dataset;
+import environment.AbstractState;
 import environment.ActionList;
 import environment.IAction;
 import environment.IEnvironment;
+import environment.IMutableEnvironment;
+import environment.IMutableState;
 import environment.IState;
+import qlearning.IEnumerableRewardStore;
+import qlearning.QTableExporter;
 
 public class AbstractAgent implements IAgent{
 
@@ -33,6 +41,13 @@ public class AbstractAgent implements IAgent{
 	
 	protected IState oldState=null;
 
+	/** List of legal moves reused at each step (see AbstractState#getActionList(ActionList)) */
+	private transient ActionList choices=null;
+
+	/** The two states owned by the agent, overwritten in turn when the 
+	    environment is an IMutableEnvironment */
+	private transient IMutableState buffer0=null, buffer1=null;
+
 	public IStrategy getAlgorithm() {
 	return this.algorithm; 
 	}
@@ -72,11 +87,15 @@ public class AbstractAgent implements IAgent{
 	return prov;
 	}
 
+	/** Legal moves from the current state : written into the same list at 
+	    each step when the environment is an {@link environment.IActionListFiller}, 
+	    so the list must not be kept by the selector. */
 	protected ActionList getActionList() {
-		ActionList prodebug=currentState.getActionList();
-		return prodebug;
-		//return currentState.getActionList();
-		
+		if(!(currentState instanceof AbstractState))
+			return currentState.getActionList();
+		if(choices==null)
+			choices=new ActionList(currentState);
+		return ((AbstractState)currentState).getActionList(choices);
 	}
 
 	/** <ul>
@@ -85,7 +104,7 @@ public class AbstractAgent implements IAgent{
 	<ul>*/
 	protected IAction applyAction(IAction a) { 
 	oldState = currentState;
-	currentState=currentState.modify(a); 
+	currentState=successor(currentState,a); 
 	double r=currentState.getReward(oldState,a);
 	reward=r; 
 	if(this.learningEnabled)
@@ -93,6 +112,25 @@ public class AbstractAgent implements IAgent{
 	return a; 
 	}
 
+	/** State reached from s by a. <br>
+	    When the environment is an {@link IMutableEnvironment}, the state is 
+	    written into one of the two buffers owned by the agent, the one 
+	    which is not s : states given from outside (initial states) are 
+	    never overwritten, and the old state stays valid until the next step. 
+	    Otherwise, <code>s.modify(a)</code> builds a new state. */
+	protected IState successor(IState s, IAction a) {
+	if(!(s instanceof IMutableState)||!(s.getEnvironment() instanceof IMutableEnvironment))
+	    return s.modify(a); 
+	IMutableState target=(s==buffer0)?buffer1:buffer0; 
+	if((target==null)||(target.getClass()!=s.getClass())){
+	    target=(IMutableState)s.copy(); 
+	    if(s==buffer0) buffer1=target; 
+	    else buffer0=target; 
+	}
+	((IMutableEnvironment)s.getEnvironment()).successorState(s,a,target); 
+	return target; 
+	}
+
 	public double getLastReward() {return reward;}
 
 	public IAction act() {
@@ -103,6 +141,21 @@ public class AbstractAgent implements IAgent{
 	System.out.println(algorithm); 
 	}
 
+	/**
+	 * Write Q(s,a) and the greedy policy as CSV, in one pass over the memory
+	 * (see {@link QTableExporter}) : for memories too large for
+	 * {@link #explainValues()}.
+	 */
+	public void explainValues(Writer out) throws IOException {
+	if((algorithm instanceof AbstractMemorySelector)
+	   &&(((AbstractMemorySelector)algorithm).getMemory() instanceof IEnumerableRewardStore))
+	    new QTableExporter(out).export((IEnumerableRewardStore)((AbstractMemorySelector)algorithm).getMemory()); 
+	else{
+	    out.write(String.valueOf(algorithm)); 
+	    out.flush(); 
+	}
+	}
+
 	public Dataset extractDataset() {
 	return algorithm.extractDataset(); 
 	}
@@ -0,0 +1,69 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ActorAgent.java
+ *
+ */
+package agents;
+
+import algorithms.ISelector;
+import environment.IAction;
+import environment.IEnvironmentSingle;
+
+/**
+ * An agent which only simulates : its selector is used to choose the
+ * actions (reading a copy of the learner memory, see
+ * {@link qlearning.PublishedRewardStore}), but never learns. Each
+ * (s,a,r,s') is sent to a {@link TransitionQueue}, from which a separate
+ * learner thread feeds the learning selector.
+ *
+ * @see referees.ActorLearnerReferee
+ */
+public class ActorAgent extends LoneAgent {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/** Where the experience is sent */
+	protected transient TransitionQueue queue;
+
+	/**
+	 * @param s the environment, not shared with other actors.
+	 * @param policy the selector used to choose actions only.
+	 * @param q the queue read by the learner.
+	 */
+	public ActorAgent(IEnvironmentSingle s, ISelector policy, TransitionQueue q) {
+		super(s, policy);
+		this.queue = q;
+	}
+
+	/** Apply the action, get the reward, and send the transition to the learner. */
+	protected IAction applyAction(IAction a) {
+		oldState = currentState;
+		currentState = currentState.modify(a);
+		double r = currentState.getReward(oldState, a);
+		reward = r;
+		if (this.learningEnabled)
+			queue.put(new Transition(oldState, a, r, currentState));
+		return a;
+	}
+
+	public TransitionQueue getQueue() {
+		return queue;
+	}
+}
@@ -0,0 +1,188 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ParallelSwarm.java
+ *
+ */
+package agents;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import algorithms.IStrategyLearner;
+import environment.ComposedActionArray;
+import environment.IAction;
+import environment.IEnvironmentSingle;
+
+/**
+ * A swarm whose elementary agents choose, perceive and learn in parallel,
+ * in a <code>ForkJoinPool</code>. <br>
+ * At each step, the agents first choose their actions at the same time ; the
+ * composed action is then written in the rank order, as in
+ * {@link SwarmArray}, so that it does not depend on the scheduling. Once
+ * the environment has moved, each agent filters the new state and learns,
+ * again in parallel.
+ * <p>
+ * Each elementary agent must own its selector, its memory and its local
+ * environment : nothing they share may be modified by <code>choose</code>,
+ * <code>filterState</code> or <code>learn</code>. Agents reading the last
+ * actions of their neighbours ({@link ElementaryCooperativeAgent}) are safe,
+ * since all the actions are chosen before any state is updated. <br>
+ * Below a given number of agents (see {@link #setThreshold(int)}), the
+ * overhead of forking exceeds the gain, and the swarm behaves sequentially
+ * (as it does on a single processor).
+ */
+public class ParallelSwarm extends SwarmArray {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Minimal number of agents for a parallel step */
+	private int threshold = 8;
+
+	/** Number of agents handled by one task */
+	private int grain = 1;
+
+	/** Null means the common pool. */
+	private transient ForkJoinPool pool;
+
+	/** Actions chosen at the current step, indexed by rank */
+	private transient IAction chosen[];
+
+	public ParallelSwarm(IEnvironmentSingle s) {
+		super(s);
+	}
+
+	public ParallelSwarm(IEnvironmentSingle s, ForkJoinPool pool) {
+		super(s);
+		this.pool = pool;
+	}
+
+	/** Minimal number of agents for the step to be parallel. */
+	public void setThreshold(int n) {
+		if (n > 0)
+			threshold = n;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Number of consecutive agents handled by one task (default 1) : raise it
+	 * when the agents are numerous and their selectors cheap.
+	 */
+	public void setGrain(int g) {
+		if (g > 0)
+			grain = g;
+	}
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	private ForkJoinPool getPool() {
+		return pool == null ? ForkJoinPool.commonPool() : pool;
+	}
+
+	/** Never parallel on a single processor : forking would only cost. */
+	private boolean isParallel() {
+		return (listOfAgents.size() >= threshold)
+				&& (Runtime.getRuntime().availableProcessors() > 1);
+	}
+
+	/**
+	 * Asks each agent to choose its own action, writes those actions into
+	 * the composed one, in the rank order.
+	 */
+	public IAction choose() {
+		int n = listOfAgents.size();
+		if ((chosen == null) || (chosen.length != n))
+			chosen = new IAction[n];
+		if (isParallel())
+			getPool().invoke(new Step(false, 0.0, 0, n));
+		else
+			for (int i = 0; i < n; i++)
+				chosen[i] = listOfAgents.get(i).choose();
+		ComposedActionArray next = nextAction();
+		for (int i = 0; i < n; i++) {
+			next.addElementaryAction(listOfAgents.get(i), chosen[i]);
+			chosen[i] = null;
+		}
+		lastAction = next;
+		return next;
+	}
+
+	/**
+	 * Apply the action and get the reward ; then each agent perceives the new
+	 * state and, if learning is enabled, learns.
+	 */
+	protected IAction applyAction(IAction a) {
+		oldState = currentState.copy();
+		currentState = currentState.modify(a);
+		double r = currentState.getReward(oldState, a);
+		reward = r;
+		int n = listOfAgents.size();
+		if (isParallel())
+			getPool().invoke(new Step(true, r, 0, n));
+		else
+			for (int i = 0; i < n; i++)
+				update(i, r);
+		return a;
+	}
+
+	/** New state of agent i, learning from the last transition. */
+	private void update(int i, double r) {
+		ElementaryAgent ag = listOfAgents.get(i);
+		ag.setCurrentState(currentState);
+		if (this.learningEnabled)
+			((IStrategyLearner) ag.getAlgorithm()).learn(ag.getOldState(),
+					ag.getCurrentState(), ag.getLastAction(), r
+							+ ag.getInternalReward());
+	}
+
+	/** Choosing or updating the agents of ranks [from,to[, by halves. */
+	private class Step extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean learn;
+
+		private final double r;
+
+		private final int from, to;
+
+		Step(boolean learn, double r, int from, int to) {
+			this.learn = learn;
+			this.r = r;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from > grain) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Step(learn, r, from, mid), new Step(learn, r,
+						mid, to));
+			} else
+				for (int i = from; i < to; i++)
+					if (learn)
+						update(i, r);
+					else
+						chosen[i] = listOfAgents.get(i).choose();
+		}
+	}
+
+}
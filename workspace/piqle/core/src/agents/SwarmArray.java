@@ -0,0 +1,81 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    SwarmArray.java
+ *
+ */
+package agents;
+
+import environment.ComposedActionArray;
+import environment.IAction;
+import environment.IEnvironmentSingle;
+
+/**
+ * A swarm whose composed action is a {@link ComposedActionArray}, indexed by
+ * the rank of the agents and refilled in place : no allocation proportional
+ * to the number of agents. <br>
+ * Two composed actions are filled in turn, so that the one returned by
+ * <code>choose()</code> stays valid until the end of the next step ; a
+ * caller keeping it longer must take a
+ * {@link ComposedActionArray#snapshot()}.
+ */
+public class SwarmArray extends SwarmArrayList {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The composed action of the previous step, refilled at the next one */
+	private ComposedActionArray spare;
+
+	public SwarmArray(IEnvironmentSingle s) {
+		super(s);
+		ca = new ComposedActionArray();
+		lastAction = new ComposedActionArray();
+	}
+
+	/**
+	 * Asks each agent to choose its own action, writes it at the agent's rank.
+	 * <code>lastAction</code> is the result.
+	 */
+	public IAction choose() {
+		ComposedActionArray next = nextAction();
+		for (int i = 0; i < listOfAgents.size(); i++) {
+			ElementaryAgent aa = listOfAgents.get(i);
+			next.addElementaryAction(aa, aa.choose());
+		}
+		lastAction = next;
+		return next;
+	}
+
+	/**
+	 * The composed action to fill at this step, emptied : the other one holds
+	 * the action of the previous step.
+	 */
+	protected ComposedActionArray nextAction() {
+		ComposedActionArray next = (spare == null) ? new ComposedActionArray(
+				listOfAgents.size()) : spare;
+		spare = (ComposedActionArray) ca;
+		ca = next;
+		next.clear();
+		return next;
+	}
+
+	public void newEpisode() {
+		super.newEpisode();
+		((ComposedActionArray) ca).clear();
+		lastAction = new ComposedActionArray();
+	}
+
+}
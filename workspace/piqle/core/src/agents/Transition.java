@@ -0,0 +1,65 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    Transition.java
+ *
+ */
+package agents;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * One step of experience (s,a,r,s') : everything a selector needs to call
+ * {@link algorithms.IStrategyLearner#learn(IState, IState, IAction, double)}.
+ */
+public class Transition {
+
+	private IState oldState;
+
+	private IAction action;
+
+	private double reward;
+
+	private IState newState;
+
+	public Transition(IState s1, IAction a, double r, IState s2) {
+		this.oldState = s1;
+		this.action = a;
+		this.reward = r;
+		this.newState = s2;
+	}
+
+	public IState getOldState() {
+		return oldState;
+	}
+
+	public IAction getAction() {
+		return action;
+	}
+
+	public double getReward() {
+		return reward;
+	}
+
+	public IState getNewState() {
+		return newState;
+	}
+
+	public String toString() {
+		return oldState + " " + action + " " + reward + " " + newState;
+	}
+}
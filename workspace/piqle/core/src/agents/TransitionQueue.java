@@ -0,0 +1,174 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    TransitionQueue.java
+ *
+ */
+package agents;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue of {@link Transition}s with many producers (the
+ * actors) and a single consumer (the learner). <br>
+ * It is a ring buffer where each slot carries a sequence number telling
+ * whether it is ready to be written or to be read : producers reserve a slot
+ * with a compare-and-set on the tail, the consumer just moves the head.
+ * <p>
+ * When the buffer is full, {@link #put(Transition)} waits until the learner
+ * frees a slot : actors are slowed down to the speed of the learner
+ * (backpressure). The number of such waits and the maximal depth reached are
+ * kept for monitoring.
+ */
+public class TransitionQueue {
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final AtomicReferenceArray<Transition> slots;
+
+	/** sequence[i]==position : free for the producer writing at position,
+	 * sequence[i]==position+1 : ready for the consumer. */
+	private final AtomicLongArray sequence;
+
+	/** Next position to be written */
+	private final AtomicLong tail = new AtomicLong(0);
+
+	/** Next position to be read (only moved by the consumer) */
+	private volatile long head = 0;
+
+	/** Number of times a producer found the queue full */
+	private final AtomicLong backpressure = new AtomicLong(0);
+
+	/** Largest depth seen by a producer */
+	private final AtomicInteger maxDepth = new AtomicInteger(0);
+
+	/** @param size the capacity, rounded up to a power of two. */
+	public TransitionQueue(int size) {
+		int c = 1;
+		while (c < size)
+			c <<= 1;
+		this.capacity = c;
+		this.mask = c - 1;
+		this.slots = new AtomicReferenceArray<Transition>(c);
+		this.sequence = new AtomicLongArray(c);
+		for (int i = 0; i < c; i++)
+			sequence.set(i, i);
+	}
+
+	/**
+	 * Try to append a transition (any thread).
+	 *
+	 * @return false if the queue is full.
+	 */
+	public boolean offer(Transition t) {
+		long pos;
+		int index;
+		while (true) {
+			pos = tail.get();
+			index = (int) (pos & mask);
+			long dif = sequence.get(index) - pos;
+			if (dif == 0) {
+				if (tail.compareAndSet(pos, pos + 1))
+					break;
+			} else if (dif < 0)
+				return false;
+		}
+		slots.set(index, t);
+		sequence.set(index, pos + 1);
+		int depth = (int) (pos + 1 - head);
+		int max = maxDepth.get();
+		while ((depth > max) && !maxDepth.compareAndSet(max, depth))
+			max = maxDepth.get();
+		return true;
+	}
+
+	/** Append a transition, waiting as long as the queue is full (any thread). */
+	public void put(Transition t) {
+		if (offer(t))
+			return;
+		backpressure.incrementAndGet();
+		while (!offer(t))
+			LockSupport.parkNanos(1000);
+	}
+
+	/**
+	 * Remove the oldest transition (consumer thread only).
+	 *
+	 * @return null if the queue is empty.
+	 */
+	public Transition poll() {
+		long pos = head;
+		int index = (int) (pos & mask);
+		if (sequence.get(index) != pos + 1)
+			return null;
+		Transition t = slots.get(index);
+		slots.set(index, null);
+		head = pos + 1;
+		sequence.set(index, pos + capacity);
+		return t;
+	}
+
+	/**
+	 * Move as many transitions as possible into <code>batch</code> (consumer
+	 * thread only).
+	 *
+	 * @return the number of transitions moved.
+	 */
+	public int drainTo(Transition batch[]) {
+		int n = 0;
+		while (n < batch.length) {
+			Transition t = poll();
+			if (t == null)
+				break;
+			batch[n++] = t;
+		}
+		return n;
+	}
+
+	/** Current number of transitions waiting for the learner. */
+	public int size() {
+		return (int) Math.max(0, tail.get() - head);
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** Number of times an actor had to wait for the learner. */
+	public long getBackpressureEvents() {
+		return backpressure.get();
+	}
+
+	/** Largest number of waiting transitions observed. */
+	public int getMaxDepth() {
+		return maxDepth.get();
+	}
+
+	/** Total number of transitions accepted since creation. */
+	public long getTotalOffered() {
+		return tail.get();
+	}
+}
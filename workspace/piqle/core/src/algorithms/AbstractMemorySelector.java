@@ -26,11 +26,30 @@ import integrated.BoltzmannSelector;
 import integrated.EpsilonGreedySelector;
 import integrated.RouletteWheelSelector;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Iterator;
 import java.util.Random;
 
+import util.RandomSource;
+
+import qlearning.IEnumerableRewardStore;
+import qlearning.IPairCodec;
 import qlearning.IRewardStore;
+import qlearning.IVisitCounter;
+import qlearning.VisitCounts;
+import qlearning.QSnapshot;
+import qlearning.SnapshotRewardStore;
 import dataset.Dataset;
+import environment.AbstractState;
 import environment.ActionList;
 import environment.IAction;
 import environment.IState;
@@ -58,6 +77,9 @@ import environment.IState;
  */
 abstract public class AbstractMemorySelector implements ISelector {
 
+	/** The UID of the first version : agents saved since then can be read. */
+	private static final long serialVersionUID = -359837632682733401L;
+
 	/** Memorizing or computing Q(s,a) */
 	protected IRewardStore memory;
 
@@ -67,7 +89,19 @@ abstract public class AbstractMemorySelector implements ISelector {
 	/** discount rate */
 	protected double gamma = 0.9;
 
-	private Random generator = new Random();
+	private Random generator = RandomSource.newGenerator();
+
+	/** Past transitions learnt again at each step (null : none) */
+	protected ReplayBuffer replay;
+
+	/** Number of replayed transitions per real one */
+	protected double replayRatio = 1.0;
+
+	/** Replays owed : the fractional part of the ratio accumulates */
+	private double replayCredit;
+
+	/** List of legal moves reused by learn() and bestAction() */
+	private transient ActionList scratch;
 
 	/**
 	 * Factor by which we multiply alpha at each learning step (geometric decay)<br>
@@ -86,6 +120,12 @@ abstract public class AbstractMemorySelector implements ISelector {
 	 */
 	protected double alphaDecayPower = 0.8;
 
+	/** Learning rate of each pair (null : alpha decays with count) */
+	protected ILearningRateSchedule schedule;
+
+	/** Visits of the pairs, when a schedule is used */
+	protected IVisitCounter visits;
+
 	public void setAlpha(double a) {
 		this.alpha = a;
 	}
@@ -161,6 +201,31 @@ abstract public class AbstractMemorySelector implements ISelector {
 
 	protected BoltzmannSelector bs;
 
+	/**
+	 * Build the three choosing strategies on top of the current memory :
+	 * must be called by subclasses once <code>memory</code> is set.
+	 * Epsilon-greedy is the default policy.
+	 */
+	protected void buildStrategies() {
+		rws = new RouletteWheelSelector(memory);
+		egs = new EpsilonGreedySelector(memory);
+		bs = new BoltzmannSelector(memory);
+		egs.setEpsilonGreedy(true);
+	}
+
+	/**
+	 * Agents saved by the first version have no strategies, and no ratio of
+	 * replays (the initial values of the fields are not read).
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		if (rws == null)
+			buildStrategies();
+		if ((replay == null) && (replayRatio == 0.0))
+			replayRatio = 1.0;
+	}
+
 	public void setRouletteWheel() {
 		rws.setRouletteWheel(true);
 		egs.setEpsilonGreedy(false);
@@ -181,6 +246,29 @@ abstract public class AbstractMemorySelector implements ISelector {
 		bs.setBoltzmann(true);
 	}
 
+	/** Access the memory, for example to share it between several agents. */
+	public IRewardStore getMemory() {
+		return memory;
+	}
+
+	/**
+	 * Replace the memory, keeping the learning and exploration parameters :
+	 * several selectors given the same store (or views of it, see
+	 * {@link qlearning.RoleRewardStore}) pool their experience. <br>
+	 * The selector does not own its memory : a memory holding files (see
+	 * {@link qlearning.TieredRewardMemorizer}) is closed by the code which
+	 * created it.
+	 */
+	public void setMemory(IRewardStore m) {
+		memory = m;
+		if (schedule != null)
+			visits = (m instanceof IVisitCounter) ? (IVisitCounter) m
+					: new VisitCounts();
+		rws.setMemory(m);
+		egs.setMemory(m);
+		bs.setMemory(m);
+	}
+
 	/** Finding Q(s,a) */
 	public double getValue(IState s, IAction a) {
 		return memory.get(s, a);
@@ -207,15 +295,39 @@ abstract public class AbstractMemorySelector implements ISelector {
 	 *            immediate reward.
 	 */
 	public void learn(IState s1, IState s2, IAction a, double reward) {
-		if (geometricDecay)
-			alpha *= decayAlpha;
-		else {
-			alpha = 1 / Math.pow(count + 1.0, this.alphaDecayPower);
+		if (schedule == null) {
+			if (geometricDecay)
+				alpha *= decayAlpha;
+			else
+				alpha = 1 / Math.pow(count + 1.0, this.alphaDecayPower);
 		}
 
 		count++;
+		double error = backup(s1, s2, a, reward);
+		if (replay != null) {
+			replay.add(s1, s2, a, reward, error);
+			replayCredit += replayRatio;
+			while (replayCredit >= 1.0) {
+				replayCredit -= 1.0;
+				int i = replay.sample();
+				replay.setError(i, backup(replay.getState(i), replay
+						.getNextState(i), replay.getAction(i), replay
+						.getReward(i)));
+			}
+		}
+	}
+
+	/**
+	 * One-step Q-Learning backup of Q(s1,a) with the current alpha.
+	 * 
+	 * @return the TD error.
+	 */
+	protected double backup(IState s1, IState s2, IAction a, double reward) {
+		if (schedule != null)
+			alpha = schedule.rate(visits.addVisit(s1, a));
 		double qsa = memory.get(s1, a);
-		ActionList la = s2.getActionList();
+		ActionList la = actionsFrom(s2);
+		double error;
 		if (la.size() != 0) {
 			Iterator<IAction> iterator = la.iterator();
 			double maxqsap = memory.get(s2, iterator.next());
@@ -225,11 +337,104 @@ abstract public class AbstractMemorySelector implements ISelector {
 				if (qsap > maxqsap)
 					maxqsap = qsap;
 			}
-			qsa += alpha * (reward + gamma * maxqsap - qsa);
+			error = reward + gamma * maxqsap - qsa;
+			qsa += alpha * error;
 			memory.put(s1, a, s2, qsa);
 		} else {
-			memory.put(s1, a, s2, qsa + alpha * (reward - qsa));
+			error = reward - qsa;
+			memory.put(s1, a, s2, qsa + alpha * error);
 		}
+		return error;
+	}
+
+	/**
+	 * Learn again from past transitions : after each real transition is
+	 * learnt and stored into the buffer, <code>ratio</code> transitions drawn
+	 * from the buffer are backed up, on average (0.5 : one every two steps).
+	 * The replayed backups use the alpha of the current step. <br>
+	 * Only for selectors learning with the one-step backup of this class (not
+	 * for the eligibility traces of Watkins' and Peng's Q(lambda)).
+	 * 
+	 * @param b
+	 *            null : no replay (the default).
+	 */
+	public void setReplay(ReplayBuffer b, double ratio) {
+		this.replay = b;
+		this.replayRatio = ratio;
+		this.replayCredit = 0.0;
+	}
+
+	public ReplayBuffer getReplay() {
+		return replay;
+	}
+
+	public double getReplayRatio() {
+		return replayRatio;
+	}
+
+	/**
+	 * Learning rate of each pair according to the number of its backups,
+	 * instead of a rate decaying with the number of steps of the agent : a
+	 * pair seldom visited keeps learning. The counts are kept by the memory
+	 * when it can (see {@link IVisitCounter}), in a separate table otherwise.
+	 * 
+	 * @param s
+	 *            null : back to the decay of alpha with the number of steps.
+	 */
+	public void setLearningRateSchedule(ILearningRateSchedule s) {
+		this.schedule = s;
+		if (s == null)
+			visits = null;
+		else if (visits == null)
+			visits = (memory instanceof IVisitCounter) ? (IVisitCounter) memory
+					: new VisitCounts();
+	}
+
+	public ILearningRateSchedule getLearningRateSchedule() {
+		return schedule;
+	}
+
+	/** Number of backups of (s,a) so far, when a schedule is used. */
+	public int getVisits(IState s, IAction a) {
+		return visits == null ? 0 : visits.getVisits(s, a);
+	}
+
+	/**
+	 * Learning rate of a pair already visited, without counting a visit
+	 * (for the pairs updated through eligibility traces).
+	 */
+	protected double rateOf(IState s, IAction a) {
+		return schedule.rate(Math.max(1, visits.getVisits(s, a)));
+	}
+
+	/**
+	 * Legal moves from s, written into the same list at each call when the
+	 * environment allows it (see
+	 * {@link AbstractState#getActionList(ActionList)}) : only valid until the
+	 * next call.
+	 */
+	protected ActionList actionsFrom(IState s) {
+		if (!(s instanceof AbstractState))
+			return s.getActionList();
+		if (scratch == null)
+			scratch = new ActionList(s);
+		return ((AbstractState) s).getActionList(scratch);
+	}
+
+	/**
+	 * max Q(s,a) over l, the legal moves from s (see
+	 * {@link #actionsFrom(IState)}) : 0 for a final state.
+	 */
+	protected double maxValue(IState s, ActionList l) {
+		if (l.size() == 0)
+			return 0.0;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < l.size(); i++) {
+			double q = memory.get(s, l.get(i));
+			if (q > max)
+				max = q;
+		}
+		return max;
 	}
 
 	/** Choose one of the legal moves */
@@ -245,7 +450,7 @@ abstract public class AbstractMemorySelector implements ISelector {
 
 	/** Auxiliary/debug method : find the best action from a state. */
 	public IAction bestAction(IState s) {
-		ActionList l = s.getActionList();
+		ActionList l = actionsFrom(s);
 		Iterator<IAction> iterator = l.iterator();
 		if (l.size() == 0)
 			return null;
@@ -262,6 +467,125 @@ abstract public class AbstractMemorySelector implements ISelector {
 		return meilleure;
 	}
 
+	/**
+	 * Write the learning and exploration parameters : alpha and its decay,
+	 * gamma, number of learning steps, policy, epsilon and tau.
+	 */
+	public void writeParameters(DataOutput out) throws IOException {
+		out.writeDouble(alpha);
+		out.writeDouble(gamma);
+		out.writeDouble(decayAlpha);
+		out.writeDouble(count);
+		out.writeDouble(alphaDecayPower);
+		out.writeBoolean(geometricDecay);
+		out.writeByte(rws.isRouletteWheel() ? 1 : bs.isBoltzmann() ? 2 : 0);
+		out.writeDouble(getEpsilon());
+		out.writeDouble(getTau());
+	}
+
+	/** Read parameters written by {@link #writeParameters(DataOutput)}. */
+	public void readParameters(DataInput in) throws IOException {
+		alpha = in.readDouble();
+		gamma = in.readDouble();
+		decayAlpha = in.readDouble();
+		count = in.readDouble();
+		alphaDecayPower = in.readDouble();
+		geometricDecay = in.readBoolean();
+		switch (in.readByte()) {
+		case 1:
+			setRouletteWheel();
+			break;
+		case 2:
+			setBoltzmann();
+			break;
+		default:
+			setEpsilonGreedy();
+		}
+		setEpsilon(in.readDouble());
+		setTau(in.readDouble());
+	}
+
+	/**
+	 * Write the parameters, and the state of the random streams of the
+	 * selector : a selector reading them draws the same numbers as this one
+	 * from now on. Used to resume learning exactly (see
+	 * {@link qlearning.CheckpointedRewardStore}).
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		writeParameters(out);
+		writeGenerator(out, generator);
+		writeGenerator(out, egs.getGenerator());
+		writeGenerator(out, bs.getGenerator());
+		writeGenerator(out, rws.getGenerator());
+	}
+
+	/** Read a state written by {@link #writeState(DataOutput)}. */
+	public void readState(DataInput in) throws IOException {
+		readParameters(in);
+		generator = readGenerator(in);
+		egs.setGenerator(readGenerator(in));
+		bs.setGenerator(readGenerator(in));
+		rws.setGenerator(readGenerator(in));
+	}
+
+	private static void writeGenerator(DataOutput out, Random r)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bytes);
+		oos.writeObject(r);
+		oos.close();
+		out.writeInt(bytes.size());
+		out.write(bytes.toByteArray());
+	}
+
+	private static Random readGenerator(DataInput in) throws IOException {
+		byte bytes[] = new byte[in.readInt()];
+		in.readFully(bytes);
+		try {
+			return (Random) new ObjectInputStream(new ByteArrayInputStream(
+					bytes)).readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("unknown random generator : "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Save the memory and the parameters as a compact snapshot (see
+	 * {@link QSnapshot}) : much smaller and faster than the serialization of
+	 * the agent. The memory must be able to list its pairs.
+	 */
+	public void saveSnapshot(File f, IPairCodec codec, boolean compress)
+			throws IOException {
+		if (!(memory instanceof IEnumerableRewardStore))
+			throw new IllegalArgumentException(memory.getClass().getName()
+					+ " cannot list its pairs");
+		ByteArrayOutputStream parameters = new ByteArrayOutputStream();
+		writeParameters(new DataOutputStream(parameters));
+		QSnapshot.write(f, (IEnumerableRewardStore) memory, codec, parameters
+				.toByteArray(), compress);
+	}
+
+	/**
+	 * Read a snapshot written by
+	 * {@link #saveSnapshot(File, IPairCodec, boolean)} and restore the
+	 * parameters.
+	 * 
+	 * @param readOnly true : the snapshot becomes the memory, read in place,
+	 *            for evaluation only ; false : its pairs are copied into the
+	 *            current memory, which goes on learning.
+	 */
+	public void loadSnapshot(File f, IPairCodec codec, boolean readOnly)
+			throws IOException {
+		SnapshotRewardStore snapshot = QSnapshot.open(f, codec);
+		readParameters(new DataInputStream(new ByteArrayInputStream(snapshot
+				.getParameters())));
+		if (readOnly)
+			setMemory(snapshot);
+		else
+			snapshot.copyTo(memory);
+	}
+
 	public String toString() {
 		return memory.toString();
 	}
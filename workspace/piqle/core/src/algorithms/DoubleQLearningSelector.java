@@ -0,0 +1,123 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    DoubleQLearningSelector.java
+ *
+ */
+package algorithms;
+
+import java.util.Random;
+
+import qlearning.DoubleRewardMemorizer;
+import qlearning.IDefaultValueChooser;
+import util.RandomSource;
+import environment.ActionList;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Double Q-Learning : two estimates QA and QB of each pair. At each step,
+ * one of them, drawn at random, is updated with the value of the other one
+ * for the action it finds best :
+ * 
+ * <pre>
+ * QA(s,a) += alpha*(r + gamma*QB(s',argmax_b QA(s',b)) - QA(s,a))
+ * </pre>
+ * 
+ * The maximum of noisy estimates overestimates the value of the best
+ * action ; choosing with one estimate and evaluating with the other one
+ * removes this bias, which slows Q-Learning down in stochastic
+ * environments. <br>
+ * Both estimates are kept in a {@link DoubleRewardMemorizer}, and the
+ * exploration policies choose on their mean. A snapshot or a visit of the
+ * memory only holds this mean : loaded read-only, or as any other memory
+ * without two estimates, it serves the greedy policy but cannot learn.
+ * 
+ * @see <a href="http://papers.nips.cc/paper/3964-double-q-learning">Double
+ *      Q-learning (van Hasselt, 2010)</a>
+ */
+public class DoubleQLearningSelector extends AbstractMemorySelector {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Chooses the estimate updated at each step */
+	private Random coin = RandomSource.newGenerator();
+
+	public DoubleQLearningSelector() {
+		memory = new DoubleRewardMemorizer();
+		buildStrategies();
+	}
+
+	public DoubleQLearningSelector(IDefaultValueChooser dvc) {
+		memory = new DoubleRewardMemorizer(dvc);
+		buildStrategies();
+	}
+
+	/** Use an already existing memory, possibly shared with other selectors. */
+	public DoubleQLearningSelector(DoubleRewardMemorizer store) {
+		memory = store;
+		buildStrategies();
+	}
+
+	/**
+	 * Estimate 0 (QA) or 1 (QB) of (s,a) ; both are the value of the pair
+	 * when the memory keeps only one estimate.
+	 */
+	public double getValue(IState s, IAction a, int which) {
+		if (memory instanceof DoubleRewardMemorizer)
+			return ((DoubleRewardMemorizer) memory).get(s, a, which);
+		return memory.get(s, a);
+	}
+
+	/**
+	 * Backup of one of the two estimates of Q(s1,a), with one lookup per
+	 * pair.
+	 * 
+	 * @return the TD error of the estimate updated.
+	 */
+	protected double backup(IState s1, IState s2, IAction a, double reward) {
+		if (!(memory instanceof DoubleRewardMemorizer))
+			throw new IllegalStateException(memory.getClass().getName()
+					+ " keeps one estimate : Double Q-Learning cannot learn in it");
+		DoubleRewardMemorizer store = (DoubleRewardMemorizer) memory;
+		int i = coin.nextBoolean() ? 0 : 1;
+		double target = reward;
+		ActionList la = actionsFrom(s2);
+		if (la.size() != 0) {
+			double best = Double.NEGATIVE_INFINITY;
+			double other = 0.0;
+			for (int j = 0; j < la.size(); j++) {
+				int k = store.slot(s2, la.get(j));
+				double q = store.getValue(k, i);
+				if (q > best) {
+					best = q;
+					other = store.getValue(k, 1 - i);
+				}
+			}
+			target += gamma * other;
+		}
+		// looked up last : adding the pairs of s2 may move the slots
+		int k = store.slot(s1, a);
+		if (schedule != null)
+			alpha = schedule.rate(visits == store ? store.addVisit(k) : visits
+					.addVisit(s1, a));
+		double q = store.getValue(k, i);
+		double error = target - q;
+		store.setValue(k, i, q + alpha * error);
+		return error;
+	}
+
+}
@@ -0,0 +1,231 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    DynaQSelector.java
+ *
+ */
+package algorithms;
+
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import qlearning.ConcurrentRewardMemorizer;
+import qlearning.IRewardStore;
+import qlearning.QuantizedRewardStore;
+import util.RandomSource;
+import environment.AbstractState;
+import environment.ActionList;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Dyna-Q with planning in the background : the agent learns from each real
+ * transition as in Q-Learning and records it in a model (see
+ * {@link TabularModel}), while a planning thread backs up pairs drawn at
+ * random from the model. The agent never waits for the planning : a slow
+ * environment (a simulated robot, a real one) leaves time to the planner,
+ * on a spare core or while the agent waits. <br>
+ * Both threads write into the same memory, which must be thread-safe (a
+ * {@link ConcurrentRewardMemorizer} by default) ; the model is shared under
+ * a lock held only to record or draw a transition.
+ * <p>
+ * The planning budget is either a number of backups per real step (an upper
+ * bound : the planner lags behind when it has no time left), or a number of
+ * backups per second, whatever the agent does.
+ * <p>
+ * The planner starts with the first real step ; {@link #stopPlanning()}
+ * stops it until the next real step.
+ * 
+ * <a href="http://www.cs.ualberta.ca/~sutton/book/ebook/node96.html">Sutton
+ * & Barto, section 9.2 : Dyna-Q</a>
+ */
+public class DynaQSelector extends AbstractMemorySelector {
+
+	private static final long serialVersionUID = 1L;
+
+	private TabularModel model;
+
+	/** Backups per real step (ratio) or per second (rate) */
+	private double budget = 10.0;
+
+	private boolean perSecond = false;
+
+	/** Step size of the backups from the model */
+	private double planningAlpha = 1.0;
+
+	private Random planningGenerator = RandomSource.newGenerator();
+
+	private volatile long realSteps = 0;
+
+	private volatile long planningUpdates = 0;
+
+	private transient volatile Thread planner;
+
+	/** Legal moves used by the planning thread only */
+	private transient ActionList plannerScratch;
+
+	/** Deterministic model, concurrent memory. */
+	public DynaQSelector() {
+		this(new ConcurrentRewardMemorizer(), true);
+	}
+
+	/**
+	 * @param store
+	 *            a memory which can be read and written by two threads ;
+	 *            for a {@link QuantizedRewardStore}, the model numbers the
+	 *            states by cell of its grid.
+	 * @param deterministic
+	 *            true : the model keeps the last outcome of each pair, false :
+	 *            outcomes are drawn with their observed frequencies.
+	 */
+	public DynaQSelector(IRewardStore store, boolean deterministic) {
+		memory = store;
+		model = new TabularModel(deterministic);
+		if (store instanceof QuantizedRewardStore)
+			model.setQuantizer(((QuantizedRewardStore) store).getQuantizer());
+		buildStrategies();
+	}
+
+	/** At most r backups from the model per real step (the default, 10). */
+	public void setPlanningRatio(double r) {
+		this.budget = r;
+		this.perSecond = false;
+	}
+
+	/** r backups from the model per second, as long as the planner runs. */
+	public void setPlanningRate(double r) {
+		this.budget = r;
+		this.perSecond = true;
+	}
+
+	/**
+	 * Step size of the backups from the model : 1 (the default) for a
+	 * deterministic model, smaller when outcomes are drawn.
+	 */
+	public void setPlanningAlpha(double a) {
+		this.planningAlpha = a;
+	}
+
+	public TabularModel getModel() {
+		return model;
+	}
+
+	/** Number of transitions met in the environment. */
+	public long getRealSteps() {
+		return realSteps;
+	}
+
+	/** Number of backups done by the planner. */
+	public long getPlanningUpdates() {
+		return planningUpdates;
+	}
+
+	public void learn(IState s1, IState s2, IAction a, double reward) {
+		super.learn(s1, s2, a, reward);
+		synchronized (model) {
+			model.observe(s1, a, s2, reward);
+		}
+		realSteps++;
+		Thread t = planner;
+		if (t == null)
+			startPlanning();
+		else if (!perSecond)
+			LockSupport.unpark(t);
+	}
+
+	/** Start the planning thread, if it is not running. */
+	public synchronized void startPlanning() {
+		if (planner != null)
+			return;
+		planner = new Thread(new Runnable() {
+			public void run() {
+				plan();
+			}
+		}, "dyna-planner");
+		planner.setDaemon(true);
+		planner.start();
+	}
+
+	/** Stop the planning thread and wait for it. */
+	public synchronized void stopPlanning() throws InterruptedException {
+		Thread t = planner;
+		if (t == null)
+			return;
+		planner = null;
+		LockSupport.unpark(t);
+		t.join();
+	}
+
+	private void plan() {
+		Thread me = Thread.currentThread();
+		long start = System.nanoTime();
+		long done = 0;
+		while (planner == me) {
+			if (perSecond) {
+				long due = (long) (budget * (System.nanoTime() - start) / 1e9);
+				if (done >= due) {
+					LockSupport.parkNanos((long) ((done + 1 - due) * 1e9 / budget));
+					continue;
+				}
+			} else if (planningUpdates >= budget * realSteps) {
+				LockSupport.park();
+				continue;
+			}
+			backup();
+			done++;
+			planningUpdates++;
+		}
+	}
+
+	/** One backup of a pair drawn from the model, with an outcome drawn. */
+	private void backup() {
+		IState s, sp;
+		IAction b;
+		double r;
+		synchronized (model) {
+			int n = model.getNbPairs();
+			if (n == 0)
+				return;
+			int pair = planningGenerator.nextInt(n);
+			int o = model.sampleOutcome(pair, planningGenerator);
+			s = model.getPairState(pair);
+			b = model.getPairAction(pair);
+			sp = model.getOutcomeState(o);
+			r = model.getOutcomeReward(o);
+		}
+		double q = memory.get(s, b);
+		memory.put(s, b, sp, q + planningAlpha
+				* (r + gamma * maxValue(sp, plannerActions(sp)) - q));
+	}
+
+	/**
+	 * Legal moves from s, in a list of the planner thread (the selector's own
+	 * list is used by the learning thread).
+	 */
+	private ActionList plannerActions(IState s) {
+		if (!(s instanceof AbstractState))
+			return s.getActionList();
+		if (plannerScratch == null)
+			plannerScratch = new ActionList(s);
+		return ((AbstractState) s).getActionList(plannerScratch);
+	}
+
+	public String toString() {
+		return "Dyna-Q : " + realSteps + " real steps, " + planningUpdates
+				+ " planning backups, " + model;
+	}
+
+}
@@ -0,0 +1,44 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    HarmonicSchedule.java
+ *
+ */
+package algorithms;
+
+/**
+ * alpha = a/(a+n-1) : 1 at the first backup, then decreasing as 1/n, more
+ * slowly when a is large.
+ */
+public class HarmonicSchedule implements ILearningRateSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double a;
+
+	public HarmonicSchedule(double a) {
+		this.a = a;
+	}
+
+	public double rate(int n) {
+		return a / (a + n - 1);
+	}
+
+	public String toString() {
+		return "alpha=" + a + "/(" + a + "+n-1)";
+	}
+
+}
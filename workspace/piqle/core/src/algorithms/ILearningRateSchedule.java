@@ -0,0 +1,37 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ILearningRateSchedule.java
+ *
+ */
+package algorithms;
+
+import java.io.Serializable;
+
+/**
+ * Learning rate of a pair as a function of the number of times it was
+ * backed up, instead of the number of steps of the whole agent (see
+ * {@link AbstractMemorySelector#setLearningRateSchedule(ILearningRateSchedule)}).
+ * 
+ * @see <a href="http://www.cs.tau.ac.il/~evend/papers/ql-jmlr.ps">Learning
+ *      rates for Q-Learning</a>
+ */
+public interface ILearningRateSchedule extends Serializable {
+
+	/** Learning rate of the n-th backup of a pair (n is at least 1). */
+	public double rate(int n);
+
+}
@@ -42,23 +42,27 @@ public class NNSelector extends  AbstractMemorySelector{
 
 	public NNSelector(){
 	memory=new RewardMemorizerNN(); 
+	buildStrategies(); 
 	((RewardMemorizerNN)memory).setRescale(); 
     }
 
   
     public NNSelector(int descLayers[]){
 	memory=new RewardMemorizerNN(); 
+	buildStrategies(); 
 	((RewardMemorizerNN)memory).setNN(descLayers);
     }
     
     public NNSelector(IDefaultValueChooser dvc){
     	memory=new RewardMemorizerNN(dvc); 
+    	buildStrategies(); 
     	((RewardMemorizerNN)memory).setRescale(); 
     	
     }
     
     public NNSelector(int descLayers[],IDefaultValueChooser dvc){
     	memory=new RewardMemorizerNN(dvc); 
+    	buildStrategies(); 
     	((RewardMemorizerNN)memory).setNN(descLayers);
     }
     
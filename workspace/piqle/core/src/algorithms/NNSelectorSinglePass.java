@@ -48,16 +48,19 @@ public class NNSelectorSinglePass extends NNSelector{
 
 	public NNSelectorSinglePass(){
 	memory=new RewardMemorizerNNSinglePass(); 
+	buildStrategies(); 
     }
 	
 	public NNSelectorSinglePass(IDefaultValueChooser dvc){
 		super(dvc);
 		memory=new RewardMemorizerNNSinglePass(dvc); 
+		buildStrategies(); 
     	((RewardMemorizerNNSinglePass)memory).setRescale(); 
 	}
 	
 	public NNSelectorSinglePass(int descLayers[]){
 		memory=new RewardMemorizerNNSinglePass(); 
+		buildStrategies(); 
 		((RewardMemorizerNNSinglePass)memory).setNN(descLayers);
 	    }
 	    
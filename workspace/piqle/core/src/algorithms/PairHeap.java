@@ -0,0 +1,136 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PairHeap.java
+ *
+ */
+package algorithms;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Max-heap of pair numbers by priority, each pair being at most once in the
+ * heap : the position of every pair is indexed, so that raising its
+ * priority takes a logarithmic time instead of adding a duplicate.
+ */
+class PairHeap implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int heap[] = new int[64];
+
+	private double priority[] = new double[64];
+
+	/** Position of each pair in the heap, -1 if absent */
+	private int position[] = new int[64];
+
+	private int size = 0;
+
+	PairHeap() {
+		Arrays.fill(position, -1);
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Insert the pair, or raise its priority to p if it is lower. */
+	void raise(int pair, double p) {
+		if (pair >= position.length) {
+			int n = Math.max(2 * position.length, pair + 1);
+			int old = position.length;
+			position = Arrays.copyOf(position, n);
+			priority = Arrays.copyOf(priority, n);
+			Arrays.fill(position, old, n, -1);
+		}
+		int i = position[pair];
+		if (i < 0) {
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, 2 * size);
+			i = size++;
+			heap[i] = pair;
+			position[pair] = i;
+		} else if (priority[pair] >= p)
+			return;
+		priority[pair] = p;
+		up(i);
+	}
+
+	/** Priority of the first pair. */
+	double topPriority() {
+		return priority[heap[0]];
+	}
+
+	/** Remove and return the pair of highest priority. */
+	int pop() {
+		int top = heap[0];
+		position[top] = -1;
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			down(0);
+		}
+		return top;
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++)
+			position[heap[i]] = -1;
+		size = 0;
+	}
+
+	private void up(int i) {
+		int pair = heap[i];
+		double p = priority[pair];
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (priority[heap[parent]] >= p)
+				break;
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = pair;
+		position[pair] = i;
+	}
+
+	private void down(int i) {
+		int pair = heap[i];
+		double p = priority[pair];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if ((child + 1 < size)
+					&& (priority[heap[child + 1]] > priority[heap[child]]))
+				child++;
+			if (priority[heap[child]] <= p)
+				break;
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = pair;
+		position[pair] = i;
+	}
+
+}
@@ -44,6 +44,7 @@ public class PengNNSelector extends PengSelector{
 	public PengNNSelector(double l){
 	super(l); 
 	this.memory=new RewardMemorizerNN(); 
+	buildStrategies(); 
     }
 	
 
@@ -54,6 +55,7 @@ public class PengNNSelector extends PengSelector{
 	public PengNNSelector(double l, IDefaultValueChooser dvc) {
 		super(l);
 		this.memory=new RewardMemorizerNN(dvc);
+		buildStrategies(); 
 	}
 
 
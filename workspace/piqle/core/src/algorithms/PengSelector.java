@@ -85,10 +85,12 @@ public class PengSelector extends AbstractQLambdaSelector {
 	 * 
 	 */
 	public void learn(IState s1, IState s2, IAction a, double reward) {
-		if (geometricDecay)
-			alpha *= decayAlpha;
-		else
-			alpha = 1 / Math.pow(count + 0.0, this.alphaDecayPower);
+		if (schedule == null) {
+			if (geometricDecay)
+				alpha *= decayAlpha;
+			else
+				alpha = 1 / Math.pow(count + 0.0, this.alphaDecayPower);
+		}
 		count++;
 		double maxqsap = 0; // Vhat(x_{t+1})
 		double maxq = 0; // Vhat(x_t)
@@ -125,11 +127,15 @@ public class PengSelector extends AbstractQLambdaSelector {
 			double valeur = eligibles.get(courante);
 			double old = memory.get(courante.getState(), courante.getAction());
 			valeur *= lambda * gamma;
+			if (schedule != null)
+				alpha = rateOf(courante.getState(), courante.getAction());
 			memory.put(courante.getState(), courante.getAction(), null, old
 					+ alpha * valeur * et);
 			eligibles.put(courante, valeur);
 		}
 
+		if (schedule != null)
+			alpha = schedule.rate(visits.addVisit(s1, a));
 		memory.put(s1, a, s2, qsa + alpha * etprime);
 		if (!replace)
 			eligibles.increment(s1, a);
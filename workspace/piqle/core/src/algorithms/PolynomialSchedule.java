@@ -0,0 +1,64 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PolynomialSchedule.java
+ *
+ */
+package algorithms;
+
+/**
+ * alpha = scale/n^power : with 1/2 &lt; power &lt;= 1, the learning rates
+ * ensure the convergence of Q-Learning. <br>
+ * The rates of the first backups are computed once, in a table : no power
+ * is computed at each step.
+ */
+public class PolynomialSchedule implements ILearningRateSchedule {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double power, scale;
+
+	private final double table[];
+
+	/** alpha = 1/n^power, 4096 rates in the table. */
+	public PolynomialSchedule(double power) {
+		this(power, 1.0, 4096);
+	}
+
+	/** @param size number of rates computed in advance. */
+	public PolynomialSchedule(double power, double scale, int size) {
+		this.power = power;
+		this.scale = scale;
+		table = new double[size];
+		for (int n = 1; n < size; n++)
+			table[n] = scale / Math.pow(n, power);
+	}
+
+	public double rate(int n) {
+		if (n < table.length)
+			return table[n];
+		return scale / Math.pow(n, power);
+	}
+
+	public double getPower() {
+		return power;
+	}
+
+	public String toString() {
+		return "alpha=" + scale + "/n^" + power;
+	}
+
+}
@@ -0,0 +1,188 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PrioritizedSweepingSelector.java
+ *
+ */
+package algorithms;
+
+import qlearning.IRewardStore;
+import qlearning.QuantizedRewardStore;
+import qlearning.RewardMemorizer;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Prioritized sweeping : each real transition updates a model of the
+ * environment (see {@link TabularModel}), then the pairs whose value would
+ * change most are backed up from the model, the largest change first. When
+ * Q(s,a) changes, the pairs leading to s get a new priority : the reward
+ * goes back along the paths already met in a few steps, instead of one step
+ * per visit as in Q-Learning. <br>
+ * The backups of a real step are bounded (see {@link #setBackups(int)}) ;
+ * the pairs not backed up wait in a max-heap, with their priority |target -
+ * Q(s,a)|, for the next steps.
+ * <p>
+ * Q(s,a) is kept in an ordinary memory, and chosen with the usual
+ * exploration policies.
+ * 
+ * <a href="http://www.cs.ualberta.ca/~sutton/book/ebook/node98.html">Sutton
+ * & Barto, section 9.4 : prioritized sweeping</a>
+ */
+public class PrioritizedSweepingSelector extends AbstractMemorySelector {
+
+	private static final long serialVersionUID = 1L;
+
+	private TabularModel model;
+
+	private PairHeap queue = new PairHeap();
+
+	/** Maximal number of backups per real step */
+	private int backups = 10;
+
+	/** Smallest priority worth a backup */
+	private double threshold = 1e-4;
+
+	/** Step size of the backups from the model */
+	private double planningAlpha = 1.0;
+
+	private long realSteps = 0;
+
+	private long nbBackups = 0;
+
+	/** Deterministic model, memory in a RewardMemorizer. */
+	public PrioritizedSweepingSelector() {
+		this(new RewardMemorizer(), true);
+	}
+
+	/**
+	 * @param store
+	 *            for a {@link QuantizedRewardStore}, the model numbers the
+	 *            states by cell of its grid.
+	 * @param deterministic
+	 *            true : the model keeps the last outcome of each pair, false :
+	 *            it estimates the probabilities of the outcomes.
+	 */
+	public PrioritizedSweepingSelector(IRewardStore store, boolean deterministic) {
+		memory = store;
+		model = new TabularModel(deterministic);
+		if (store instanceof QuantizedRewardStore)
+			model.setQuantizer(((QuantizedRewardStore) store).getQuantizer());
+		buildStrategies();
+	}
+
+	/** Maximal number of backups from the model after each real step. */
+	public void setBackups(int n) {
+		this.backups = n;
+	}
+
+	public int getBackups() {
+		return backups;
+	}
+
+	/** Pairs whose priority is not above t are not backed up. */
+	public void setThreshold(double t) {
+		this.threshold = t;
+	}
+
+	/**
+	 * Step size of the backups from the model : 1 (the default) for a
+	 * deterministic environment, or a sample-based model. A learning rate
+	 * schedule, when set, replaces it.
+	 */
+	public void setPlanningAlpha(double a) {
+		this.planningAlpha = a;
+	}
+
+	/**
+	 * The backups come from the model, which already replays the past
+	 * transitions : no replay buffer.
+	 */
+	public void setReplay(ReplayBuffer b, double ratio) {
+		if (b != null)
+			throw new UnsupportedOperationException(
+					"prioritized sweeping replays from its model");
+		super.setReplay(b, ratio);
+	}
+
+	public TabularModel getModel() {
+		return model;
+	}
+
+	/** Number of transitions met in the environment. */
+	public long getRealSteps() {
+		return realSteps;
+	}
+
+	/** Number of backups from the model. */
+	public long getNbBackups() {
+		return nbBackups;
+	}
+
+	/** Number of pairs waiting for a backup. */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	public void learn(IState s1, IState s2, IAction a, double reward) {
+		count++;
+		realSteps++;
+		prioritize(model.observe(s1, a, s2, reward));
+		for (int k = 0; (k < backups) && !queue.isEmpty(); k++) {
+			int pair = queue.pop();
+			IState s = model.getPairState(pair);
+			IAction b = model.getPairAction(pair);
+			double q = memory.get(s, b);
+			double rate = schedule == null ? planningAlpha : schedule
+					.rate(visits.addVisit(s, b));
+			memory.put(s, b, model.getOutcomeState(model.firstOutcome(pair)), q
+					+ rate * (target(pair) - q));
+			nbBackups++;
+			int state = model.getStateId(s);
+			for (int e = model.firstPredecessor(state); e >= 0; e = model
+					.nextPredecessor(e))
+				prioritize(model.getPredecessorPair(e));
+		}
+	}
+
+	/** Queue the pair if its backup would change Q(s,a) enough. */
+	private void prioritize(int pair) {
+		double p = Math.abs(target(pair)
+				- memory.get(model.getPairState(pair), model
+						.getPairAction(pair)));
+		if (p > threshold)
+			queue.raise(pair, p);
+	}
+
+	/** Expected value of r+gamma*max Q(s',a') according to the model. */
+	private double target(int pair) {
+		double t = 0.0;
+		for (int o = model.firstOutcome(pair); o >= 0; o = model
+				.nextOutcome(o)) {
+			IState s = model.getOutcomeState(o);
+			t += model.getOutcomeProbability(pair, o)
+					* (model.getOutcomeReward(o) + gamma
+							* maxValue(s, actionsFrom(s)));
+		}
+		return t;
+	}
+
+	public String toString() {
+		return "Prioritized sweeping : " + realSteps + " real steps, "
+				+ nbBackups + " backups, " + model;
+	}
+
+}
@@ -2,6 +2,8 @@ package algorithms;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import qlearning.RewardMemorizerInteger;
 import dataset.Dataset;
 import environment.ActionList;
@@ -22,7 +24,7 @@ public class QLIntegerSelector implements ISelector{
 	private static final long serialVersionUID = 1L;
 
 	/** We always need some randomness */
-    protected static Random generateur=new Random(); 
+    protected Random generateur=RandomSource.newGenerator(); 
 
     protected int f1=1,f2=2,f3=4; 
     protected int p1=1; 
@@ -21,6 +21,7 @@ package algorithms;
  *
  */
 
+import qlearning.IRewardStore;
 import qlearning.RewardMemorizer;
 import qlearning.IDefaultValueChooser;
 
@@ -44,10 +45,19 @@ public class QLearningSelector extends  AbstractMemorySelector{
 
 	public QLearningSelector(){
 	memory=new RewardMemorizer(); 
+	buildStrategies(); 
     }
 	
 	public QLearningSelector(IDefaultValueChooser dvc){
 		memory=new RewardMemorizer(dvc);
+		buildStrategies(); 
+	}
+
+	/** Use an already existing memory, possibly shared with other selectors 
+	 * (asynchronous Q-Learning, see {@link referees.HogwildReferee}). */
+	public QLearningSelector(IRewardStore store){
+		memory=store; 
+		buildStrategies(); 
 	}
 
     /** When <code>states</code> and <code>actions</code> are memorized, 
@@ -26,6 +26,8 @@ package algorithms;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import dataset.Dataset;
 import environment.ActionList;
 import environment.IAction;
@@ -51,7 +53,7 @@ public class RandomSelector implements ISelector{
 
 	public IAction getChoice(ActionList l){
 	if(l.size()==0) return null;
-	    Random generator=new Random(); 
+	    Random generator=RandomSource.current(); 
 	    
 	    return l.get(generator.nextInt(l.size()));  
     }// getChoix
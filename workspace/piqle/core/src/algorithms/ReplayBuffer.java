@@ -0,0 +1,220 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ReplayBuffer.java
+ *
+ */
+package algorithms;
+
+import java.io.Serializable;
+import java.util.Random;
+
+import qlearning.ActionStatePair;
+import util.RandomSource;
+import environment.IAction;
+import environment.IState;
+import environment.QuantizedState;
+
+/**
+ * The last transitions (s,a,r,s') met by a selector, replayed to learn
+ * several times from each of them (see
+ * {@link AbstractMemorySelector#setReplay(ReplayBuffer, double)}). <br>
+ * The buffer is a ring of fixed capacity, kept in parallel arrays : the
+ * states and actions are references (mutable states are copied, see
+ * {@link ActionStatePair#retain(IState)}), the rewards are primitive values.
+ * When it is full, a new transition replaces the oldest one.
+ * <p>
+ * Transitions are drawn either uniformly, or in proportion to a priority
+ * (|TD error|+minPriority)^exponent, through a sum tree : drawing a
+ * transition and changing its priority take a time proportional to the
+ * logarithm of the capacity. The draws are not corrected by importance
+ * weights.
+ */
+public class ReplayBuffer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final IState from[], to[];
+
+	private final IAction actions[];
+
+	private final double rewards[];
+
+	/** Slot of the next transition, number of transitions stored */
+	private int next = 0, size = 0;
+
+	private final boolean prioritized;
+
+	/** Sum tree : node i is the sum of nodes 2i and 2i+1, leaves from index leaves */
+	private double tree[];
+
+	private int leaves;
+
+	private double exponent = 0.6;
+
+	private double minPriority = 1e-3;
+
+	private Random generator = RandomSource.newGenerator();
+
+	/** Uniform drawing. */
+	public ReplayBuffer(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * @param prioritized true : transitions drawn in proportion to their
+	 *            priority, false : uniformly.
+	 */
+	public ReplayBuffer(int capacity, boolean prioritized) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity " + capacity);
+		from = new IState[capacity];
+		to = new IState[capacity];
+		actions = new IAction[capacity];
+		rewards = new double[capacity];
+		this.prioritized = prioritized;
+		if (prioritized) {
+			leaves = Integer.highestOneBit(capacity);
+			if (leaves < capacity)
+				leaves *= 2;
+			tree = new double[2 * leaves];
+		}
+	}
+
+	/** How strongly the TD error biases the drawing (0 : uniform). */
+	public void setPriorityExponent(double e) {
+		this.exponent = e;
+	}
+
+	/** Priority added to the TD error, so that every transition may be drawn. */
+	public void setMinPriority(double p) {
+		this.minPriority = p;
+	}
+
+	public boolean isPrioritized() {
+		return prioritized;
+	}
+
+	public int capacity() {
+		return rewards.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		java.util.Arrays.fill(from, null);
+		java.util.Arrays.fill(to, null);
+		java.util.Arrays.fill(actions, null);
+		if (prioritized)
+			java.util.Arrays.fill(tree, 0.0);
+		next = size = 0;
+	}
+
+	/**
+	 * Store a transition, with the TD error of its first backup.
+	 * 
+	 * @return its slot.
+	 */
+	public int add(IState s1, IState s2, IAction a, double reward,
+			double error) {
+		int i = next;
+		from[i] = keep(s1);
+		to[i] = keep(s2);
+		actions[i] = a;
+		rewards[i] = reward;
+		next = (next + 1) % rewards.length;
+		if (size < rewards.length)
+			size++;
+		setError(i, error);
+		return i;
+	}
+
+	/**
+	 * A quantized state is replayed from : it keeps its original state, whose
+	 * legal moves are asked for.
+	 */
+	private static IState keep(IState s) {
+		return (s instanceof QuantizedState) ? ((QuantizedState) s)
+				.copyWithOriginal() : ActionStatePair.retain(s);
+	}
+
+	/** New TD error of the transition in slot i. */
+	public void setError(int i, double error) {
+		if (!prioritized)
+			return;
+		int node = leaves + i;
+		double p = Math.pow(Math.abs(error) + minPriority, exponent);
+		double delta = p - tree[node];
+		for (; node > 0; node >>= 1)
+			tree[node] += delta;
+	}
+
+	/** Slot of a transition drawn at random, -1 if the buffer is empty. */
+	public int sample() {
+		if (size == 0)
+			return -1;
+		if (!prioritized)
+			return generator.nextInt(size);
+		double u = generator.nextDouble() * tree[1];
+		int node = 1;
+		while (node < leaves) {
+			node <<= 1;
+			if (u >= tree[node]) {
+				u -= tree[node];
+				node++;
+			}
+		}
+		// rounding may reach an empty leaf at the end
+		return Math.min(node - leaves, size - 1);
+	}
+
+	/** Priority of slot i (1 when drawing uniformly). */
+	public double getPriority(int i) {
+		return prioritized ? tree[leaves + i] : 1.0;
+	}
+
+	public IState getState(int i) {
+		return from[i];
+	}
+
+	public IState getNextState(int i) {
+		return to[i];
+	}
+
+	public IAction getAction(int i) {
+		return actions[i];
+	}
+
+	public double getReward(int i) {
+		return rewards[i];
+	}
+
+	public Random getGenerator() {
+		return generator;
+	}
+
+	public void setGenerator(Random r) {
+		this.generator = r;
+	}
+
+	public String toString() {
+		return size + "/" + rewards.length + " transitions"
+				+ (prioritized ? " (prioritized)" : "");
+	}
+
+}
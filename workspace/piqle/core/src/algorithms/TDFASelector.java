@@ -24,6 +24,8 @@ package algorithms;
 import java.util.Iterator;
 import java.util.Random;
 
+import util.RandomSource;
+
 import tiling.EligibleTiles;
 import tiling.ListOfTiles;
 import tiling.Tile;
@@ -53,7 +55,7 @@ public class TDFASelector implements ISelector{
 	private static final long serialVersionUID = 1L;
 
 /** We always need a part of randomness */
-    protected static Random generator=new Random(); 
+    protected Random generator=RandomSource.newGenerator(); 
    
     // DEBUG : ONLY FOR MAABAC
 
@@ -0,0 +1,359 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    TabularModel.java
+ *
+ */
+package algorithms;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import qlearning.ActionStatePair;
+import util.Hashing;
+import environment.IAction;
+import environment.IState;
+import environment.QuantizedState;
+import environment.StateQuantizer;
+
+/**
+ * A model of the environment learnt from the transitions met : for each
+ * (s,a) pair, the states s' reached and the average reward, used to plan
+ * without acting (see {@link PrioritizedSweepingSelector}). <br>
+ * States and pairs are numbered when they are first seen ; everything else
+ * is kept in growing arrays of primitive values, the outcomes of a pair and
+ * the predecessors of a state as linked lists of indices :
+ * <ul>
+ * <li>deterministic : each pair keeps only its last outcome ;</li>
+ * <li>sample-based : each pair counts its outcomes, a backup uses their
+ * frequencies as probabilities.</li>
+ * </ul>
+ * The predecessors of s' are the pairs (s,a) which led to s' at least once.
+ * <p>
+ * On a continuous problem, the states are numbered by cell of a
+ * {@link StateQuantizer} grid (see {@link #setQuantizer(StateQuantizer)}) :
+ * the model holds one state per cell, the first one met in the cell, and
+ * counts the outcomes of all the states of the cell.
+ */
+public class TabularModel implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final boolean deterministic;
+
+	/** Grid numbering the states by cell, null : the states themselves */
+	private StateQuantizer quantizer;
+
+	private HashMap<IState, Integer> stateIds = new HashMap<IState, Integer>();
+
+	private HashMap<PairKey, Integer> pairIds = new HashMap<PairKey, Integer>();
+
+	/** Key used to look pairs up, reused from call to call */
+	private transient PairKey probe;
+
+	private IState states[] = new IState[64];
+
+	/** Head of the list of predecessors of each state (-1 : none) */
+	private int firstPredecessor[] = new int[64];
+
+	private int nbStates = 0;
+
+	/** State and action of each pair */
+	private int pairState[] = new int[64];
+
+	private IAction pairAction[] = new IAction[64];
+
+	/** Head of the list of outcomes, number of visits of each pair */
+	private int firstOutcome[] = new int[64];
+
+	private int visits[] = new int[64];
+
+	private int nbPairs = 0;
+
+	/** Outcomes : state reached, count, sum of rewards, next outcome */
+	private int outState[] = new int[64];
+
+	private int outCount[] = new int[64];
+
+	private double outReward[] = new double[64];
+
+	private int outNext[] = new int[64];
+
+	private int nbOutcomes = 0;
+
+	/** Predecessors : pair, next predecessor of the same state */
+	private int predPair[] = new int[64];
+
+	private int predNext[] = new int[64];
+
+	private int nbPredecessors = 0;
+
+	/**
+	 * @param deterministic
+	 *            true : keep the last outcome of each pair, false : count
+	 *            all of them.
+	 */
+	public TabularModel(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/** Number the states by cell of q : to be set before the first transition. */
+	public void setQuantizer(StateQuantizer q) {
+		if (nbStates > 0)
+			throw new IllegalStateException("The model already holds "
+					+ nbStates + " states");
+		this.quantizer = q;
+	}
+
+	public StateQuantizer getQuantizer() {
+		return quantizer;
+	}
+
+	/**
+	 * Learn the transition (s,a) to sp with reward r.
+	 * 
+	 * @return the number of the pair (s,a).
+	 */
+	public int observe(IState s, IAction a, IState sp, double r) {
+		if (quantizer != null) {
+			s = quantizer.quantize(s);
+			sp = quantizer.quantize(sp);
+		}
+		int pair = pairId(s, a);
+		int next = stateId(sp, true);
+		visits[pair]++;
+		int o = firstOutcome[pair];
+		while ((o >= 0) && (outState[o] != next))
+			o = outNext[o];
+		if (o < 0) {
+			if (deterministic && (firstOutcome[pair] >= 0)) {
+				o = firstOutcome[pair];
+				outState[o] = next;
+			} else {
+				o = newOutcome(pair, next);
+			}
+			addPredecessor(next, pair);
+		}
+		if (deterministic) {
+			outCount[o] = 1;
+			outReward[o] = r;
+		} else {
+			outCount[o]++;
+			outReward[o] += r;
+		}
+		return pair;
+	}
+
+	private int pairId(IState s, IAction a) {
+		int state = stateId(s, true);
+		if (probe == null)
+			probe = new PairKey(state, a);
+		else
+			probe.reset(state, a);
+		Integer id = pairIds.get(probe);
+		if (id != null)
+			return id.intValue();
+		if (nbPairs == pairState.length) {
+			int n = 2 * nbPairs;
+			pairState = Arrays.copyOf(pairState, n);
+			pairAction = Arrays.copyOf(pairAction, n);
+			firstOutcome = Arrays.copyOf(firstOutcome, n);
+			visits = Arrays.copyOf(visits, n);
+		}
+		pairState[nbPairs] = state;
+		pairAction[nbPairs] = a;
+		firstOutcome[nbPairs] = -1;
+		visits[nbPairs] = 0;
+		pairIds.put(new PairKey(state, a), Integer.valueOf(nbPairs));
+		return nbPairs++;
+	}
+
+	private int stateId(IState s, boolean create) {
+		Integer id = stateIds.get(s);
+		if (id != null)
+			return id.intValue();
+		if (!create)
+			return -1;
+		if (nbStates == states.length) {
+			states = Arrays.copyOf(states, 2 * nbStates);
+			firstPredecessor = Arrays.copyOf(firstPredecessor, 2 * nbStates);
+		}
+		// the states are planned from : a cell keeps its first state
+		IState kept = (s instanceof QuantizedState) ? ((QuantizedState) s)
+				.copyWithOriginal() : ActionStatePair.retain(s);
+		states[nbStates] = kept;
+		firstPredecessor[nbStates] = -1;
+		stateIds.put(kept, Integer.valueOf(nbStates));
+		return nbStates++;
+	}
+
+	private int newOutcome(int pair, int next) {
+		if (nbOutcomes == outState.length) {
+			int n = 2 * nbOutcomes;
+			outState = Arrays.copyOf(outState, n);
+			outCount = Arrays.copyOf(outCount, n);
+			outReward = Arrays.copyOf(outReward, n);
+			outNext = Arrays.copyOf(outNext, n);
+		}
+		outState[nbOutcomes] = next;
+		outCount[nbOutcomes] = 0;
+		outReward[nbOutcomes] = 0.0;
+		outNext[nbOutcomes] = firstOutcome[pair];
+		firstOutcome[pair] = nbOutcomes;
+		return nbOutcomes++;
+	}
+
+	private void addPredecessor(int state, int pair) {
+		for (int e = firstPredecessor[state]; e >= 0; e = predNext[e])
+			if (predPair[e] == pair)
+				return;
+		if (nbPredecessors == predPair.length) {
+			predPair = Arrays.copyOf(predPair, 2 * nbPredecessors);
+			predNext = Arrays.copyOf(predNext, 2 * nbPredecessors);
+		}
+		predPair[nbPredecessors] = pair;
+		predNext[nbPredecessors] = firstPredecessor[state];
+		firstPredecessor[state] = nbPredecessors++;
+	}
+
+	/** Number of pairs observed so far. */
+	public int getNbPairs() {
+		return nbPairs;
+	}
+
+	public int getNbStates() {
+		return nbStates;
+	}
+
+	/** Number of the state s, -1 if it was never met. */
+	public int getStateId(IState s) {
+		if (quantizer != null)
+			s = quantizer.quantize(s);
+		return stateId(s, false);
+	}
+
+	public IState getState(int state) {
+		return states[state];
+	}
+
+	/** State of a pair (the copy kept by the model). */
+	public IState getPairState(int pair) {
+		return states[pairState[pair]];
+	}
+
+	public IAction getPairAction(int pair) {
+		return pairAction[pair];
+	}
+
+	/** Number of times the pair was observed. */
+	public int getVisits(int pair) {
+		return visits[pair];
+	}
+
+	/** First outcome of a pair ; -1 ends the list. */
+	public int firstOutcome(int pair) {
+		return firstOutcome[pair];
+	}
+
+	public int nextOutcome(int outcome) {
+		return outNext[outcome];
+	}
+
+	/** State reached. */
+	public IState getOutcomeState(int outcome) {
+		return states[outState[outcome]];
+	}
+
+	/** Average reward of an outcome. */
+	public double getOutcomeReward(int outcome) {
+		return outReward[outcome] / outCount[outcome];
+	}
+
+	/** Probability of an outcome, given its pair. */
+	public double getOutcomeProbability(int pair, int outcome) {
+		return deterministic ? 1.0 : outCount[outcome]
+				/ (double) visits[pair];
+	}
+
+	/** An outcome of the pair drawn with its probability. */
+	public int sampleOutcome(int pair, Random r) {
+		int o = firstOutcome[pair];
+		if (deterministic)
+			return o;
+		int k = r.nextInt(visits[pair]);
+		while (k >= outCount[o]) {
+			k -= outCount[o];
+			o = outNext[o];
+		}
+		return o;
+	}
+
+	/** First pair leading to the state ; -1 ends the list. */
+	public int firstPredecessor(int state) {
+		return firstPredecessor[state];
+	}
+
+	public int nextPredecessor(int entry) {
+		return predNext[entry];
+	}
+
+	public int getPredecessorPair(int entry) {
+		return predPair[entry];
+	}
+
+	public String toString() {
+		return nbStates + " states, " + nbPairs + " pairs, " + nbOutcomes
+				+ " outcomes" + (deterministic ? " (deterministic)" : "");
+	}
+
+	/** A pair : the number of its state, and the action. */
+	private static final class PairKey implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private int state;
+
+		private IAction action;
+
+		PairKey(int state, IAction action) {
+			this.state = state;
+			this.action = action;
+		}
+
+		void reset(int state, IAction action) {
+			this.state = state;
+			this.action = action;
+		}
+
+		public int hashCode() {
+			return Hashing.hash(state, action.hashCode());
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof PairKey))
+				return false;
+			PairKey k = (PairKey) o;
+			return (k.state == state) && k.action.equals(action);
+		}
+	}
+
+}
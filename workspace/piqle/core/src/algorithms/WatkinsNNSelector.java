@@ -42,11 +42,13 @@ public class WatkinsNNSelector extends WatkinsSelector{
 	public WatkinsNNSelector(double l){
 	super(l); 
 	memory=new RewardMemorizerNN(); 
+	buildStrategies(); 
     }
 
     public WatkinsNNSelector(double d, ConstantValueChooser chooser) {
 		super(d); 
 		memory=new RewardMemorizerNN(chooser);
+		buildStrategies(); 
 	}
 
 	/** Auxiliary/Debug : makes it possible to inspect the underlying Neural Network.*/
@@ -43,11 +43,13 @@ public class WatkinsNNSelectorSinglePass extends WatkinsSelector{
 	public WatkinsNNSelectorSinglePass(double l){
 	super(l); 
 	memory=new RewardMemorizerNNSinglePass(); 
+	buildStrategies(); 
     }
 	
 	public WatkinsNNSelectorSinglePass(double l,IDefaultValueChooser dvc){
 		super(l); 
 		memory=new RewardMemorizerNNSinglePass(dvc); 
+		buildStrategies(); 
 	    }
 
     /** Auxiliary/Debug : makes it possible to inspect the underlying Neural Network.*/
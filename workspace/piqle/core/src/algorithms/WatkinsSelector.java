@@ -81,7 +81,9 @@ public class WatkinsSelector extends AbstractQLambdaSelector{
       IAction aetoile;
       double delta;  
      
-      if(geometricDecay)
+      if(schedule!=null)
+	  visits.addVisit(s1,a); 
+      else if(geometricDecay)
 	  alpha*=decayAlpha;
       else
 	  alpha=1/Math.pow(count+1.0,this.alphaDecayPower);
@@ -113,6 +115,7 @@ public class WatkinsSelector extends AbstractQLambdaSelector{
 	 ActionStatePair courante=(ActionStatePair)parcours.next();
 	 double valeur=eligibles.get(courante); 
 	 double old=memory.get(courante.getState(),courante.getAction()); 
+	 if(schedule!=null) alpha=rateOf(courante.getState(),courante.getAction()); 
 	 memory.put(courante.getState(),courante.getAction(),s2,old+alpha*delta*valeur); 
 	}
 	if((aetoile!=null)&&(aetoile.equals(aprime))){
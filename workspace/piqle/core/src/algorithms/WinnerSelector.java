@@ -26,6 +26,8 @@ package algorithms;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import dataset.Dataset;
 import environment.ActionList;
 import environment.IAction;
@@ -66,7 +68,7 @@ public class WinnerSelector implements ISelector{
 	    if((current.getWinner()==1)&&!current.getTurn()) return a; 
 	    if((current.getWinner()==-1)&&current.getTurn()) return a; 
 	}
-	    Random generator=new Random(); 
+	    Random generator=RandomSource.current(); 
 	     
 	    return l.get(generator.nextInt(l.size()));  
     }// getChoix
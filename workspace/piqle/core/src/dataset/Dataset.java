@@ -38,7 +38,7 @@ import java.util.Iterator;
 
 */
 
-public class Dataset implements Serializable{
+public class Dataset implements Serializable,ISampleSource{
     /**
 	 * 
 	 */
@@ -88,6 +88,13 @@ public class Dataset implements Serializable{
 	return (Sample)lesExemples.get(i); 
     }
 
+    /** Copy sample i into input and output */
+    public void fill(int i,double input[],double output[]){
+	Sample u=lesExemples.get(i); 
+	System.arraycopy(u.getInputs(),0,input,0,input.length); 
+	System.arraycopy(u.getOutputs(),0,output,0,output.length); 
+    }
+
     /** Copy a sample before to put it into the ArrayList. */
     private static Sample copy(Sample u){
 	double v1[]=new double[u.getInputs().length]; 
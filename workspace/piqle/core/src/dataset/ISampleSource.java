@@ -0,0 +1,47 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ISampleSource.java
+ *
+ */
+package dataset;
+
+/**
+ * Samples read by index, each one written into buffers given by the caller :
+ * a source does not need to keep its samples as arrays, it can build them
+ * when they are read (see {@link qlearning.PairDatasetView}). <br>
+ * A {@link Dataset} is also a source.
+ * 
+ * @see neuralnetwork.NeuralNetwork#learnFromSource(ISampleSource, boolean)
+ */
+public interface ISampleSource {
+
+	/** Number of samples. */
+	public int numInstances();
+
+	/** Size of input vector. */
+	public int getInputSize();
+
+	/** Size of output vector. */
+	public int getOutputSize();
+
+	/**
+	 * Write sample i into input and output, whose lengths are
+	 * getInputSize() and getOutputSize().
+	 */
+	public void fill(int i, double input[], double output[]);
+
+}
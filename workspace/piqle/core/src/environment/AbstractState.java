@@ -34,6 +34,10 @@ package environment;
 
 abstract public class AbstractState implements IState{
 
+    /** The value computed for the class before getActionList(ActionList) 
+	was added : states saved with an agent stay readable. */
+    private static final long serialVersionUID = -4201113222142733382L; 
+
     /** The game's rules */
     protected IEnvironment myEnvironment; 
    
@@ -53,6 +57,18 @@ abstract public class AbstractState implements IState{
     public ActionList getActionList(){
 	return myEnvironment.getActionList(this); 
     }
+
+    /** Legal moves from this state, written into <code>reuse</code> when the 
+	environment is an {@link IActionListFiller} : the list is then only 
+	valid until the next call with the same <code>reuse</code>. 
+	Otherwise, a new list is built, as by {@link #getActionList()}. */
+    public ActionList getActionList(ActionList reuse){
+	if(!(myEnvironment instanceof IActionListFiller))
+	    return myEnvironment.getActionList(this); 
+	reuse.reset(this); 
+	((IActionListFiller)myEnvironment).fillActionList(this,reuse); 
+	return reuse; 
+    }
 	
        
     public IState modify(IAction a){
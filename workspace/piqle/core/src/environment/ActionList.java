@@ -25,10 +25,17 @@ package environment;
 
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 
 /** A place to put actions : used when looking for the list of possible moves. 
 
+<p>Duplicates are discarded by add() : a short list is scanned, a longer 
+one (more than LINEAR_SEARCH actions) is indexed by a hash set, so that 
+building a list of k actions takes a time proportional to k. An environment 
+which never produces the same move twice can skip the test with 
+addDistinct(). A list can be emptied and filled again (see reset()).
+
 @author Francesco De Comite 
  @version $Revision: 1.0 $ 
 
@@ -46,17 +53,53 @@ public class ActionList {
 	private ArrayList<IAction> actionList=new ArrayList<IAction>();
 	/** The state from which the IActions are beginning */
 	private IState state; 
+
+	/** Size up to which duplicates are found by scanning the list */
+	protected static final int LINEAR_SEARCH=8; 
+
+	/** The actions of the list, once it is too long to be scanned */
+	private HashSet<IAction> index=null; 
+
+	/** Number of actions of the list already in the index */
+	private int indexed=0; 
 	
 	public ActionList(IState s){
 			this.state=s; 
 	}
+
+	/** Empty the list and attach it to another state, keeping the 
+	    storage already allocated : see {@link IActionListFiller}. */
+	public void reset(IState s){
+		this.actionList.clear(); 
+		if(index!=null) index.clear(); 
+		this.indexed=0; 
+		this.state=s; 
+	}
 	
-   /** Adds an action.*/
+   /** Adds an action, unless it is already there.*/
     public boolean add(IAction a){
-	if(!this.actionList.contains(a))
-	    this.actionList.add(a);
+	if(!contains(a))
+	    addDistinct(a); 
 	return true; 
     }
+
+    /** Adds an action known not to be in the list yet (no test). */
+    public void addDistinct(IAction a){
+	this.actionList.add(a); 
+    }
+
+    /** True if an action equal to a is in the list. */
+    public boolean contains(IAction a){
+	int n=this.actionList.size(); 
+	if(n<=LINEAR_SEARCH){
+	    for(int i=0;i<n;i++)
+		if(a.equals(this.actionList.get(i))) return true; 
+	    return false; 
+	}
+	if(index==null) index=new HashSet<IAction>(); 
+	while(indexed<n) index.add(this.actionList.get(indexed++)); 
+	return index.contains(a); 
+    }
     
     
     public Iterator<IAction> iterator(){
@@ -0,0 +1,92 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ActionRegistry.java
+ *
+ */
+package environment;
+
+import java.io.Serializable;
+
+/**
+ * The canonical instances of a family of {@link IOrdinalAction}s, one per
+ * ordinal, generalizing the static constants of ActionAcrobot or
+ * ActionMountainCar : environments hand out these shared
+ * instances instead of building new actions at each step, so that two equal
+ * actions are most of the time the same object. <br>
+ * Typical use, in the action class :
+ *
+ * <pre>
+ * private static final ActionRegistry&lt;ActionGambler&gt; bets = new ActionRegistry&lt;ActionGambler&gt;();
+ *
+ * public static ActionGambler valueOf(int i) {
+ * 	ActionGambler a = bets.get(i);
+ * 	return a != null ? a : bets.intern(new ActionGambler(i));
+ * }
+ * </pre>
+ *
+ * Reading is lock free ; the first registration of an ordinal takes a lock
+ * and copies the table, so a registry may be shared by several threads.
+ */
+public class ActionRegistry<A extends IOrdinalAction> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Canonical action of each ordinal (null : not registered yet) */
+	private volatile IOrdinalAction table[] = new IOrdinalAction[16];
+
+	/** The canonical action of ordinal o, null if it is not registered. */
+	@SuppressWarnings("unchecked")
+	public A get(int o) {
+		IOrdinalAction t[] = table;
+		if (o < 0 || o >= t.length)
+			return null;
+		return (A) t[o];
+	}
+
+	/**
+	 * The canonical action equal to a : a itself if its ordinal was not
+	 * registered yet.
+	 */
+	@SuppressWarnings("unchecked")
+	public A intern(A a) {
+		A c = get(a.ordinal());
+		if (c != null)
+			return c;
+		synchronized (this) {
+			int o = a.ordinal();
+			IOrdinalAction t[] = table;
+			if (o < t.length && t[o] != null)
+				return (A) t[o];
+			IOrdinalAction n[] = new IOrdinalAction[Math.max(t.length,
+					Integer.highestOneBit(o) * 2)];
+			System.arraycopy(t, 0, n, 0, t.length);
+			n[o] = a;
+			table = n;
+			return a;
+		}
+	}
+
+	/** One more than the largest ordinal registered so far. */
+	public int size() {
+		IOrdinalAction t[] = table;
+		for (int i = t.length - 1; i >= 0; i--)
+			if (t[i] != null)
+				return i + 1;
+		return 0;
+	}
+
+}
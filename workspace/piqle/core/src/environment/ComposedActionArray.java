@@ -0,0 +1,188 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ComposedActionArray.java
+ *
+ */
+package environment;
+
+import java.util.Arrays;
+
+import agents.ElementaryAgent;
+
+/**
+ * A container of elementary agent actions, stored in a plain array indexed by
+ * the rank of the agents : reading or writing the action of an agent takes
+ * constant time, whatever the size of the swarm. <br>
+ * The same instance is meant to be refilled at each step : an action
+ * written for a rank replaces the previous one, without any allocation.
+ * <p>
+ * {@link #snapshot()} gives, in constant time, a frozen view of the current
+ * actions, for a caller which keeps them while the instance is refilled : the
+ * array is shared until one of the two objects is modified, which then works
+ * on its own copy. A swarm rather fills two instances in turn (see
+ * agents.SwarmArray).
+ */
+public class ComposedActionArray extends AbstractComposedAction implements
+		ArrayOfActions {
+
+	private static final long serialVersionUID = 1L;
+
+	private IAction actions[];
+
+	/** Number of ranks used : highest rank written + 1 */
+	private int size;
+
+	/** True if the array may be read by a snapshot (or is one) */
+	private boolean shared;
+
+	public ComposedActionArray() {
+		this(16);
+	}
+
+	/** @param capacity the expected number of agents. */
+	public ComposedActionArray(int capacity) {
+		this.actions = new IAction[Math.max(capacity, 1)];
+	}
+
+	private ComposedActionArray(IAction actions[], int size) {
+		this.actions = actions;
+		this.size = size;
+		this.shared = true;
+	}
+
+	/** Number of agents (highest rank written + 1). */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void addElementaryAction(ElementaryAgent agent, IAction action) {
+		set(agent.getRank(), action);
+	}
+
+	/** Write the action of the agent of rank i. */
+	public void set(int i, IAction action) {
+		if ((i >= actions.length) || shared) {
+			int capacity = actions.length;
+			if (i >= capacity)
+				capacity = Math.max(i + 1, 2 * capacity);
+			IAction nouveau[] = new IAction[capacity];
+			System.arraycopy(actions, 0, nouveau, 0, size);
+			actions = nouveau;
+			shared = false;
+		}
+		actions[i] = action;
+		if (i >= size)
+			size = i + 1;
+	}
+
+	@Override
+	public IAction getAction(int i) {
+		return i < size ? actions[i] : null;
+	}
+
+	@Override
+	public IAction getAction(ElementaryAgent a) {
+		return getAction(a.getRank());
+	}
+
+	/** Forget all the actions, keeping the storage. */
+	public void clear() {
+		if (shared) {
+			actions = new IAction[actions.length];
+			shared = false;
+		} else
+			Arrays.fill(actions, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * A read-only view of the current actions, built in constant time. Later
+	 * changes of this object do not affect it.
+	 */
+	public ComposedActionArray snapshot() {
+		shared = true;
+		return new ComposedActionArray(actions, size);
+	}
+
+	/** Deep copy : each elementary action is copied. */
+	@Override
+	public IAction copy() {
+		ComposedActionArray nouveau = new ComposedActionArray(size);
+		for (int i = 0; i < size; i++)
+			if (actions[i] != null)
+				nouveau.actions[i] = (IAction) actions[i].copy();
+		nouveau.size = size;
+		return nouveau;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof ComposedActionArray))
+			return false;
+		ComposedActionArray other = (ComposedActionArray) o;
+		if (other.size != size)
+			return false;
+		for (int i = 0; i < size; i++) {
+			IAction a = actions[i];
+			IAction b = other.actions[i];
+			if ((a == null) ? (b != null) : !a.equals(b))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++)
+			hash = 31 * hash + (actions[i] == null ? 0 : actions[i].hashCode());
+		return hash;
+	}
+
+	/** Concatenation of the codings of the elementary actions. */
+	@Override
+	public int nnCodingSize() {
+		int n = 0;
+		for (int i = 0; i < size; i++)
+			n += actions[i].nnCodingSize();
+		return n;
+	}
+
+	@Override
+	public double[] nnCoding() {
+		double code[] = new double[nnCodingSize()];
+		int k = 0;
+		for (int i = 0; i < size; i++) {
+			double u[] = actions[i].nnCoding();
+			System.arraycopy(u, 0, code, k, u.length);
+			k += u.length;
+		}
+		return code;
+	}
+
+	public String toString() {
+		StringBuffer sb = new StringBuffer("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				sb.append(' ');
+			sb.append(actions[i]);
+		}
+		return sb.append(']').toString();
+	}
+
+}
@@ -27,6 +27,7 @@ import java.util.Collection;
 import java.util.Iterator;
 
 import agents.ElementaryAgent;
+import util.Hashing;
 
 /** A container of elementary Agent actions, using an ArrayList
  * to store and retrieve elementary actions*/
@@ -98,10 +99,10 @@ public class ComposedActionArrayList extends AbstractComposedAction
 	@Override
 	public int hashCode() {
 		ArrayList<IAction> thisList=(ArrayList<IAction>)this.list;
-		int hash=0;
+		int hash=Hashing.SEED;
 		for(int i=0;i<thisList.size();i++)
-				hash=primes[i%primes.length]*hash+thisList.get(i).hashCode();
-		return hash%23;
+				hash=Hashing.combine(hash,thisList.get(i).hashCode());
+		return hash;
 		
 	}
 	/* (non-Javadoc)
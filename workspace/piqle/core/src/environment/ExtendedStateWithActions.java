@@ -22,6 +22,7 @@ package environment;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import util.Hashing;
 
 
 
@@ -75,15 +76,19 @@ import java.util.Iterator;
 	
 	
 	
+	/** Cached hash code : the perception and the neighbours' actions do not
+	 * change once the state is built. */
+	private transient int hash;
+	
 	public int hashCode(){
-		int sum=this.perception.hashCode();
-		Iterator<E> cur=neighboursActions.iterator();
-		int index=0;
-		while(cur.hasNext()){
-			sum+=cur.next().hashCode()%this.primes[index%this.sizePrimes];
-			index++;
-		}                               
-		return sum%23;
+		if(hash==0){
+			int h=Hashing.combine(Hashing.SEED,this.perception.hashCode());
+			Iterator<E> cur=neighboursActions.iterator();
+			while(cur.hasNext())
+				h=Hashing.combine(h,cur.next().hashCode());
+			hash=Hashing.cache(h);
+		}
+		return hash;
 	}//hashCode
 	
 	// This method can not be defined as static, otherwise it 
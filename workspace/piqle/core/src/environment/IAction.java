@@ -31,7 +31,10 @@ import java.io.Serializable;
 
     public interface IAction extends Cloneable,Serializable{
 
-	/** Clone an Action. */
+	/** Clone an Action. <br>
+	    An immutable action may return itself, or a shared instance 
+	    equal to it (flyweight) : agents copy their chosen action at 
+	    each step. */
     	// TODO change profile to public IAction ? 
 	public Object copy(); 
 
@@ -0,0 +1,39 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IActionListFiller.java
+ *
+ */
+package environment;
+
+/**
+ * An environment able to write the legal moves from a state into a list
+ * given by the caller, so that agents and selectors can use the same
+ * {@link ActionList} at every step instead of building a new one. <br>
+ * <code>getActionList(s)</code> must return the same actions, in the same
+ * order, as <code>fillActionList</code> called on a fresh list.
+ *
+ * @see AbstractState#getActionList(ActionList)
+ */
+public interface IActionListFiller extends IEnvironment {
+
+	/**
+	 * Add the legal moves from s to l : l has already been emptied and
+	 * attached to s.
+	 */
+	public void fillActionList(IState s, ActionList l);
+
+}
@@ -0,0 +1,35 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IContinuousState.java
+ *
+ */
+package environment;
+
+/**
+ * A state described by real coordinates (position, speed, angles...),
+ * readable one by one without any allocation. <br>
+ * Used by {@link StateQuantizer} to discretize the state.
+ */
+public interface IContinuousState extends IState {
+
+	/** Number of real coordinates */
+	public int getNbDimensions();
+
+	/** Value of coordinate i (0 &lt;= i &lt; getNbDimensions()) */
+	public double getCoordinate(int i);
+
+}
@@ -0,0 +1,38 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IMutableEnvironment.java
+ *
+ */
+package environment;
+
+/**
+ * An environment whose transitions can be written into an existing state :
+ * an agent owning two buffers may then move from state to state without
+ * any allocation (see {@link agents.AbstractAgent#applyAction(IAction)}).
+ * <br>
+ * <code>successorState(s,a)</code> must stay available and return a new
+ * state equal to the one written by the in-place version.
+ */
+public interface IMutableEnvironment extends IEnvironment {
+
+	/**
+	 * Write the state reached from s by action a into target (target is
+	 * never s, and has the same class as s).
+	 */
+	public void successorState(IState s, IAction a, IMutableState target);
+
+}
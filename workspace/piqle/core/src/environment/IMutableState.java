@@ -0,0 +1,35 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IMutableState.java
+ *
+ */
+package environment;
+
+/**
+ * A state which can be overwritten instead of being allocated again at each
+ * step (see {@link IMutableEnvironment}). <br>
+ * A mutable state must never be kept as it is by a learner : the memories
+ * copy it before using it as a key (see
+ * {@link qlearning.ActionStatePair#retain(IAction, IState)}), and
+ * <code>copy()</code> must return an independent state.
+ */
+public interface IMutableState extends IState {
+
+	/** Become equal to s, which has the same class as this state. */
+	public void copyFrom(IState s);
+
+}
@@ -0,0 +1,34 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IOrdinalAction.java
+ *
+ */
+package environment;
+
+/**
+ * An action numbered by a small non negative integer, the same for all the
+ * actions equal to it : two actions are equal if and only if they have the
+ * same ordinal. <br>
+ * Lists, memories or traces can then use arrays indexed by ordinals instead
+ * of hash tables (see {@link OrdinalActionList}).
+ */
+public interface IOrdinalAction extends IAction {
+
+	/** The number of this action (0 &lt;= ordinal, as small as possible). */
+	public int ordinal();
+
+}
@@ -0,0 +1,33 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IRetainableAction.java
+ *
+ */
+package environment;
+
+/**
+ * An action which its owner may reuse from call to call, as the probe a
+ * memory view builds to look its pairs up. <br>
+ * The memories keep what <code>retain()</code> returns instead of the action
+ * itself (see {@link qlearning.ActionStatePair#retain(IAction, IState)}).
+ */
+public interface IRetainableAction extends IAction {
+
+	/** An action equal to this one, which its owner will not modify. */
+	public IAction retain();
+
+}
@@ -0,0 +1,78 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    OrdinalActionList.java
+ *
+ */
+package environment;
+
+import java.util.Arrays;
+
+/**
+ * A list of {@link IOrdinalAction}s : duplicates are detected by looking up
+ * a table indexed by ordinal, which also gives the rank of an action in the
+ * list in constant time. <br>
+ * Only ordinal actions may be added.
+ */
+public class OrdinalActionList extends ActionList {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Rank in the list of the action of each ordinal, plus one (0 : absent) */
+	private int rank[];
+
+	public OrdinalActionList(IState s) {
+		this(s, 16);
+	}
+
+	/** @param nbOrdinals expected bound of the ordinals (the table grows if needed) */
+	public OrdinalActionList(IState s, int nbOrdinals) {
+		super(s);
+		rank = new int[Math.max(nbOrdinals, 1)];
+	}
+
+	public void reset(IState s) {
+		for (int i = 0; i < size(); i++)
+			rank[((IOrdinalAction) get(i)).ordinal()] = 0;
+		super.reset(s);
+	}
+
+	public void addDistinct(IAction a) {
+		int o = ((IOrdinalAction) a).ordinal();
+		if (o >= rank.length)
+			rank = Arrays.copyOf(rank, Math.max(o + 1, 2 * rank.length));
+		super.addDistinct(a);
+		rank[o] = size();
+	}
+
+	public boolean contains(IAction a) {
+		return indexOf(((IOrdinalAction) a).ordinal()) >= 0;
+	}
+
+	/** Rank in the list of the action of ordinal o, -1 if it is absent. */
+	public int indexOf(int o) {
+		if (o >= rank.length)
+			return -1;
+		return rank[o] - 1;
+	}
+
+	/** The action of ordinal o, null if it is absent. */
+	public IAction getByOrdinal(int o) {
+		int i = indexOf(o);
+		return i < 0 ? null : get(i);
+	}
+
+}
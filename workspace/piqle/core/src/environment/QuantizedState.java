@@ -0,0 +1,152 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    QuantizedState.java
+ *
+ */
+package environment;
+
+import util.Hashing;
+
+/**
+ * The discretized view of a continuous state : two quantized states are equal
+ * when their coordinates fall in the same cells of the same
+ * {@link StateQuantizer} grid, i.e. when they have the same packed key and
+ * the same quantizer. <br>
+ * Everything but equality (actions, successors, rewards, end of episode) is
+ * delegated to the original state.
+ * <p>
+ * The copies kept by the memories (see {@link #copy()}) hold only the key and
+ * the quantizer : a stored key costs a few bytes, whatever the size of the
+ * continuous state. Such a key-only state can be compared, hashed and coded
+ * for a neural network (the centers of its cells), but has no actions, no
+ * successors and no rewards.
+ */
+public class QuantizedState implements IState {
+
+	private static final long serialVersionUID = 2L;
+
+	private final long key;
+
+	private final StateQuantizer quantizer;
+
+	/** null for a key-only state */
+	private final IState original;
+
+	public QuantizedState(long key, StateQuantizer quantizer, IState original) {
+		this.key = key;
+		this.quantizer = quantizer;
+		this.original = original;
+	}
+
+	/** The packed cell numbers. */
+	public long getKey() {
+		return key;
+	}
+
+	public StateQuantizer getQuantizer() {
+		return quantizer;
+	}
+
+	/** The continuous state, null for a key-only state. */
+	public IState getOriginal() {
+		return original;
+	}
+
+	public boolean isKeyOnly() {
+		return original == null;
+	}
+
+	private IState original() {
+		if (original == null)
+			throw new IllegalStateException(
+					"Key-only quantized state #" + key
+							+ " : use the continuous state it was made from");
+		return original;
+	}
+
+	/** The actions of the original state, attached to this one. */
+	public ActionList getActionList() {
+		ActionList l = original().getActionList();
+		ActionList nouvelle = new ActionList(this);
+		for (int i = 0; i < l.size(); i++)
+			nouvelle.add(l.get(i));
+		return nouvelle;
+	}
+
+	public void setEnvironment(IEnvironment c) {
+		if (original != null)
+			original.setEnvironment(c);
+	}
+
+	public IState modify(IAction a) {
+		return original().modify(a);
+	}
+
+	/** The environment of the original state, null for a key-only state. */
+	public IEnvironment getEnvironment() {
+		return original == null ? null : original.getEnvironment();
+	}
+
+	public double getReward(IState old, IAction a) {
+		if (old instanceof QuantizedState)
+			old = ((QuantizedState) old).original();
+		return original().getReward(old, a);
+	}
+
+	public boolean isFinal() {
+		return original().isFinal();
+	}
+
+	/** A key-only copy (see above). */
+	public IState copy() {
+		return original == null ? this : new QuantizedState(key, quantizer,
+				null);
+	}
+
+	/**
+	 * A copy keeping a copy of the continuous state, for the models which
+	 * plan from the states they keep (see algorithms.TabularModel).
+	 */
+	public QuantizedState copyWithOriginal() {
+		return new QuantizedState(key, quantizer, original().copy());
+	}
+
+	/** One value per coordinate : the center of the cell. */
+	public int nnCodingSize() {
+		return quantizer.getNbDimensions();
+	}
+
+	public double[] nnCoding() {
+		return quantizer.center(key);
+	}
+
+	public int hashCode() {
+		return Hashing.mix(key);
+	}
+
+	public boolean equals(Object o) {
+		if (!(o instanceof QuantizedState))
+			return false;
+		QuantizedState q = (QuantizedState) o;
+		return (q.key == key) && (q.quantizer == quantizer);
+	}
+
+	public String toString() {
+		return "#" + key + (original == null ? "" : " " + original);
+	}
+
+}
@@ -0,0 +1,187 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    StateQuantizer.java
+ *
+ */
+package environment;
+
+import java.util.ArrayList;
+
+/**
+ * Discretization of continuous states on a regular grid, so that tabular
+ * algorithms can run on continuous problems. <br>
+ * Each coordinate is cut into a given number of bins between two bounds
+ * (values outside are put in the first or last bin) ; the cell numbers of all
+ * coordinates are packed into a single <code>long</code>, which identifies
+ * the cell of the state.
+ * <p>
+ * The coordinates are read through {@link IContinuousState} when the state
+ * implements it (no allocation), or else from its <code>nnCoding()</code>.
+ * <p>
+ * A quantizer can be used :
+ * <ul>
+ * <li>as a {@link Filter}, turning the states seen by an elementary agent
+ * into {@link QuantizedState}s ;</li>
+ * <li>in front of a memory, with {@link qlearning.QuantizedRewardStore}, for
+ * any selector : the states reach the memory already quantized.</li>
+ * </ul>
+ */
+public class StateQuantizer extends Filter {
+
+	private static final long serialVersionUID = 1L;
+
+	private double low[] = new double[0];
+
+	/** Number of bins divided by the width of the interval */
+	private double scale[] = new double[0];
+
+	private int bins[] = new int[0];
+
+	/** Weight of each coordinate in the packed key */
+	private long stride[] = new long[0];
+
+	/** Number of cells of the whole grid */
+	private long nbCells = 1;
+
+	public StateQuantizer() {
+	}
+
+	/** Same bounds and bins as given, one entry per coordinate. */
+	public StateQuantizer(double low[], double high[], int bins[]) {
+		for (int i = 0; i < bins.length; i++)
+			addDimension(low[i], high[i], bins[i]);
+	}
+
+	/**
+	 * Add the next coordinate : values in [low,high] are cut into
+	 * <code>nbBins</code> equal bins.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the bounds or the number of bins are not valid, or the
+	 *             grid gets too large for a key.
+	 */
+	public void addDimension(double low, double high, int nbBins) {
+		if (!(high > low) || (nbBins < 1))
+			throw new IllegalArgumentException("Invalid dimension [" + low
+					+ "," + high + "], " + nbBins + " bins");
+		if (nbCells > Long.MAX_VALUE / nbBins)
+			throw new IllegalArgumentException(
+					"Too many cells : the key does not fit in a long");
+		int n = bins.length;
+		this.low = grow(this.low, low);
+		this.scale = grow(this.scale, nbBins / (high - low));
+		int b[] = new int[n + 1];
+		System.arraycopy(bins, 0, b, 0, n);
+		b[n] = nbBins;
+		bins = b;
+		long s[] = new long[n + 1];
+		System.arraycopy(stride, 0, s, 0, n);
+		s[n] = nbCells;
+		stride = s;
+		nbCells *= nbBins;
+	}
+
+	private static double[] grow(double t[], double v) {
+		double u[] = new double[t.length + 1];
+		System.arraycopy(t, 0, u, 0, t.length);
+		u[t.length] = v;
+		return u;
+	}
+
+	public int getNbDimensions() {
+		return bins.length;
+	}
+
+	/** Number of different keys. */
+	public long getNbCells() {
+		return nbCells;
+	}
+
+	/** Cell number of value v along coordinate i. */
+	public int bin(int i, double v) {
+		double x = (v - low[i]) * scale[i];
+		if (!(x >= 0)) // also catches NaN
+			return 0;
+		int b = (int) x;
+		return b < bins[i] ? b : bins[i] - 1;
+	}
+
+	/** Packed key of the cell containing the state. */
+	public long key(IState s) {
+		long k = 0;
+		if (s instanceof IContinuousState) {
+			IContinuousState cs = (IContinuousState) s;
+			for (int i = 0; i < bins.length; i++)
+				k += stride[i] * bin(i, cs.getCoordinate(i));
+		} else {
+			double code[] = s.nnCoding();
+			for (int i = 0; i < bins.length; i++)
+				k += stride[i] * bin(i, code[i]);
+		}
+		return k;
+	}
+
+	/** Cell numbers of each coordinate, from a packed key. */
+	public int[] unpack(long key) {
+		int cells[] = new int[bins.length];
+		for (int i = bins.length - 1; i >= 0; i--) {
+			cells[i] = (int) (key / stride[i]);
+			key %= stride[i];
+		}
+		return cells;
+	}
+
+	/**
+	 * The quantized view of a state (states already quantized by this
+	 * quantizer are kept).
+	 */
+	public QuantizedState quantize(IState s) {
+		if (s instanceof QuantizedState) {
+			QuantizedState q = (QuantizedState) s;
+			if (q.getQuantizer() == this)
+				return q;
+			s = q.getOriginal();
+		}
+		return new QuantizedState(key(s), this, s);
+	}
+
+	/** Center of the cell of each coordinate, from a packed key. */
+	public double[] center(long key) {
+		int cells[] = unpack(key);
+		double c[] = new double[cells.length];
+		for (int i = 0; i < cells.length; i++)
+			c[i] = low[i] + (cells[i] + 0.5) / scale[i];
+		return c;
+	}
+
+	public IState filterState(IState s, IEnvironment c) {
+		return quantize(s);
+	}
+
+	/** Bounds of the cells, for displaying : the list of [low,high] per coordinate. */
+	public ArrayList<double[]> getCell(long key) {
+		int cells[] = unpack(key);
+		ArrayList<double[]> bounds = new ArrayList<double[]>();
+		for (int i = 0; i < cells.length; i++) {
+			double w = 1.0 / scale[i];
+			bounds.add(new double[] { low[i] + cells[i] * w,
+					low[i] + (cells[i] + 1) * w });
+		}
+		return bounds;
+	}
+
+}
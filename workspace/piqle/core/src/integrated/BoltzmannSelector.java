@@ -2,6 +2,8 @@ package integrated;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import qlearning.IRewardStore;
 import environment.ActionList;
 import environment.IAction;
@@ -10,11 +12,13 @@ import integrated.iface.StochasticSelector;
 
 public class BoltzmannSelector implements StochasticSelector {
 
+	private static final long serialVersionUID = 1623665855509382161L;
+
 	protected IRewardStore memory;
 	private boolean boltzmann = false;
 	protected double tau=0.5;
 
-	private Random generator = new Random();
+	private Random generator = RandomSource.newGenerator();
 	
 	public BoltzmannSelector(IRewardStore memory) {
 		this.memory = memory;
@@ -40,6 +44,10 @@ public class BoltzmannSelector implements StochasticSelector {
 		return null;
 	}
 
+	public void setMemory(IRewardStore memory) {
+		this.memory = memory;
+	}
+
 	public double getTau() {
 		return tau;
 	}
@@ -56,4 +64,13 @@ public class BoltzmannSelector implements StochasticSelector {
 		this.boltzmann = boltzmann;
 	}
 
+	/** The stream of random numbers, to save and restore it. */
+	public Random getGenerator() {
+		return generator;
+	}
+
+	public void setGenerator(Random generator) {
+		this.generator = generator;
+	}
+
 }
@@ -2,6 +2,8 @@ package integrated;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import qlearning.IRewardStore;
 import environment.ActionList;
 import environment.IAction;
@@ -10,11 +12,13 @@ import integrated.iface.StochasticSelector;
 
 public class EpsilonGreedySelector implements StochasticSelector {
 
+	private static final long serialVersionUID = 273023518185143894L;
+
 	protected IRewardStore memory;
 	private double epsilon = 0.5;
 	
 	private boolean epsilonGreedy = false;
-	private Random generator = new Random();
+	private Random generator = RandomSource.newGenerator();
 	
 	public EpsilonGreedySelector(IRewardStore memory) {
 		this.memory = memory;
@@ -43,6 +47,10 @@ public class EpsilonGreedySelector implements StochasticSelector {
 			return l.get(generator.nextInt(l.size()));
 	}
 
+	public void setMemory(IRewardStore memory) {
+		this.memory = memory;
+	}
+
 	public boolean isEpsilonGreedy() {
 		return epsilonGreedy;
 	}
@@ -59,4 +67,13 @@ public class EpsilonGreedySelector implements StochasticSelector {
 		this.epsilon = epsilon;
 	}
 
+	/** The stream of random numbers, to save and restore it. */
+	public Random getGenerator() {
+		return generator;
+	}
+
+	public void setGenerator(Random generator) {
+		this.generator = generator;
+	}
+
 }
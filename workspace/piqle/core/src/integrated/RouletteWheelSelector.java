@@ -2,6 +2,8 @@ package integrated;
 
 import java.util.Random;
 
+import util.RandomSource;
+
 import qlearning.IRewardStore;
 import environment.ActionList;
 import environment.IAction;
@@ -10,9 +12,11 @@ import integrated.iface.StochasticSelector;
 
 public class RouletteWheelSelector implements StochasticSelector {
 
+	private static final long serialVersionUID = 5283106848404804301L;
+
 	protected IRewardStore memory;
 	private boolean rouletteWheel = false;
-	private Random generator = new Random();
+	private Random generator = RandomSource.newGenerator();
 	
 	public RouletteWheelSelector(IRewardStore memory) {
 		this.memory = memory;
@@ -43,6 +47,10 @@ public class RouletteWheelSelector implements StochasticSelector {
 		return l.get(indice);
 	}
 
+	public void setMemory(IRewardStore memory) {
+		this.memory = memory;
+	}
+
 	public boolean isRouletteWheel() {
 		return rouletteWheel;
 	}
@@ -51,4 +59,13 @@ public class RouletteWheelSelector implements StochasticSelector {
 		this.rouletteWheel = rouletteWheel;
 	}
 
+	/** The stream of random numbers, to save and restore it. */
+	public Random getGenerator() {
+		return generator;
+	}
+
+	public void setGenerator(Random generator) {
+		this.generator = generator;
+	}
+
 }
@@ -15,34 +15,36 @@ public class Sarsa extends AbstractMemorySelector {
 
 	public Sarsa() {
 		memory = new RewardMemorizer();
+		buildStrategies();
 	}
 
 	public Sarsa(IDefaultValueChooser dvc) {
 		memory = new RewardMemorizer(dvc);
-		bs = new BoltzmannSelector(memory);
+		buildStrategies();
 	}
 
-	public void learn(IState s1, IState s2, IAction a, double reward) {
-		if (geometricDecay)
-			alpha *= decayAlpha;
-		else {
-			alpha = 1 / Math.pow(count + 1.0, this.alphaDecayPower);
-		}
-
-		count++;
+	/**
+	 * Backup of Q(s1,a) towards the value of the first action from s2 ; the
+	 * alpha decay, the learning rate schedules and the replays are those of
+	 * {@link AbstractMemorySelector#learn(IState, IState, IAction, double)}.
+	 */
+	protected double backup(IState s1, IState s2, IAction a, double reward) {
+		if (schedule != null)
+			alpha = schedule.rate(visits.addVisit(s1, a));
 		double qsap;
 		double qsa = memory.get(s1, a);
-		ActionList la = s2.getActionList();
+		ActionList la = actionsFrom(s2);
+		double error;
 		if (la.size() != 0) {
 			Iterator<IAction> iterator = la.iterator();
 			IAction aprime = iterator.next();
 			qsap = memory.get(s2, aprime);
 			// D := r+γ maxa Qt(xt+1, a) - Qt(xt, at)
-			qsa += alpha * (reward + gamma * qsap - qsa);
-			memory.put(s1, a, s2, qsa);
-		} else {
-			memory.put(s1, a, s2, qsa + alpha * (reward - qsa));
-		}
+			error = reward + gamma * qsap - qsa;
+		} else
+			error = reward - qsa;
+		memory.put(s1, a, s2, qsa + alpha * error);
+		return error;
 	}
 
 	public void showHistogram() {
@@ -1,9 +1,12 @@
 package integrated.iface;
 
+import java.io.Serializable;
+
 import environment.ActionList;
 import environment.IAction;
 
-public interface StochasticSelector {
+/** Saved with the selector using it (see AbstractAgent.saveAgent()) */
+public interface StochasticSelector extends Serializable {
 
 	public IAction choice(ActionList l);
 	
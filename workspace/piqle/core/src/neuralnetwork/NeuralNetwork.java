@@ -29,7 +29,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Random;
 
+import util.RandomSource;
+
 import dataset.Dataset;
+import dataset.ISampleSource;
 import dataset.Sample;
 
 /** 
@@ -67,7 +70,7 @@ public class NeuralNetwork implements Serializable{
     
     private int epoch=1;
   
-    private static Random generator=new Random(); 
+    private Random generator=RandomSource.newGenerator(); 
 
     /** To trace quadratic error. */
     private double totalError; 
@@ -310,6 +313,34 @@ public class NeuralNetwork implements Serializable{
 	}
 	
     }// learnFromDatasetStochastic
+
+    /** Learn from samples read one at a time into two buffers : the 
+	samples need not be stored (see qlearning.PairDatasetView). 
+	@param stochastic if true, the samples are entered in a new random 
+	order at each epoch (a permutation of their indices), otherwise in 
+	the order of the source. 
+    */
+    public void learnFromSource(ISampleSource d,boolean stochastic) throws UncompatibleSizeException{
+	double input[]=new double[d.getInputSize()]; 
+	double output[]=new double[d.getOutputSize()]; 
+	int order[]=new int[d.numInstances()]; 
+	for(int i=0;i<order.length;i++) order[i]=i; 
+	for(int j=0;j<epoch;j++){
+	    totalError=0; 
+	    error=new double[nbOutputs]; 
+	    if(stochastic)
+		for(int i=order.length-1;i>0;i--){
+		    int k=generator.nextInt(i+1); 
+		    int u=order[i]; 
+		    order[i]=order[k]; 
+		    order[k]=u; 
+		}
+	    for(int i=0;i<order.length;i++){
+		d.fill(order[i],input,output); 
+		learnFromOneExample(input,output); 
+	    }
+	}
+    }// learnFromSource
     
     /** Testing the class */
     public static void main(String argv[]) throws Exception{
@@ -322,7 +353,7 @@ public class NeuralNetwork implements Serializable{
 	double v[]=new double[1]; 
 	// Build the dataset 
 	for(int i=0;i<100;i++){
-	    u[0]=generator.nextDouble(); 
+	    u[0]=RandomSource.current().nextDouble(); 
 	    v[0]=myNetwork.debugFunction(u);
 	    myInstances.add(new Sample(u,v));
 	  }
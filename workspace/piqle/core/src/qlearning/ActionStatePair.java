@@ -25,7 +25,11 @@ package qlearning;
 import java.io.Serializable;
 
 import environment.IAction;
+import environment.IMutableState;
+import environment.IRetainableAction;
 import environment.IState;
+import environment.QuantizedState;
+import util.Hashing;
 
 
 /** Acts like a key to store Q(s,a) values. The key is the union of state and action.
@@ -50,8 +54,39 @@ public class ActionStatePair implements Serializable{
 	this.myState=s; 
     }
 
+    /** Cached hash code (0 : not computed yet) */
+    private transient int hash; 
+
+    /** A key which may be kept by a memory : a mutable state, which the 
+	agent is going to overwrite, is copied ; a quantized state is 
+	replaced by its key alone (see QuantizedState.copy()) ; an action 
+	reused by its owner is replaced by the one it retains (see 
+	IRetainableAction). */
+    public static ActionStatePair retain(IAction a,IState s){
+	if(a instanceof IRetainableAction)
+	    a=((IRetainableAction)a).retain(); 
+	return new ActionStatePair(a,retain(s)); 
+    }
+
+    /** A state which may be kept by a memory (see above) */
+    public static IState retain(IState s){
+	if((s instanceof QuantizedState)||(s instanceof IMutableState))
+	    return s.copy(); 
+	return s; 
+    }
+
+    /** Turn this pair into another one : only for a probe used to look 
+	a key up, never for a key stored in a map. */
+    void reset(IAction a,IState s){
+	this.myAction=a; 
+	this.myState=s; 
+	this.hash=0; 
+    }
+
     public int hashCode(){
-	return myAction.hashCode()+myState.hashCode(); 
+	if(hash==0)
+	    hash=Hashing.cache(Hashing.hash(myState.hashCode(),myAction.hashCode())); 
+	return hash; 
     }
 
     public boolean equals(Object o){
@@ -0,0 +1,506 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    CheckpointedRewardStore.java
+ *
+ */
+package qlearning;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * A memory saving its changes as they happen, so that learning survives a
+ * crash. It decorates another memory, which holds the values. <br>
+ * Every new or changed value is appended to a write-ahead log ; a background
+ * thread writes the log and forces it to disk at most every
+ * <code>commitInterval</code> milliseconds, in one write for all the records
+ * of the interval (group commit). <br>
+ * {@link #mark(byte[])} ends a unit of work, typically an episode, with the
+ * state of the learner (see
+ * {@link algorithms.AbstractMemorySelector#writeState(java.io.DataOutput)}) :
+ * after a crash, the memory is brought back to the last mark written to
+ * disk, and the state of that mark is given back, so that learning resumes
+ * exactly where it was. <br>
+ * {@link #checkpoint(byte[])} writes a snapshot of the whole memory (see
+ * {@link QSnapshot}) and starts a new log : recovery then loads the snapshot
+ * and replays only the changes made since. It may be called every
+ * n marks (see {@link #setCheckpointInterval(int)}).
+ * <p>
+ * Files of the directory : <code>base-k.pqls</code>, snapshot of the memory
+ * when <code>wal-k.log</code> was started ; <code>wal-k.log</code>, records
+ * (type, length, bytes, CRC32) of the changes and marks.
+ * <p>
+ * Like the memory it decorates, it is meant for one agent at a time.
+ */
+public class CheckpointedRewardStore implements IEnumerableRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Record of a value : key of the pair, value */
+	private static final byte PUT = 1;
+
+	/** Record of a mark : state of the learner */
+	private static final byte MARK = 2;
+
+	/** Size of a record besides its bytes : type, length, CRC */
+	private static final int OVERHEAD = 1 + 4 + 4;
+
+	private IEnumerableRewardStore inner;
+
+	private IPairCodec codec;
+
+	private File directory;
+
+	private long commitInterval;
+
+	/** Checkpoint every n marks (0 : never) */
+	private int checkpointInterval = 0;
+
+	private transient int marks;
+
+	/** Generation of the log written */
+	private transient int generation;
+
+	private transient FileChannel log;
+
+	private transient PairEncoder key;
+
+	private transient CRC32 crc;
+
+	/** Records waiting for the writer, and the buffer it gives back */
+	private transient ByteBuffer pending, spare;
+
+	/** Bytes appended, and bytes forced to disk, since the start */
+	private transient long appended, durable;
+
+	private transient boolean syncRequested, closed;
+
+	private transient Thread writer;
+
+	private transient IOException failure;
+
+	private transient long commits, records;
+
+	/** State of the last mark found by the recovery */
+	private transient byte recovered[];
+
+	/**
+	 * Recover the memory saved in the directory, if any (see
+	 * {@link #getRecoveredState()}), then start logging.
+	 * 
+	 * @param inner the memory holding the values (empty, if a previous run is
+	 *            recovered).
+	 * @param directory where the snapshots and logs are written (created if
+	 *            needed).
+	 * @param commitInterval maximal delay before a change is on disk, in
+	 *            milliseconds.
+	 */
+	public CheckpointedRewardStore(IEnumerableRewardStore inner,
+			IPairCodec codec, File directory, long commitInterval)
+			throws IOException {
+		this.inner = inner;
+		this.codec = codec;
+		this.directory = directory;
+		this.commitInterval = Math.max(commitInterval, 1);
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("cannot create " + directory);
+		key = new PairEncoder(codec);
+		crc = new CRC32();
+		pending = ByteBuffer.allocate(1 << 20);
+		spare = ByteBuffer.allocate(1 << 20);
+		int last = recover();
+		generation = last + 1;
+		log = open(wal(generation));
+		if ((last < 0) && (inner.size() > 0))
+			checkpoint(new byte[0]);
+		writer = new Thread(new Runnable() {
+			public void run() {
+				writeLoop();
+			}
+		}, "checkpoint-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * State given to the last mark found on disk when this memory was built,
+	 * null if nothing was recovered.
+	 */
+	public byte[] getRecoveredState() {
+		return recovered;
+	}
+
+	/** Checkpoint automatically every n marks (0 : never). */
+	public void setCheckpointInterval(int n) {
+		this.checkpointInterval = n;
+	}
+
+	/** Read Q(s,a) : a default value stored by the memory is logged. */
+	public double get(IState s, IAction a) {
+		int n = inner.size();
+		double q = inner.get(s, a);
+		if (inner.size() != n)
+			logPut(s, a, q);
+		return q;
+	}
+
+	/** Store Q(s,a), and log it. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		inner.put(s, a, sp, qsa);
+		logPut(s, a, qsa);
+	}
+
+	public int size() {
+		return inner.size();
+	}
+
+	public void visit(IPairVisitor v) {
+		inner.visit(v);
+	}
+
+	public Dataset extractDataset() {
+		return inner.extractDataset();
+	}
+
+	/** The memory holding the values. */
+	public IEnumerableRewardStore getMemory() {
+		return inner;
+	}
+
+	/**
+	 * End a unit of work : recovery stops at the last mark on disk.
+	 * 
+	 * @param state bytes given back by {@link #getRecoveredState()}.
+	 */
+	public void mark(byte state[]) {
+		try {
+			append(MARK, state, state.length, Double.NaN);
+			marks++;
+			if ((checkpointInterval > 0) && (marks % checkpointInterval == 0))
+				checkpoint(state);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Write a snapshot of the memory, start a new log, delete the older
+	 * files.
+	 * 
+	 * @param state state of the learner, given back by a recovery if no mark
+	 *            follows.
+	 */
+	public void checkpoint(byte state[]) throws IOException {
+		sync();
+		int next = generation + 1;
+		FileChannel nextLog = open(wal(next));
+		synchronized (this) {
+			log.close();
+			log = nextLog;
+			generation = next;
+		}
+		File tmp = new File(directory, "base-" + next + ".tmp");
+		QSnapshot.write(tmp, inner, codec, state, false);
+		if (!tmp.renameTo(base(next)))
+			throw new IOException("cannot rename " + tmp);
+		for (int k = 0; k < next; k++) {
+			base(k).delete();
+			wal(k).delete();
+		}
+	}
+
+	/** Wait until every change and mark is on disk. */
+	public void sync() throws IOException {
+		synchronized (this) {
+			long target = appended;
+			syncRequested = true;
+			notifyAll();
+			try {
+				while ((durable < target) && (failure == null))
+					wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("interrupted while waiting for the log");
+			}
+			check();
+		}
+	}
+
+	/** Write what remains of the log and stop the writer. */
+	public void close() throws IOException {
+		sync();
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		log.close();
+	}
+
+	/** Number of records (changes and marks) logged so far. */
+	public synchronized long getRecords() {
+		return records;
+	}
+
+	/** Number of writes of the log forced to disk so far. */
+	public synchronized long getCommits() {
+		return commits;
+	}
+
+	public String toString() {
+		return inner + " (checkpointed in " + directory + ")";
+	}
+
+	private File wal(int k) {
+		return new File(directory, "wal-" + k + ".log");
+	}
+
+	private File base(int k) {
+		return new File(directory, "base-" + k + ".pqls");
+	}
+
+	private static FileChannel open(File f) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(f, "rw");
+		raf.seek(raf.length());
+		return raf.getChannel();
+	}
+
+	private void check() throws IOException {
+		if (failure != null)
+			throw failure;
+	}
+
+	private void logPut(IState s, IAction a, double q) {
+		try {
+			key.encode(s, a);
+			append(PUT, key.bytes(), key.size(), q);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Append a record to the buffer of the writer. */
+	private synchronized void append(byte type, byte bytes[], int n, double q)
+			throws IOException {
+		check();
+		int length = (type == PUT) ? n + 8 : n;
+		int size = OVERHEAD + length;
+		try {
+			while (pending.remaining() < size) {
+				if ((pending.position() == 0) && (size > pending.capacity())) {
+					pending = ByteBuffer.allocate(size);
+					break;
+				}
+				syncRequested = true;
+				notifyAll();
+				wait();
+				check();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while waiting for the log");
+		}
+		int start = pending.position();
+		pending.put(type).putInt(length).put(bytes, 0, n);
+		if (type == PUT)
+			pending.putDouble(q);
+		crc.reset();
+		crc.update(pending.array(), start, size - 4);
+		pending.putInt((int) crc.getValue());
+		appended += size;
+		records++;
+	}
+
+	/** Loop of the writer thread : one forced write per interval. */
+	private void writeLoop() {
+		try {
+			while (true) {
+				ByteBuffer batch;
+				FileChannel target;
+				long end;
+				synchronized (this) {
+					long deadline = System.currentTimeMillis() + commitInterval;
+					long delay;
+					while (!closed && !syncRequested
+							&& (delay = deadline - System.currentTimeMillis()) > 0)
+						wait(delay);
+					syncRequested = false;
+					if (pending.position() == 0) {
+						if (closed)
+							return;
+						continue;
+					}
+					batch = pending;
+					pending = spare;
+					spare = null;
+					target = log;
+					end = appended;
+				}
+				batch.flip();
+				while (batch.hasRemaining())
+					target.write(batch);
+				target.force(false);
+				synchronized (this) {
+					batch.clear();
+					spare = batch;
+					durable = end;
+					commits++;
+					notifyAll();
+				}
+			}
+		} catch (IOException e) {
+			synchronized (this) {
+				failure = e;
+				notifyAll();
+			}
+		} catch (InterruptedException e) {
+			// stop
+		}
+	}
+
+	/**
+	 * Load the last snapshot of the directory, replay the logs up to their
+	 * last complete mark, cut what follows.
+	 * 
+	 * @return the last generation found, -1 if the directory is empty.
+	 */
+	private int recover() throws IOException {
+		int last = -1, lastBase = -1;
+		String names[] = directory.list();
+		for (int i = 0; i < names.length; i++) {
+			int k = generation(names[i]);
+			if (k < 0) {
+				if (names[i].startsWith("base-") && names[i].endsWith(".tmp"))
+					new File(directory, names[i]).delete();
+				continue;
+			}
+			last = Math.max(last, k);
+			if (names[i].startsWith("base-"))
+				lastBase = Math.max(lastBase, k);
+		}
+		if (last < 0)
+			return -1;
+		if (lastBase >= 0) {
+			SnapshotRewardStore snapshot = QSnapshot.open(base(lastBase), codec);
+			snapshot.copyTo(inner);
+			recovered = snapshot.getParameters();
+		}
+		// the logs are read as one sequence : the changes are applied when
+		// a mark follows them
+		int first = Math.max(lastBase, 0);
+		byte logs[][] = new byte[last + 1][];
+		int ends[] = new int[last + 1];
+		int fromLog = first, from = 0, markLog = -1, markEnd = 0;
+		for (int k = first; k <= last; k++) {
+			logs[k] = read(wal(k));
+			ByteBuffer b = ByteBuffer.wrap(logs[k]);
+			while (b.remaining() >= OVERHEAD) {
+				int start = b.position();
+				byte type = b.get();
+				int length = b.getInt();
+				if ((length < 0) || (b.remaining() < length + 4))
+					break;
+				crc.reset();
+				crc.update(logs[k], start, 5 + length);
+				if (b.getInt(start + 5 + length) != (int) crc.getValue())
+					break;
+				if ((type != PUT) && (type != MARK))
+					break;
+				b.position(start + 5 + length + 4);
+				ends[k] = b.position();
+				if (type == MARK) {
+					for (int j = fromLog; j <= k; j++)
+						replay(logs[j], (j == fromLog) ? from : 0,
+								(j == k) ? start : ends[j]);
+					recovered = new byte[length];
+					System.arraycopy(logs[k], start + 5, recovered, 0, length);
+					fromLog = markLog = k;
+					from = markEnd = b.position();
+				}
+			}
+		}
+		// cut what follows the last mark
+		for (int k = first; k <= last; k++)
+			if (wal(k).exists() && (k >= markLog)) {
+				RandomAccessFile raf = new RandomAccessFile(wal(k), "rw");
+				raf.setLength((k == markLog) ? markEnd : 0);
+				raf.close();
+			}
+		return last;
+	}
+
+	private static byte[] read(File f) throws IOException {
+		if (!f.exists())
+			return new byte[0];
+		RandomAccessFile raf = new RandomAccessFile(f, "r");
+		try {
+			byte all[] = new byte[(int) raf.length()];
+			raf.readFully(all);
+			return all;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/** Generation of a file of the directory, -1 for other files. */
+	private static int generation(String name) {
+		String digits;
+		if (name.startsWith("base-") && name.endsWith(".pqls"))
+			digits = name.substring(5, name.length() - 5);
+		else if (name.startsWith("wal-") && name.endsWith(".log"))
+			digits = name.substring(4, name.length() - 4);
+		else
+			return -1;
+		try {
+			return Integer.parseInt(digits);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/** Apply the changes recorded between two positions of a log. */
+	private void replay(byte all[], int from, int to) throws IOException {
+		ByteBuffer b = ByteBuffer.wrap(all);
+		int pos = from;
+		while (pos < to) {
+			int length = b.getInt(pos + 1);
+			if (all[pos] == PUT) {
+				ActionStatePair p = codec.read(new DataInputStream(
+						new ByteArrayInputStream(all, pos + 5, length - 8)));
+				inner.put(p.getState(), p.getAction(), p.getState(), b
+						.getDouble(pos + 5 + length - 8));
+			}
+			pos += OVERHEAD + length;
+		}
+	}
+
+}
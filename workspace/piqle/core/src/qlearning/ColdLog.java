@@ -0,0 +1,514 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ColdLog.java
+ *
+ */
+package qlearning;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import util.Hashing;
+
+/**
+ * Cold tier of a {@link TieredRewardMemorizer} : the (key, value) records are
+ * appended to a log cut into segment files, and found again through an index
+ * of the live records. <br>
+ * A record is never changed in place : taking a record back to the heap
+ * leaves a dead record in its segment. A background thread copies the live
+ * records of the segments mostly dead at the end of the log, then deletes
+ * these segments. <br>
+ * The index keeps, for each live record, the hash of its key and its
+ * location : 12 bytes in two arrays of primitives, the keys stay on disk.
+ * <p>
+ * Record : length n of the key (int), the n bytes of the key, value (double).
+ */
+class ColdLog {
+
+	/** Size of a record besides its key */
+	private static final int OVERHEAD = 4 + 8;
+
+	/** Location of an empty slot of the index */
+	private static final long NONE = -1;
+
+	/** One file of the log */
+	private static final class Segment {
+
+		final int id;
+
+		final File file;
+
+		final FileChannel channel;
+
+		/** Bytes appended, buffered ones included */
+		long length;
+
+		/** Bytes really written to the file */
+		long flushed;
+
+		/** Bytes of the live records */
+		long live;
+
+		/** Contents of the segment, once sealed */
+		MappedByteBuffer map;
+
+		Segment(int id, File file) throws IOException {
+			this.id = id;
+			this.file = file;
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			raf.setLength(0);
+			this.channel = raf.getChannel();
+		}
+
+	}
+
+	private final File directory;
+
+	private final long segmentSize;
+
+	/** Fraction of dead bytes making a segment worth compacting */
+	private final double maxGarbage;
+
+	/** The segments, by id (null : deleted) */
+	private ArrayList<Segment> segments = new ArrayList<Segment>();
+
+	/** The segment written */
+	private Segment active;
+
+	/** Write buffer of the active segment */
+	private final ByteBuffer out = ByteBuffer.allocate(1 << 16);
+
+	/** Read buffer of the callers (the compactor has its own) */
+	private ByteBuffer in = ByteBuffer.allocate(256);
+
+	/** Index : hash of the key and location of each live record (linear probing) */
+	private int hashes[] = new int[1024];
+
+	private long locations[] = new long[1024];
+
+	private int count = 0;
+
+	private Thread compactor;
+
+	private boolean closed = false;
+
+	/** Error met by the compactor, thrown back to the next caller */
+	private IOException failure;
+
+	private int compactions = 0;
+
+	private long bytesMoved = 0;
+
+	/**
+	 * @param directory where the segments are written (it must exist).
+	 * @param segmentSize size of a segment, in bytes.
+	 * @param maxGarbage fraction of dead bytes above which a segment is
+	 *            compacted.
+	 */
+	ColdLog(File directory, long segmentSize, double maxGarbage)
+			throws IOException {
+		if (segmentSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("segments are limited to 2 GB");
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxGarbage = maxGarbage;
+		Arrays.fill(locations, NONE);
+		active = newSegment();
+	}
+
+	/** Hash of the n bytes of key starting at off. */
+	static int hash(byte key[], int off, int n) {
+		int h = Hashing.SEED;
+		int i = off;
+		for (; i + 4 <= off + n; i += 4)
+			h = Hashing.combine(h, (key[i] & 0xFF) | (key[i + 1] & 0xFF) << 8
+					| (key[i + 2] & 0xFF) << 16 | (key[i + 3] & 0xFF) << 24);
+		for (; i < off + n; i++)
+			h = Hashing.combine(h, key[i]);
+		return Hashing.combine(h, n);
+	}
+
+	/**
+	 * Remove the record of a key from the log.
+	 * 
+	 * @param value receives the value of the record in value[0].
+	 * @return false if the key is not in the log.
+	 */
+	synchronized boolean take(byte key[], int n, int h, double value[])
+			throws IOException {
+		check();
+		int mask = locations.length - 1;
+		for (int i = h & mask; locations[i] != NONE; i = (i + 1) & mask) {
+			if (hashes[i] != h)
+				continue;
+			in = read(locations[i], in);
+			if (!sameKey(in, key, n))
+				continue;
+			value[0] = in.getDouble(4 + n);
+			Segment seg = segments.get(segment(locations[i]));
+			seg.live -= OVERHEAD + n;
+			delete(i);
+			if (worthCompacting(seg))
+				wakeCompactor();
+			return true;
+		}
+		return false;
+	}
+
+	/** Append a record : the key must not be in the log yet. */
+	synchronized void append(byte key[], int n, int h, double q)
+			throws IOException {
+		check();
+		long loc = write(key, 0, n, q);
+		if (2 * (count + 1) > locations.length)
+			rehash(2 * locations.length);
+		int mask = locations.length - 1;
+		int i = h & mask;
+		while (locations[i] != NONE)
+			i = (i + 1) & mask;
+		hashes[i] = h;
+		locations[i] = loc;
+		count++;
+	}
+
+	/** Receives the records of the log */
+	interface Visitor {
+		void visit(byte record[], int n, double q) throws IOException;
+	}
+
+	/**
+	 * Visit every live record : the key is the n bytes of record starting at
+	 * offset 4.
+	 */
+	synchronized void visit(Visitor v) throws IOException {
+		check();
+		for (int i = 0; i < locations.length; i++)
+			if (locations[i] != NONE) {
+				in = read(locations[i], in);
+				int n = in.getInt(0);
+				v.visit(in.array(), n, in.getDouble(4 + n));
+			}
+	}
+
+	/** Number of records in the log. */
+	synchronized int size() {
+		return count;
+	}
+
+	/** Bytes used on disk, dead records included. */
+	synchronized long getDiskSize() {
+		long total = 0;
+		for (Segment seg : segments)
+			if (seg != null)
+				total += seg.length;
+		return total;
+	}
+
+	/** Bytes of the live records. */
+	synchronized long getLiveSize() {
+		long total = 0;
+		for (Segment seg : segments)
+			if (seg != null)
+				total += seg.live;
+		return total;
+	}
+
+	/** Number of segments compacted so far. */
+	synchronized int getCompactions() {
+		return compactions;
+	}
+
+	/** Bytes copied by the compactions so far. */
+	synchronized long getBytesMoved() {
+		return bytesMoved;
+	}
+
+	/** Stop the compactor, delete the segments. */
+	void close() throws IOException {
+		Thread t;
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+			notifyAll();
+			t = compactor;
+		}
+		if (t != null)
+			try {
+				t.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		for (Segment seg : segments)
+			if (seg != null) {
+				seg.channel.close();
+				seg.file.delete();
+			}
+		segments.clear();
+	}
+
+	private void check() throws IOException {
+		if (closed)
+			throw new IOException("cold log closed");
+		if (failure != null)
+			throw failure;
+	}
+
+	private static long location(int segment, long offset) {
+		return ((long) segment << 32) | offset;
+	}
+
+	private static int segment(long loc) {
+		return (int) (loc >>> 32);
+	}
+
+	private static long offset(long loc) {
+		return loc & 0xFFFFFFFFL;
+	}
+
+	private Segment newSegment() throws IOException {
+		Segment seg = new Segment(segments.size(), new File(directory, "cold-"
+				+ segments.size() + ".log"));
+		segments.add(seg);
+		return seg;
+	}
+
+	/** Append a record to the active segment, return its location. */
+	private long write(byte key[], int off, int n, double q)
+			throws IOException {
+		int size = OVERHEAD + n;
+		if (active.length > 0 && active.length + size > segmentSize) {
+			flush();
+			Segment sealed = active;
+			sealed.map = sealed.channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					sealed.length);
+			active = newSegment();
+			if (worthCompacting(sealed))
+				wakeCompactor();
+		}
+		if (out.remaining() < size)
+			flush();
+		long loc = location(active.id, active.length);
+		if (size > out.capacity()) {
+			ByteBuffer b = ByteBuffer.allocate(size);
+			b.putInt(n).put(key, off, n).putDouble(q).flip();
+			while (b.hasRemaining())
+				active.flushed += active.channel.write(b, active.flushed);
+		} else
+			out.putInt(n).put(key, off, n).putDouble(q);
+		active.length += size;
+		active.live += size;
+		return loc;
+	}
+
+	private void flush() throws IOException {
+		out.flip();
+		while (out.hasRemaining())
+			active.flushed += active.channel.write(out, active.flushed);
+		out.clear();
+	}
+
+	/** Read the record at loc into buf, or into a larger buffer if needed. */
+	private ByteBuffer read(long loc, ByteBuffer buf) throws IOException {
+		Segment seg = segments.get(segment(loc));
+		if (seg == active && offset(loc) >= seg.flushed) {
+			// still in the write buffer
+			int from = (int) (offset(loc) - seg.flushed);
+			int size = OVERHEAD + out.getInt(from);
+			if (size > buf.capacity())
+				buf = ByteBuffer.allocate(Integer.highestOneBit(size) * 2);
+			buf.clear();
+			buf.put(out.array(), from, size).flip();
+			return buf;
+		}
+		return read(seg, offset(loc), buf);
+	}
+
+	/** Read a record already written to the file. */
+	private static ByteBuffer read(Segment seg, long pos, ByteBuffer buf)
+			throws IOException {
+		fill(seg, pos, buf, (int) Math.min(buf.capacity(), seg.flushed - pos));
+		int size = OVERHEAD + buf.getInt(0);
+		if (size > buf.limit()) {
+			if (size > buf.capacity())
+				buf = ByteBuffer.allocate(Integer.highestOneBit(size) * 2);
+			fill(seg, pos, buf, size);
+		}
+		buf.limit(size);
+		return buf;
+	}
+
+	private static void fill(Segment seg, long pos, ByteBuffer buf, int length)
+			throws IOException {
+		buf.clear().limit(length);
+		if (seg.map != null) {
+			seg.map.get((int) pos, buf.array(), 0, length);
+			return;
+		}
+		while (buf.hasRemaining())
+			if (seg.channel.read(buf, pos + buf.position()) < 0)
+				throw new IOException("truncated record in " + seg.file);
+	}
+
+	private static boolean sameKey(ByteBuffer record, byte key[], int n) {
+		if (record.getInt(0) != n)
+			return false;
+		byte r[] = record.array();
+		for (int i = 0; i < n; i++)
+			if (r[4 + i] != key[i])
+				return false;
+		return true;
+	}
+
+	/** Empty slot i, shifting back the following records of its cluster. */
+	private void delete(int i) {
+		int mask = locations.length - 1;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (locations[j] == NONE)
+				break;
+			int home = hashes[j] & mask;
+			// the record at j may move to i if its home is not in ]i,j]
+			boolean stays = (i <= j) ? (i < home && home <= j)
+					: (i < home || home <= j);
+			if (!stays) {
+				hashes[i] = hashes[j];
+				locations[i] = locations[j];
+				i = j;
+			}
+		}
+		locations[i] = NONE;
+		count--;
+	}
+
+	private void rehash(int capacity) {
+		int oldHashes[] = hashes;
+		long oldLocations[] = locations;
+		hashes = new int[capacity];
+		locations = new long[capacity];
+		Arrays.fill(locations, NONE);
+		int mask = capacity - 1;
+		for (int k = 0; k < oldLocations.length; k++)
+			if (oldLocations[k] != NONE) {
+				int i = oldHashes[k] & mask;
+				while (locations[i] != NONE)
+					i = (i + 1) & mask;
+				hashes[i] = oldHashes[k];
+				locations[i] = oldLocations[k];
+			}
+	}
+
+	private boolean worthCompacting(Segment seg) {
+		return (seg != active) && (seg.length > 0)
+				&& (seg.length - seg.live > maxGarbage * seg.length);
+	}
+
+	private void wakeCompactor() {
+		if (compactor == null) {
+			compactor = new Thread(new Runnable() {
+				public void run() {
+					compact();
+				}
+			}, "cold-log-compactor");
+			compactor.setDaemon(true);
+			compactor.start();
+		} else
+			notifyAll();
+	}
+
+	/** The most dead segment worth compacting, null if none. */
+	private Segment candidate() {
+		Segment best = null;
+		for (Segment seg : segments)
+			if ((seg != null) && worthCompacting(seg)
+					&& ((best == null) || (seg.live * best.length < best.live
+							* seg.length)))
+				best = seg;
+		return best;
+	}
+
+	/** Loop of the compactor thread. */
+	private void compact() {
+		ByteBuffer buf = ByteBuffer.allocate(256);
+		try {
+			while (true) {
+				Segment seg;
+				synchronized (this) {
+					while (true) {
+						if (closed)
+							return;
+						seg = candidate();
+						if (seg != null)
+							break;
+						wait();
+					}
+				}
+				// the segment is sealed : it is read without the lock
+				long pos = 0;
+				while (pos < seg.length) {
+					buf = read(seg, pos, buf);
+					int n = buf.getInt(0);
+					synchronized (this) {
+						if (closed)
+							return;
+						if (seg.live == 0)
+							break;
+						move(seg, pos, buf.array(), n, buf.getDouble(4 + n));
+					}
+					pos += OVERHEAD + n;
+				}
+				synchronized (this) {
+					if (closed)
+						return;
+					segments.set(seg.id, null);
+					seg.channel.close();
+					seg.file.delete();
+					compactions++;
+				}
+			}
+		} catch (IOException e) {
+			synchronized (this) {
+				failure = e;
+			}
+		} catch (InterruptedException e) {
+			// stop
+		}
+	}
+
+	/** Copy the record at (seg, pos) to the active segment, if it is live. */
+	private void move(Segment seg, long pos, byte record[], int n, double q)
+			throws IOException {
+		long loc = location(seg.id, pos);
+		int mask = locations.length - 1;
+		for (int i = hash(record, 4, n) & mask; locations[i] != NONE; i = (i + 1)
+				& mask)
+			if (locations[i] == loc) {
+				locations[i] = write(record, 4, n, q);
+				seg.live -= OVERHEAD + n;
+				bytesMoved += OVERHEAD + n;
+				return;
+			}
+	}
+
+}
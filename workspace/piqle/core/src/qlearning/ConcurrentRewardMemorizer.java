@@ -0,0 +1,111 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ConcurrentRewardMemorizer.java
+ *
+ */
+package qlearning;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Memorizing Q(s,a) in a map which can be read and written by several
+ * threads at the same time. <br>
+ * No lock is taken when updating a value : as in asynchronous (<i>Hogwild</i>)
+ * Q-Learning, two agents updating the same pair at the same moment may lose
+ * one of the two updates, which does not harm convergence in practice.
+ *
+ * @see referees.HogwildReferee
+ */
+public class ConcurrentRewardMemorizer implements IEnumerableRewardStore {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private ConcurrentHashMap<ActionStatePair, Double> map = new ConcurrentHashMap<ActionStatePair, Double>();
+
+	/** Number of items stored */
+	private AtomicInteger numberOfItems = new AtomicInteger(0);
+
+	private IDefaultValueChooser valueChooser;
+
+	public ConcurrentRewardMemorizer() {
+		this.valueChooser = new NullValueChooser();
+	}
+
+	public ConcurrentRewardMemorizer(IDefaultValueChooser vc) {
+		this.valueChooser = vc;
+	}
+
+	/** Read Q(s,a) : unknown pairs get their default value. */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		ActionStatePair us = new ActionStatePair(a, s);
+		Double db = map.get(us);
+		if (db == null) {
+			Double u = Double.valueOf(this.valueChooser.getValue());
+			db = map.putIfAbsent(ActionStatePair.retain(a, s), u);
+			if (db == null) {
+				numberOfItems.incrementAndGet();
+				return u.doubleValue();
+			}
+		}
+		return db.doubleValue();
+	}
+
+	/**
+	 * Store Q(s,a) : change its value if already there. A key is retained
+	 * only for a new pair.
+	 */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		Double v = Double.valueOf(qsa);
+		if (map.replace(new ActionStatePair(a, s), v) != null)
+			return;
+		if (map.put(ActionStatePair.retain(a, s), v) == null)
+			numberOfItems.incrementAndGet();
+	}
+
+	/** Number of (state,action) pairs stored so far. */
+	public int size() {
+		return numberOfItems.get();
+	}
+
+	/** The pairs stored while the visit goes on may be missed. */
+	public void visit(IPairVisitor v) {
+		for (Map.Entry<ActionStatePair, Double> e : map.entrySet())
+			v.visit(e.getKey().getState(), e.getKey().getAction(), e
+					.getValue().doubleValue());
+	}
+
+	public String toString() {
+		return numberOfItems.get() + " state/action pairs (concurrent memory)";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+}
@@ -0,0 +1,58 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    DatasetBuilder.java
+ *
+ */
+package qlearning;
+
+import dataset.Dataset;
+import dataset.Sample;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Builds the dataset of the pairs it visits, for a neural network : the input
+ * of a sample is the coding of the state followed by the coding of the
+ * action, its output is (1+Q(s,a))/2. The memories build their
+ * <code>extractDataset()</code> with it (see {@link #extract}).
+ */
+public class DatasetBuilder implements IPairVisitor {
+
+	private final Dataset dataset = new Dataset();
+
+	/** The dataset of all the pairs of a memory. */
+	public static Dataset extract(IEnumerableRewardStore store) {
+		DatasetBuilder builder = new DatasetBuilder();
+		store.visit(builder);
+		return builder.getDataset();
+	}
+
+	public void visit(IState etat, IAction act, double q) {
+		int prosize = act.nnCodingSize();
+		double u[] = new double[etat.nnCodingSize() + prosize];
+		System.arraycopy(etat.nnCoding(), 0, u, 0, etat.nnCodingSize());
+		System.arraycopy(act.nnCoding(), 0, u, etat.nnCodingSize(), prosize);
+		double v[] = new double[1];
+		v[0] = (1.0 + q) / 2.0;
+		dataset.add(new Sample(u, v));
+	}
+
+	public Dataset getDataset() {
+		return dataset;
+	}
+
+}
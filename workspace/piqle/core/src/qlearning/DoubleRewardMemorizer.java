@@ -0,0 +1,252 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    DoubleRewardMemorizer.java
+ *
+ */
+package qlearning;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Two estimates QA(s,a) and QB(s,a) of each pair, for Double Q-Learning
+ * (see algorithms.DoubleQLearningSelector), in one table : the key of a
+ * pair is hashed once, and its slot holds both values, side by side in an
+ * array of primitive values. <br>
+ * The table is an open addressing table with linear probing ; a slot
+ * number given by {@link #slot(IState, IAction)} is valid until the next
+ * pair is added.
+ * <p>
+ * As an ordinary memory, it reads the mean of the two estimates, and
+ * writes both of them : the exploration policies choose on (QA+QB)/2.
+ * <p>
+ * The number of visits of each pair, for the learning rate schedules, is
+ * kept in the same slot as its two values.
+ */
+public class DoubleRewardMemorizer implements IEnumerableRewardStore,
+		IVisitCounter {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Keys, their hash codes, the two values and the visits of each slot */
+	private transient ActionStatePair keys[];
+
+	private transient int hashes[];
+
+	private transient double values[];
+
+	private transient int visits[];
+
+	private transient int size;
+
+	/** Key used to look pairs up */
+	private transient ActionStatePair probe;
+
+	private IDefaultValueChooser valueChooser;
+
+	public DoubleRewardMemorizer() {
+		this(new NullValueChooser());
+	}
+
+	public DoubleRewardMemorizer(IDefaultValueChooser vc) {
+		this.valueChooser = vc;
+		allocate(64);
+	}
+
+	private void allocate(int capacity) {
+		keys = new ActionStatePair[capacity];
+		hashes = new int[capacity];
+		values = new double[2 * capacity];
+		visits = new int[capacity];
+		size = 0;
+	}
+
+	/**
+	 * Slot of (s,a) : a new pair is added, both estimates getting the default
+	 * value.
+	 */
+	public int slot(IState s, IAction a) {
+		int i = find(s, a);
+		if (i >= 0)
+			return i;
+		i = -i - 1;
+		int h = probe.hashCode();
+		if (4 * (size + 1) > 3 * keys.length) {
+			grow();
+			return slot(s, a);
+		}
+		keys[i] = ActionStatePair.retain(a, s);
+		hashes[i] = h;
+		double q = valueChooser.getValue();
+		values[2 * i] = q;
+		values[2 * i + 1] = q;
+		size++;
+		return i;
+	}
+
+	/**
+	 * Slot of (s,a) if it is stored, -(free slot where it would go)-1
+	 * otherwise.
+	 */
+	private int find(IState s, IAction a) {
+		if (probe == null)
+			probe = new ActionStatePair(a, s);
+		else
+			probe.reset(a, s);
+		int h = probe.hashCode();
+		int mask = keys.length - 1;
+		int i = h & mask;
+		for (ActionStatePair k; (k = keys[i]) != null; i = (i + 1) & mask)
+			if ((hashes[i] == h) && k.equals(probe))
+				return i;
+		return -i - 1;
+	}
+
+	private void grow() {
+		ActionStatePair k[] = keys;
+		int h[] = hashes;
+		double v[] = values;
+		int n[] = visits;
+		allocate(2 * k.length);
+		for (int j = 0; j < k.length; j++)
+			if (k[j] != null)
+				insert(k[j], h[j], v[2 * j], v[2 * j + 1], n[j]);
+	}
+
+	private void insert(ActionStatePair key, int h, double qa, double qb,
+			int n) {
+		int mask = keys.length - 1;
+		int i = h & mask;
+		while (keys[i] != null)
+			i = (i + 1) & mask;
+		keys[i] = key;
+		hashes[i] = h;
+		values[2 * i] = qa;
+		values[2 * i + 1] = qb;
+		visits[i] = n;
+		size++;
+	}
+
+	/** Estimate 0 (QA) or 1 (QB) of the pair in slot i. */
+	public double getValue(int slot, int which) {
+		return values[2 * slot + which];
+	}
+
+	public void setValue(int slot, int which, double q) {
+		values[2 * slot + which] = q;
+	}
+
+	/** Count one more visit of the pair in slot i. */
+	public int addVisit(int slot) {
+		return ++visits[slot];
+	}
+
+	public int getVisits(int slot) {
+		return visits[slot];
+	}
+
+	public int addVisit(IState s, IAction a) {
+		return ++visits[slot(s, a)];
+	}
+
+	/** Does not add the pair when it is not there. */
+	public int getVisits(IState s, IAction a) {
+		int i = find(s, a);
+		return i >= 0 ? visits[i] : 0;
+	}
+
+	/** Estimate 0 (QA) or 1 (QB) of (s,a). */
+	public double get(IState s, IAction a, int which) {
+		return values[2 * slot(s, a) + which];
+	}
+
+	/** Mean of the two estimates. */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		int i = slot(s, a);
+		return (values[2 * i] + values[2 * i + 1]) / 2.0;
+	}
+
+	/** Both estimates become qsa. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		int i = slot(s, a);
+		values[2 * i] = qsa;
+		values[2 * i + 1] = qsa;
+	}
+
+	/** Number of (state,action) pairs stored so far. */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Visits the pairs with the mean of their estimates : a snapshot keeps
+	 * the greedy policy, not the two estimates (serialize the memory to keep
+	 * them).
+	 */
+	public void visit(IPairVisitor v) {
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != null)
+				v.visit(keys[i].getState(), keys[i].getAction(),
+						(values[2 * i] + values[2 * i + 1]) / 2.0);
+	}
+
+	public String toString() {
+		return size + " state/action pairs, two estimates each";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+	/** The slots depend on hash codes, which may change : write the pairs. */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != null) {
+				out.writeObject(keys[i]);
+				out.writeDouble(values[2 * i]);
+				out.writeDouble(values[2 * i + 1]);
+				out.writeInt(visits[i]);
+			}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		int n = in.readInt();
+		int capacity = 64;
+		while (4 * n > 3 * capacity)
+			capacity *= 2;
+		allocate(capacity);
+		for (int j = 0; j < n; j++) {
+			ActionStatePair key = (ActionStatePair) in.readObject();
+			double qa = in.readDouble();
+			double qb = in.readDouble();
+			insert(key, key.hashCode(), qa, qb, in.readInt());
+		}
+	}
+
+}
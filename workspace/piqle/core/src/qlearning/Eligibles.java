@@ -53,7 +53,7 @@ public class Eligibles implements Serializable{
 	if (dv==null) value=0; 
 	else
 	    value=dv.doubleValue(); 
-	map.put(new ActionStatePair(a,s),new Double(1+value)); 
+	map.put(ActionStatePair.retain(a,s),new Double(1+value)); 
     }
 
     /** Read eligibility value.*/
@@ -69,7 +69,7 @@ public class Eligibles implements Serializable{
 
     /** Store eligibility value. */ 
     public void set(IState s,IAction a, double value){
-	map.put(new ActionStatePair(a,s),new Double(value)); 
+	map.put(ActionStatePair.retain(a,s),new Double(value)); 
     }
 
     /** Store eligibility value.*/
@@ -0,0 +1,38 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IEnumerableRewardStore.java
+ *
+ */
+package qlearning;
+
+/**
+ * A memory able to list the pairs it holds, without building a
+ * {@link dataset.Dataset} nor changing them : used to save, dump or survey
+ * Q(s,a).
+ */
+public interface IEnumerableRewardStore extends IRewardStore {
+
+	/** Number of (state,action) pairs stored. */
+	public int size();
+
+	/**
+	 * Give every stored pair and its value to v, in no particular order. The
+	 * memory must not be changed during the visit.
+	 */
+	public void visit(IPairVisitor v);
+
+}
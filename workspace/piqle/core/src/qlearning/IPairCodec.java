@@ -0,0 +1,45 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IPairCodec.java
+ *
+ */
+package qlearning;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Binary form of the state/action pairs, for the memories which keep part of
+ * their pairs out of the heap (see {@link TieredRewardMemorizer}). <br>
+ * The bytes written are the key of the pair : two pairs must be written the
+ * same way if and only if they are equal. The environment is not written, the
+ * codec knows it.
+ */
+public interface IPairCodec extends Serializable {
+
+	/** Write the pair (s,a). */
+	public void write(IState s, IAction a, DataOutput out) throws IOException;
+
+	/** Read back a pair written by {@link #write(IState, IAction, DataOutput)}. */
+	public ActionStatePair read(DataInput in) throws IOException;
+
+}
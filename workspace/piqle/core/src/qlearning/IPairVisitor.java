@@ -0,0 +1,33 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IPairVisitor.java
+ *
+ */
+package qlearning;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Receives the pairs of a memory one after the other (see
+ * {@link IEnumerableRewardStore#visit(IPairVisitor)}).
+ */
+public interface IPairVisitor {
+
+	public void visit(IState s, IAction a, double q);
+
+}
@@ -0,0 +1,39 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IVisitCounter.java
+ *
+ */
+package qlearning;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Counts the backups of each (state,action) pair, for learning rates
+ * depending on them (see algorithms.ILearningRateSchedule). A memory
+ * implementing it keeps the count next to the value of the pair ; the
+ * others are given a separate {@link VisitCounts}.
+ */
+public interface IVisitCounter {
+
+	/** Count one more visit of (s,a) : returns the number of visits so far. */
+	public int addVisit(IState s, IAction a);
+
+	/** Number of visits of (s,a), 0 if never visited. */
+	public int getVisits(IState s, IAction a);
+
+}
@@ -20,7 +20,8 @@
  *
  */
 package qlearning;
-import java.util.Random;
+
+import util.RandomSource;
 
 /**
  * @author Francesco De Comite
@@ -32,7 +33,6 @@ public class IntervalValueChooser implements IDefaultValueChooser {
 	 */
 	private static final long serialVersionUID = 1L;
 	private double lowerBound,upperBound; 
-	private Random generator=new Random(); 
 	/* (non-Javadoc)
 	 * @see qlearning.IDefaultValueChooser#getvalue()
 	 */
@@ -41,7 +41,7 @@ public class IntervalValueChooser implements IDefaultValueChooser {
 		this.upperBound=ub;
 	}
 	public double getValue() {
-		return generator.nextDouble()*(upperBound-lowerBound)+lowerBound;
+		return RandomSource.current().nextDouble()*(upperBound-lowerBound)+lowerBound;
 	}
 
 }
@@ -0,0 +1,150 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    OrdinalRewardMemorizer.java
+ *
+ */
+package qlearning;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IOrdinalAction;
+import environment.IState;
+
+/**
+ * Memorizing Q(s,a) for actions numbered by ordinals (see
+ * {@link IOrdinalAction}) : the map associates to each state the row of its
+ * values, indexed by ordinal. A lookup hashes the state only, and builds no
+ * key. <br>
+ * Only ordinal actions may be used with this memory.
+ */
+public class OrdinalRewardMemorizer implements IEnumerableRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Values of each state (NaN : not stored yet) */
+	private HashMap<IState, double[]> map = new HashMap<IState, double[]>();
+
+	/** One action of each ordinal met so far, to visit the pairs */
+	private IAction actions[] = new IAction[0];
+
+	/** Number of (state,action) pairs stored */
+	private int numberOfItems = 0;
+
+	/** Initial length of the rows */
+	private int width;
+
+	private IDefaultValueChooser valueChooser;
+
+	public OrdinalRewardMemorizer() {
+		this(new NullValueChooser(), 8);
+	}
+
+	/**
+	 * @param width the number of ordinals of the problem, if known (rows
+	 *            grow anyway when a larger ordinal shows up).
+	 */
+	public OrdinalRewardMemorizer(IDefaultValueChooser vc, int width) {
+		this.valueChooser = vc;
+		this.width = Math.max(width, 1);
+	}
+
+	private static int ordinal(IAction a) {
+		if (!(a instanceof IOrdinalAction))
+			throw new IllegalArgumentException(
+					"OrdinalRewardMemorizer needs ordinal actions, not "
+							+ a.getClass().getName());
+		return ((IOrdinalAction) a).ordinal();
+	}
+
+	/** The row of s, long enough to hold ordinal o. */
+	private double[] row(IState s, IAction a, int o) {
+		double v[] = map.get(s);
+		if (v != null && o < v.length)
+			return v;
+		if (v == null) {
+			v = new double[Math.max(width, o + 1)];
+			Arrays.fill(v, Double.NaN);
+			map.put(ActionStatePair.retain(s), v);
+		} else {
+			int old = v.length;
+			v = Arrays.copyOf(v, Math.max(o + 1, 2 * old));
+			Arrays.fill(v, old, v.length, Double.NaN);
+			map.put(s, v);
+		}
+		if (o >= actions.length)
+			actions = Arrays.copyOf(actions, Math.max(o + 1, 2 * actions.length));
+		if (actions[o] == null)
+			actions[o] = a;
+		return v;
+	}
+
+	/** Read Q(s,a) : unknown pairs get their default value. */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		int o = ordinal(a);
+		double v[] = row(s, a, o);
+		if (Double.isNaN(v[o])) {
+			v[o] = this.valueChooser.getValue();
+			numberOfItems++;
+		}
+		return v[o];
+	}
+
+	/** Store Q(s,a) : change its value if already there. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		int o = ordinal(a);
+		double v[] = row(s, a, o);
+		if (Double.isNaN(v[o]))
+			numberOfItems++;
+		v[o] = qsa;
+	}
+
+	/** Number of (state,action) pairs stored so far. */
+	public int size() {
+		return numberOfItems;
+	}
+
+	/** Number of states stored so far. */
+	public int getNbStates() {
+		return map.size();
+	}
+
+	public void visit(IPairVisitor v) {
+		for (Map.Entry<IState, double[]> e : map.entrySet()) {
+			double row[] = e.getValue();
+			for (int o = 0; o < row.length; o++)
+				if (!Double.isNaN(row[o]))
+					v.visit(e.getKey(), actions[o], row[o]);
+		}
+	}
+
+	public String toString() {
+		return numberOfItems + " state/action pairs, " + map.size()
+				+ " states (rows indexed by ordinal)";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+}
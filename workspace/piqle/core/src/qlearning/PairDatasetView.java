@@ -0,0 +1,160 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PairDatasetView.java
+ *
+ */
+package qlearning;
+
+import java.util.Random;
+
+import dataset.ISampleSource;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * The pairs of a memory seen as a dataset for a neural network, without
+ * building it : {@link IEnumerableRewardStore#extractDataset()} allocates two
+ * arrays per pair, copied again by the Dataset, while this view only keeps
+ * references to the states and actions, and their values. A sample is
+ * encoded when it is read, into the buffers of the reader. <br>
+ * The order of the samples is a permutation of indices, shuffled without
+ * moving the pairs.
+ * <p>
+ * The values are those of the memory when the view was built (or last
+ * refreshed). As in extractDataset(), the output is (1+Q(s,a))/2 by default
+ * (see {@link #setOutputMapping(double, double)}).
+ * 
+ * @see neuralnetwork.NeuralNetwork#learnFromSource(dataset.ISampleSource,
+ *      boolean)
+ */
+public class PairDatasetView implements ISampleSource {
+
+	private final IEnumerableRewardStore store;
+
+	private IState states[];
+
+	private IAction actions[];
+
+	private double values[];
+
+	/** Index of the pair read at each rank */
+	private int order[];
+
+	private int size;
+
+	private int stateSize, actionSize;
+
+	private double scale = 0.5, offset = 0.5;
+
+	public PairDatasetView(IEnumerableRewardStore store) {
+		this.store = store;
+		refresh();
+	}
+
+	/** Read again the pairs of the memory and their values (order reset). */
+	public void refresh() {
+		int n = store.size();
+		states = new IState[n];
+		actions = new IAction[n];
+		values = new double[n];
+		size = 0;
+		store.visit(new IPairVisitor() {
+			public void visit(IState s, IAction a, double q) {
+				if (size == states.length)
+					grow();
+				states[size] = s;
+				actions[size] = a;
+				values[size] = q;
+				size++;
+			}
+		});
+		order = new int[size];
+		resetOrder();
+		if (size > 0) {
+			stateSize = states[0].nnCodingSize();
+			actionSize = actions[0].nnCodingSize();
+		}
+	}
+
+	private void grow() {
+		int n = Math.max(16, 2 * states.length);
+		IState s[] = new IState[n];
+		IAction a[] = new IAction[n];
+		double v[] = new double[n];
+		System.arraycopy(states, 0, s, 0, size);
+		System.arraycopy(actions, 0, a, 0, size);
+		System.arraycopy(values, 0, v, 0, size);
+		states = s;
+		actions = a;
+		values = v;
+	}
+
+	/** Output of a sample : scale*Q(s,a)+offset. */
+	public void setOutputMapping(double scale, double offset) {
+		this.scale = scale;
+		this.offset = offset;
+	}
+
+	/** Random order of the samples (Fisher-Yates). */
+	public void shuffle(Random r) {
+		for (int i = size - 1; i > 0; i--) {
+			int j = r.nextInt(i + 1);
+			int k = order[i];
+			order[i] = order[j];
+			order[j] = k;
+		}
+	}
+
+	/** Samples in the order of the memory. */
+	public void resetOrder() {
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+	}
+
+	public int numInstances() {
+		return size;
+	}
+
+	public int getInputSize() {
+		return stateSize + actionSize;
+	}
+
+	public int getOutputSize() {
+		return 1;
+	}
+
+	public IState getState(int i) {
+		return states[order[i]];
+	}
+
+	public IAction getAction(int i) {
+		return actions[order[i]];
+	}
+
+	public double getValue(int i) {
+		return values[order[i]];
+	}
+
+	public void fill(int i, double input[], double output[]) {
+		int k = order[i];
+		System.arraycopy(states[k].nnCoding(), 0, input, 0, stateSize);
+		System.arraycopy(actions[k].nnCoding(), 0, input, stateSize,
+				actionSize);
+		output[0] = scale * values[k] + offset;
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PairEncoder.java
+ *
+ */
+package qlearning;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Binary key of a pair, written by an {@link IPairCodec} into a buffer reused
+ * from pair to pair.
+ */
+class PairEncoder {
+
+	private final IPairCodec codec;
+
+	private final Buffer buffer = new Buffer();
+
+	private final DataOutputStream out = new DataOutputStream(buffer);
+
+	PairEncoder(IPairCodec codec) {
+		this.codec = codec;
+	}
+
+	/** Encode (s,a) : the result is valid until the next call. */
+	void encode(IState s, IAction a) throws IOException {
+		buffer.reset();
+		codec.write(s, a, out);
+	}
+
+	/** The key, in the first size() bytes. */
+	byte[] bytes() {
+		return buffer.bytes();
+	}
+
+	int size() {
+		return buffer.size();
+	}
+
+	/** Hash of the key (see ColdLog#hash) */
+	int hash() {
+		return ColdLog.hash(buffer.bytes(), 0, buffer.size());
+	}
+
+	/** The bytes of the key, without copy */
+	private static final class Buffer extends ByteArrayOutputStream {
+		byte[] bytes() {
+			return buf;
+		}
+	}
+
+}
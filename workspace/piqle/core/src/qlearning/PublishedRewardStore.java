@@ -0,0 +1,122 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    PublishedRewardStore.java
+ *
+ */
+package qlearning;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * A read-only copy of a memory written by another thread, for the selectors
+ * which only choose (see agents.ActorAgent) : {@link #publish()}, called by
+ * the thread writing the source memory, replaces the copy at once, so that
+ * the readers never see a memory being written. Between two publications,
+ * the readers follow a policy lagging behind the source. <br>
+ * Lookups take no lock, from any number of threads ; the pairs absent from
+ * the copy get their default value, which is not stored.
+ *
+ * @see referees.ActorLearnerReferee
+ */
+public class PublishedRewardStore implements IEnumerableRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	private IEnumerableRewardStore source;
+
+	/** The last copy published, never changed afterwards */
+	private volatile HashMap<ActionStatePair, Double> published = new HashMap<ActionStatePair, Double>();
+
+	private IDefaultValueChooser valueChooser = new NullValueChooser();
+
+	/** Number of copies published so far */
+	private volatile long publications;
+
+	public PublishedRewardStore(IEnumerableRewardStore source) {
+		this.source = source;
+	}
+
+	public IEnumerableRewardStore getSource() {
+		return source;
+	}
+
+	/** Value of the pairs absent from the copy (0 by default). */
+	public void setDefaultValueChooser(IDefaultValueChooser vc) {
+		this.valueChooser = vc;
+	}
+
+	/**
+	 * Copy the source and make the copy visible to the readers : only from
+	 * the thread writing the source.
+	 */
+	public void publish() {
+		final HashMap<ActionStatePair, Double> copy = new HashMap<ActionStatePair, Double>(
+				2 * source.size() + 16);
+		// the states and actions visited are the keys kept by the source
+		source.visit(new IPairVisitor() {
+			public void visit(IState s, IAction a, double q) {
+				copy.put(new ActionStatePair(a, s), Double.valueOf(q));
+			}
+		});
+		published = copy;
+		publications++;
+	}
+
+	public long getPublications() {
+		return publications;
+	}
+
+	/** Read Q(s,a) in the last copy published. */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		Double q = published.get(new ActionStatePair(a, s));
+		return (q == null) ? this.valueChooser.getValue() : q.doubleValue();
+	}
+
+	/** The copy is only changed by {@link #publish()}. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		throw new UnsupportedOperationException(
+				"read-only copy : write in the source, then publish()");
+	}
+
+	public int size() {
+		return published.size();
+	}
+
+	public void visit(IPairVisitor v) {
+		for (Map.Entry<ActionStatePair, Double> e : published.entrySet())
+			v.visit(e.getKey().getState(), e.getKey().getAction(), e
+					.getValue().doubleValue());
+	}
+
+	public String toString() {
+		return published.size() + " state/action pairs (copy " + publications
+				+ " of " + source + ")";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+}
@@ -0,0 +1,226 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    QSnapshot.java
+ *
+ */
+package qlearning;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Compact binary snapshot of a Q(s,a) memory : the pairs are written by an
+ * {@link IPairCodec}, packed with their values, behind a hash index, so that
+ * a snapshot can be mapped in memory and read as it is (see
+ * {@link SnapshotRewardStore}). Neither the environment nor the agent is
+ * written ; the selectors add their parameters (see
+ * {@link algorithms.AbstractMemorySelector#saveSnapshot(File, IPairCodec, boolean)}).
+ * <p>
+ * Format (version 1, big endian) :
+ * <ul>
+ * <li>header : magic number "PQLS", version, flags (1 : body compressed with
+ * deflate), length and bytes of the parameters, length of the body once
+ * inflated ;</li>
+ * <li>body : number of pairs n, number of slots m (a power of two), m slots
+ * (hash of the key, 1 + offset of the record, 0 for an empty slot, linear
+ * probing), then the n records : length of the key, key, value.</li>
+ * </ul>
+ * The body is limited to 2 GB.
+ */
+public final class QSnapshot {
+
+	/** "PQLS" */
+	public static final int MAGIC = 0x50514C53;
+
+	public static final int VERSION = 1;
+
+	/** The body is compressed */
+	public static final int COMPRESSED = 1;
+
+	private QSnapshot() {
+	}
+
+	/**
+	 * Write a snapshot of a memory.
+	 * 
+	 * @param parameters bytes kept with the pairs (may be empty).
+	 * @param compress compress the body : the file is smaller, but it must be
+	 *            inflated into the heap to be read.
+	 */
+	public static void write(File f, IEnumerableRewardStore store,
+			IPairCodec codec, byte parameters[], boolean compress)
+			throws IOException {
+		final PairEncoder key = new PairEncoder(codec);
+		final int n = store.size();
+		final int hashes[] = new int[n];
+		final int offsets[] = new int[n];
+		final ByteBuffer records[] = { ByteBuffer.allocate(Math.max(1024,
+				16 * n)) };
+		final int count[] = { 0 };
+		try {
+			store.visit(new IPairVisitor() {
+				public void visit(IState s, IAction a, double q) {
+					try {
+						key.encode(s, a);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					ByteBuffer r = records[0];
+					int size = 12 + key.size();
+					if (r.remaining() < size) {
+						long grown = Math.max(2L * r.capacity(), r.position()
+								+ size);
+						if (grown > Integer.MAX_VALUE)
+							throw new UncheckedIOException(new IOException(
+									"snapshot larger than 2 GB"));
+						ByteBuffer b = ByteBuffer.allocate((int) grown);
+						r.flip();
+						b.put(r);
+						records[0] = r = b;
+					}
+					int i = count[0]++;
+					hashes[i] = key.hash();
+					offsets[i] = r.position();
+					r.putInt(key.size()).put(key.bytes(), 0, key.size())
+							.putDouble(q);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		if (count[0] != n)
+			throw new IOException("the memory changed while it was written");
+		// load factor at most 3/4
+		int slots = Integer.highestOneBit((int) Math.max(n + n / 3L, 2) - 1) * 2;
+		int table[] = new int[2 * slots];
+		int mask = slots - 1;
+		for (int i = 0; i < n; i++) {
+			int j = hashes[i] & mask;
+			while (table[2 * j + 1] != 0)
+				j = (j + 1) & mask;
+			table[2 * j] = hashes[i];
+			table[2 * j + 1] = offsets[i] + 1;
+		}
+		long bodyLength = 8L + 8L * slots + records[0].position();
+		if (bodyLength > Integer.MAX_VALUE)
+			throw new IOException("snapshot larger than 2 GB");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(f), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(compress ? COMPRESSED : 0);
+			out.writeInt(parameters.length);
+			out.write(parameters);
+			out.writeLong(bodyLength);
+			out.flush();
+			Deflater deflater = null;
+			DeflaterOutputStream deflated = null;
+			DataOutputStream body = out;
+			if (compress) {
+				deflater = new Deflater(Deflater.BEST_SPEED);
+				deflated = new DeflaterOutputStream(out, deflater, 1 << 16);
+				body = new DataOutputStream(deflated);
+			}
+			body.writeInt(n);
+			body.writeInt(slots);
+			ByteBuffer t = ByteBuffer.allocate(8 * Math.min(slots, 1 << 13));
+			for (int j = 0; j < 2 * slots; j += 2) {
+				t.putInt(table[j]).putInt(table[j + 1]);
+				if (!t.hasRemaining()) {
+					body.write(t.array(), 0, t.position());
+					t.clear();
+				}
+			}
+			body.write(t.array(), 0, t.position());
+			body.write(records[0].array(), 0, records[0].position());
+			if (compress) {
+				deflated.finish();
+				deflater.end();
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Open a snapshot : an uncompressed body is mapped in memory, and not
+	 * read until the pairs are looked up ; a compressed body is inflated into
+	 * the heap.
+	 */
+	public static SnapshotRewardStore open(File f, IPairCodec codec)
+			throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(f, "r");
+		try {
+			if (raf.readInt() != MAGIC)
+				throw new IOException(f + " is not a Q(s,a) snapshot");
+			int version = raf.readInt();
+			if (version != VERSION)
+				throw new IOException(f + " : unknown snapshot version "
+						+ version);
+			int flags = raf.readInt();
+			byte parameters[] = new byte[raf.readInt()];
+			raf.readFully(parameters);
+			long bodyLength = raf.readLong();
+			ByteBuffer body;
+			if ((flags & COMPRESSED) == 0)
+				body = raf.getChannel().map(FileChannel.MapMode.READ_ONLY,
+						raf.getFilePointer(), bodyLength);
+			else {
+				// the channel reads from the end of the header
+				FileChannel channel = raf.getChannel();
+				channel.position(raf.getFilePointer());
+				Inflater inflater = new Inflater();
+				InputStream in = new InflaterInputStream(Channels
+						.newInputStream(channel), inflater, 1 << 16);
+				try {
+					byte b[] = new byte[(int) bodyLength];
+					new DataInputStream(in).readFully(b);
+					body = ByteBuffer.wrap(b);
+				} finally {
+					try {
+						in.close();
+					} finally {
+						inflater.end();
+					}
+				}
+			}
+			return new SnapshotRewardStore(body, codec, parameters);
+		} finally {
+			raf.close();
+		}
+	}
+
+}
@@ -0,0 +1,302 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    QTableExporter.java
+ *
+ */
+package qlearning;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Writes the content of a Q(s,a) memory as it is visited, in one pass, and
+ * the greedy policy : the best action of each state and its value. Nothing is
+ * built but one entry per state (the best action, or the k best ones). <br>
+ * Two formats :
+ * <ul>
+ * <li>CSV, to a <code>Writer</code> : a header line
+ * <code>kind,state,action,q</code>, one line per pair (kind
+ * <code>pair</code>), then one line per state (kind <code>greedy</code>).
+ * States and actions are written by their <code>toString()</code>, quoted when
+ * needed.</li>
+ * <li>binary, to an <code>OutputStream</code> : magic number "PQLD", version,
+ * then records (kind : 1 pair, 2 greedy ; length of the key ; key written by
+ * an {@link IPairCodec} ; value), and a kind 0 at the end.</li>
+ * </ul>
+ * A filter may choose the pairs written ; with top-k, only the k best pairs
+ * of each state are written, once all the pairs are known.
+ * <p>
+ * Typical use :
+ * 
+ * <pre>
+ * new QTableExporter(writer).export(memory);
+ * </pre>
+ * 
+ * For a memory which is not an {@link IEnumerableRewardStore}, give the pairs
+ * to {@link #visit(IState, IAction, double)}, then call {@link #finish()}.
+ */
+public class QTableExporter implements IPairVisitor {
+
+	/** "PQLD" */
+	public static final int MAGIC = 0x50514C44;
+
+	public static final int VERSION = 1;
+
+	private static final byte PAIR = 1, GREEDY = 2, END = 0;
+
+	private Writer text;
+
+	private DataOutputStream binary;
+
+	private PairEncoder key;
+
+	private IPairFilter filter;
+
+	private int topK = 0;
+
+	private boolean policy = true;
+
+	/** Best action(s) of each state */
+	private HashMap<IState, Best> best = new HashMap<IState, Best>();
+
+	private long written = 0;
+
+	/** Header written */
+	private boolean header = false;
+
+	/** CSV to a Writer */
+	public QTableExporter(Writer out) {
+		this.text = out;
+	}
+
+	/** Binary to a stream */
+	public QTableExporter(OutputStream out, IPairCodec codec) {
+		this.binary = new DataOutputStream(new BufferedOutputStream(out,
+				1 << 16));
+		this.key = new PairEncoder(codec);
+	}
+
+	/** Write only the pairs accepted by f (null : all). */
+	public void setFilter(IPairFilter f) {
+		this.filter = f;
+	}
+
+	/** Write only the k best pairs of each state (0 : all). */
+	public void setTopK(int k) {
+		this.topK = Math.max(k, 0);
+	}
+
+	/** Write the greedy policy after the pairs (default true). */
+	public void setPolicy(boolean p) {
+		this.policy = p;
+	}
+
+	/** Number of pairs written so far. */
+	public long getPairsWritten() {
+		return written;
+	}
+
+	/** Number of states met so far. */
+	public int getNbStates() {
+		return best.size();
+	}
+
+	/** Write the whole memory. */
+	public void export(IEnumerableRewardStore memory) throws IOException {
+		try {
+			memory.visit(this);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		finish();
+	}
+
+	/** One pair of the memory : written now, unless top-k is set. */
+	public void visit(IState s, IAction a, double q) {
+		if ((filter != null) && !filter.accept(s, a, q))
+			return;
+		if ((topK > 0) || policy) {
+			Best b = best.get(s);
+			if (b == null) {
+				b = new Best(Math.max(topK, 1));
+				best.put(s, b);
+			}
+			b.offer(a, q);
+		}
+		if (topK == 0)
+			try {
+				write(PAIR, s, a, q);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+	}
+
+	/** Write the top-k pairs and the policy, then flush. */
+	public void finish() throws IOException {
+		if (topK > 0)
+			for (Map.Entry<IState, Best> e : best.entrySet()) {
+				Best b = e.getValue();
+				b.sort();
+				for (int i = 0; i < b.size; i++)
+					write(PAIR, e.getKey(), b.actions[i], b.values[i]);
+			}
+		if (policy)
+			for (Map.Entry<IState, Best> e : best.entrySet()) {
+				Best b = e.getValue();
+				int i = b.best();
+				write(GREEDY, e.getKey(), b.actions[i], b.values[i]);
+			}
+		header();
+		if (binary != null) {
+			binary.writeByte(END);
+			binary.flush();
+		} else
+			text.flush();
+	}
+
+	private void write(byte kind, IState s, IAction a, double q)
+			throws IOException {
+		if (kind == PAIR)
+			written++;
+		header();
+		if (binary != null) {
+			writeBinary(kind, s, a, q);
+			return;
+		}
+		text.write(kind == PAIR ? "pair," : "greedy,");
+		field(s.toString());
+		text.write(',');
+		field(a.toString());
+		text.write(',');
+		text.write(Double.toString(q));
+		text.write('\n');
+	}
+
+	private void writeBinary(byte kind, IState s, IAction a, double q)
+			throws IOException {
+		key.encode(s, a);
+		binary.writeByte(kind);
+		binary.writeInt(key.size());
+		binary.write(key.bytes(), 0, key.size());
+		binary.writeDouble(q);
+	}
+
+	private void header() throws IOException {
+		if (header)
+			return;
+		header = true;
+		if (binary != null) {
+			binary.writeInt(MAGIC);
+			binary.writeInt(VERSION);
+		} else
+			text.write("kind,state,action,q\n");
+	}
+
+	/** A CSV field, quoted if it holds a comma, a quote or a new line. */
+	private void field(String f) throws IOException {
+		boolean quote = false;
+		for (int i = 0; i < f.length() && !quote; i++) {
+			char c = f.charAt(i);
+			quote = (c == ',') || (c == '"') || (c == '\n') || (c == '\r');
+		}
+		if (!quote) {
+			text.write(f);
+			return;
+		}
+		text.write('"');
+		text.write(f.replace("\"", "\"\""));
+		text.write('"');
+	}
+
+	/** The k best actions of a state : a min-heap on the values. */
+	private static final class Best {
+
+		IAction actions[];
+
+		double values[];
+
+		int size = 0;
+
+		Best(int k) {
+			actions = new IAction[k];
+			values = new double[k];
+		}
+
+		void offer(IAction a, double q) {
+			if (size < actions.length) {
+				int i = size++;
+				while (i > 0 && values[(i - 1) / 2] > q) {
+					actions[i] = actions[(i - 1) / 2];
+					values[i] = values[(i - 1) / 2];
+					i = (i - 1) / 2;
+				}
+				actions[i] = a;
+				values[i] = q;
+			} else if (q > values[0]) {
+				int i = 0;
+				while (true) {
+					int c = 2 * i + 1;
+					if (c >= size)
+						break;
+					if (c + 1 < size && values[c + 1] < values[c])
+						c++;
+					if (values[c] >= q)
+						break;
+					actions[i] = actions[c];
+					values[i] = values[c];
+					i = c;
+				}
+				actions[i] = a;
+				values[i] = q;
+			}
+		}
+
+		/** Index of the best action */
+		int best() {
+			int b = 0;
+			for (int i = 1; i < size; i++)
+				if (values[i] > values[b])
+					b = i;
+			return b;
+		}
+
+		/** Best actions first */
+		void sort() {
+			for (int i = 1; i < size; i++) {
+				IAction a = actions[i];
+				double q = values[i];
+				int j = i;
+				for (; j > 0 && values[j - 1] < q; j--) {
+					actions[j] = actions[j - 1];
+					values[j] = values[j - 1];
+				}
+				actions[j] = a;
+				values[j] = q;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    QuantizedRewardStore.java
+ *
+ */
+package qlearning;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+import environment.StateQuantizer;
+
+/**
+ * A memory for continuous problems : the states are replaced by the cell of
+ * the {@link StateQuantizer} grid containing them before reaching the
+ * underlying store. All the states of a cell share the same Q(s,a) values,
+ * and the memory holds at most one value per (cell, action).
+ * <p>
+ * Any selector can use it, as in :
+ *
+ * <pre>
+ * new QLearningSelector(new QuantizedRewardStore(new RewardMemorizer(), quantizer))
+ * </pre>
+ *
+ * Note that eligibility traces are kept by the selectors with the original
+ * states : for Q(lambda), quantize the states with a {@link environment.Filter}
+ * instead.
+ */
+public class QuantizedRewardStore implements IRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	private IRewardStore store;
+
+	private StateQuantizer quantizer;
+
+	public QuantizedRewardStore(IRewardStore store, StateQuantizer quantizer) {
+		this.store = store;
+		this.quantizer = quantizer;
+	}
+
+	public StateQuantizer getQuantizer() {
+		return quantizer;
+	}
+
+	public IRewardStore getStore() {
+		return store;
+	}
+
+	public double get(IState s, IAction a) {
+		if (s == null)
+			return store.get(s, a);
+		return store.get(quantizer.quantize(s), a);
+	}
+
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		store.put(quantizer.quantize(s), a, sp == null ? null : quantizer
+				.quantize(sp), qsa);
+	}
+
+	public Dataset extractDataset() {
+		return store.extractDataset();
+	}
+
+	public String toString() {
+		return quantizer.getNbCells() + " cells : " + store;
+	}
+
+}
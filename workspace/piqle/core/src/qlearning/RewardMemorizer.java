@@ -21,13 +21,18 @@ package qlearning;
  *
  */
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Random;
-import java.util.Set;
+import java.util.logging.Logger;
+
+import util.RandomSource;
+import statistics.QValueStatistics;
 
 import dataset.Dataset;
-import dataset.Sample;
 import environment.IAction;
 import environment.IState;
 import qlearning.NullValueChooser;
@@ -38,15 +43,17 @@ import qlearning.IDefaultValueChooser;
 
 /** Memorizing  Q(s,a) in HashMap. The key is the pair (state, value). */
 
-public class RewardMemorizer implements IRewardStore{
+public class RewardMemorizer implements IEnumerableRewardStore,IVisitCounter{
 	/**
 	 * 
 	 */
 	
 	private static final long serialVersionUID = 1L;
-	private HashMap<ActionStatePair, Double> map = new HashMap<ActionStatePair, Double>();
+	private HashMap<ActionStatePair, Value> map = new HashMap<ActionStatePair, Value>();
+    /** Key used to look pairs up (see probe()) */
+    private transient ActionStatePair probe; 
     @SuppressWarnings("unused")
-	private Random generateur=new Random(); 
+	private Random generateur=RandomSource.newGenerator(); 
     /** Number of items stored */
     private int numberOfItems=0; 
     private int histogram[]=new int[1000]; 
@@ -54,6 +61,15 @@ public class RewardMemorizer implements IRewardStore{
     @SuppressWarnings("unused")
 	private int order; 
     private IDefaultValueChooser valueChooser; 
+    /** Number of items at which the hash codes are checked next */
+    private int nextCheck=1024; 
+    /** Maximal acceptable collision rate (see getCollisionRate()) */
+    private double maxCollisionRate=0.5; 
+    private boolean collisionWarned=false; 
+    /** Where the collision warning goes */
+    private static final Logger log=Logger.getLogger(RewardMemorizer.class.getName()); 
+    /** Statistics of the values, if kept */
+    private QValueStatistics statistics; 
 
     public RewardMemorizer(){
     	this.valueChooser=new NullValueChooser();
@@ -70,76 +86,150 @@ public class RewardMemorizer implements IRewardStore{
     /** Read Q(s,a) */
     public double get(IState s,IAction a){
 	if((a==null)||(s==null)) return 0; 
-	//DEBUG
-	//System.out.println(s.getClass()+" "+a.getClass());
-	ActionStatePair us=new ActionStatePair(a,s); 
-	Double db=(Double)(map.get(us));
+	Value db=map.get(probe(a,s)); 
 	if (db==null){
-	    numberOfItems++; 
-	    /*
-	    if(numberOfItems%1000==0){
-	    		System.out.println("\t\t\t"+order+"--->"+numberOfItems);
-	    }
-	    */
+	    newItem(); 
 	    double u=this.valueChooser.getValue(); 
-	     map.put(new ActionStatePair(a,s),new Double(u)); 
+	    map.put(ActionStatePair.retain(a,s),new Value(u)); 
+	    if(statistics!=null) statistics.add(u); 
 	    return u;
 	}
-	return db.doubleValue(); 
+	return db.q; 
+    }
+
+    /** Count a visit of (s,a) in its cell ; an unknown pair gets its 
+	default value, as in get(). */
+    public int addVisit(IState s,IAction a){
+	Value db=map.get(probe(a,s)); 
+	if(db==null){
+	    newItem(); 
+	    db=new Value(this.valueChooser.getValue()); 
+	    map.put(ActionStatePair.retain(a,s),db); 
+	    if(statistics!=null) statistics.add(db.q); 
+	}
+	return ++db.visits; 
+    }
+
+    public int getVisits(IState s,IAction a){
+	Value db=map.get(probe(a,s)); 
+	return db==null?0:db.visits; 
+    }
+
+    /** The lookup key, reused from call to call : only the pairs really 
+	stored are allocated. */
+    private ActionStatePair probe(IAction a,IState s){
+	if(probe==null) probe=new ActionStatePair(a,s); 
+	else probe.reset(a,s); 
+	return probe; 
     }
 
      
+    /** Count a new pair ; each time the memory doubles, check that the
+	hash codes of states and actions spread the pairs correctly. */
+    private void newItem(){
+	numberOfItems++; 
+	if(numberOfItems>=nextCheck){
+	    nextCheck*=2; 
+	    double rate=getCollisionRate(); 
+	    if((rate>maxCollisionRate)&&!collisionWarned){
+		collisionWarned=true; 
+		ActionStatePair some=map.keySet().iterator().next(); 
+		log.warning((int)(100*rate)+"% of "+map.size()
+			    +" state/action pairs share their hash code : check hashCode() in "
+			    +some.getState().getClass().getName()+" and "
+			    +some.getAction().getClass().getName()); 
+	    }
+	}
+    }
+
+    /** Fraction of the stored pairs whose hash code is also the code of
+	another pair : close to 0 with good hash codes, close to 1 when the
+	memory degenerates into a few long chains. Takes a time proportional 
+	to the size of the memory. */
+    public double getCollisionRate(){
+	if(map.isEmpty()) return 0; 
+	HashMap<Integer,int[]> codes=new HashMap<Integer,int[]>(); 
+	Iterator<ActionStatePair> enu=map.keySet().iterator(); 
+	while(enu.hasNext()){
+	    Integer h=Integer.valueOf(enu.next().hashCode()); 
+	    int n[]=codes.get(h); 
+	    if(n==null) codes.put(h,new int[]{1}); 
+	    else n[0]++; 
+	}
+	int shared=0; 
+	Iterator<int[]> counts=codes.values().iterator(); 
+	while(counts.hasNext()){
+	    int n=counts.next()[0]; 
+	    if(n>1) shared+=n; 
+	}
+	return shared/(double)map.size(); 
+    }
+
+    /** Collision rate above which a warning is logged (default 0.5). */
+    public void setMaxCollisionRate(double r){
+	this.maxCollisionRate=r; 
+    }
+
+    /** Number of (state,action) pairs stored so far. */
+    public int size(){
+	return map.size(); 
+    }
+
+    public void visit(IPairVisitor v){
+	Iterator<java.util.Map.Entry<ActionStatePair,Value>> enu=map.entrySet().iterator(); 
+	while(enu.hasNext()){
+	    java.util.Map.Entry<ActionStatePair,Value> e=enu.next(); 
+	    v.visit(e.getKey().getState(),e.getKey().getAction(),e.getValue().q); 
+	}
+    }
+
     /** Store Q(s,a) : change its value if already there.
      */
     public void put(IState s,IAction a,IState sp,double qsa){
-	if(sp!=null){
-	    if(map.put(new ActionStatePair(a,s),new Double(qsa))==null)
-		{ 
-		    numberOfItems++;
-		}
-	    
-	    }
-	    else {
-	    this.map.put(new ActionStatePair(a,s), new Double(qsa));	    
-	    }
+	Value db=map.get(probe(a,s)); 
+	if(db!=null){
+	    if(statistics!=null) statistics.replace(db.q,qsa); 
+	    db.q=qsa; 
+	    return; 
+	}
+	map.put(ActionStatePair.retain(a,s),new Value(qsa)); 
+	if(statistics!=null) statistics.add(qsa); 
+	if(sp!=null) newItem();
     }
 
    
 
-    /** To monitor the evolution of Q(s,a) values.
+    /** To monitor the evolution of Q(s,a) values : 1000 bins between the 
+	smallest and the largest value. Walks the memory ; statistics kept 
+	up to date at each change are given by setStatistics(). 
      */
     public void makeHistogram(){ 
-	Set keys=map.keySet(); 
-	Iterator enu=keys.iterator(); 
-	double min=10000.0; 
-	double max=-10000.0; 
-	double sum=0.0;
-	int number=0; 
-	while(enu.hasNext()){
-	    ActionStatePair courante=(ActionStatePair)enu.next(); 
-	   //Double db=(Double)this.get(courante.getState(),courante.getAction());
-	    Double db=new Double (this.get(courante.getState(),courante.getAction()));
-	    double d=db.doubleValue(); 
-	    if(d>max) max=d; 
-	    if(d<min) min=d; 
-	    //sum+=db; 
-	    sum += d;
-	    number++; 
+	histogram=new int[1000]; 
+	double min=Double.POSITIVE_INFINITY; 
+	double max=Double.NEGATIVE_INFINITY; 
+	for(Value v : map.values()){
+	    if(v.q>max) max=v.q; 
+	    if(v.q<min) min=v.q; 
 	}
-	double mean=sum/number; 
-	double ecartType=0.0; 
-       enu=keys.iterator(); 
-	while(enu.hasNext()){ 
-	    ActionStatePair courante=(ActionStatePair)enu.next(); 
-	    //Double db=(Double)this.get(courante.getState(),courante.getAction());
-	    Double db=new Double(this.get(courante.getState(),courante.getAction()));
-	    double d=db.doubleValue(); 
-	    ecartType+=(d-mean)*(d-mean); 
- 	    histogram[(int)Math.floor(999*(d-min)/(max-min))]++; 
-	}
-	
+	for(Value v : map.values())
+	    histogram[max>min?(int)Math.floor(999*(v.q-min)/(max-min)):0]++; 
     }// makeHistogram
 
+    /** Keep statistics of the values stored, updated at each change 
+	(null : none, the default). The values already stored are counted. */
+    public void setStatistics(QValueStatistics st){
+	this.statistics=st; 
+	if(st!=null){
+	    st.clear(); 
+	    for(Value v : map.values()) st.add(v.q); 
+	}
+    }
+
+    /** The statistics of the values stored, null if they are not kept. */
+    public QValueStatistics getStatistics(){
+	return statistics; 
+    }
+
    public void displayHistogram(){
 	for(int i=0;i<1000;i++)
 	    System.out.println(i+" "+histogram[i]); 
@@ -147,59 +237,72 @@ public class RewardMemorizer implements IRewardStore{
 	  
 
     
-	@SuppressWarnings("unchecked")
-	public String toString(){
-	HashMap<IState,IAction> prov=new HashMap<IState,IAction>(); 
-	HashMap local=new HashMap(map); 
-	Set keys=local.keySet(); 
-	String s=keys.size()+" state/action pairs \nListing of ALL  Q(s,a)\n";  
-	Iterator enu=keys.iterator(); 
-	ActionStatePair courante=null; 
+    /** Listing of all the pairs, then of the best action of each state : 
+	one pass over the memory. For large memories, prefer streaming them 
+	with a QTableExporter. */
+    public String toString(){
+	StringBuilder s=new StringBuilder(); 
+	s.append(map.size()).append(" state/action pairs \nListing of ALL  Q(s,a)\n");  
+	HashMap<IState,ActionStatePair> prov=new HashMap<IState,ActionStatePair>(); 
+	HashMap<IState,Value> provValue=new HashMap<IState,Value>(); 
+	Iterator<java.util.Map.Entry<ActionStatePair,Value>> enu=map.entrySet().iterator(); 
 	while(enu.hasNext()){
-	    courante=(ActionStatePair)enu.next(); 
-	    s+=courante.getState()+" "+courante.getAction()+" "+this.get(courante.getState(),courante.getAction())+"\n";
-	    IAction bestAct=(IAction)(prov.get(courante.getState())); 
-	    if(bestAct==null) prov.put(courante.getState(),courante.getAction()); 
-	    else{
-		if(this.get(courante.getState(),courante.getAction())>
-		   this.get(courante.getState(),bestAct))
-		    prov.put(courante.getState(),courante.getAction());
+	    java.util.Map.Entry<ActionStatePair,Value> e=enu.next(); 
+	    ActionStatePair courante=e.getKey(); 
+	    s.append(courante.getState()).append(' ').append(courante.getAction())
+		.append(' ').append(e.getValue().q).append('\n'); 
+	    Value bestValue=provValue.get(courante.getState()); 
+	    if((bestValue==null)||(e.getValue().q>bestValue.q)){
+		prov.put(courante.getState(),courante); 
+		provValue.put(courante.getState(),e.getValue()); 
 	    }
-	
-	    
 	}
-	Set bk=prov.keySet(); 
-	Iterator ebis=bk.iterator();
-	s+="Best values Q(s,a) for given s and a\n"; 
+	s.append("Best values Q(s,a) for given s and a\n"); 
+	Iterator<ActionStatePair> ebis=prov.values().iterator();
 	while(ebis.hasNext()){
-	    IState s1=(IState)ebis.next(); 
-	    IAction best=(IAction)(prov.get(s1)); 
-	    s+=s1+"---->"+best+" : "+this.get(s1,best)+"\n"; 
+	    ActionStatePair best=ebis.next(); 
+	    s.append(best.getState()).append("---->").append(best.getAction())
+		.append(" : ").append(provValue.get(best.getState()).q).append('\n'); 
 	}
-	 return s;
+	return s.toString();
     } // toString
 
 
     /** Extracts dataset for use with local NN */ 
     public Dataset extractDataset(){
-	Dataset forNN=new Dataset(); 
-	Set keys=this.map.keySet(); 
-	Iterator enu=keys.iterator(); 
-	while(enu.hasNext()){
-	    ActionStatePair courante=(ActionStatePair)enu.next(); 
-	    IState etat=courante.getState(); 
-	    IAction act=courante.getAction();
-	    int prosize=act.nnCodingSize(); 
-	    double u[]=new double[etat.nnCodingSize()+prosize]; 
-	    System.arraycopy(etat.nnCoding(),0,u,0,etat.nnCodingSize()); 
-	    System.arraycopy(act.nnCoding(),0,u,etat.nnCodingSize(),prosize); 
-	    double v[]=new double[1]; 
-	    v[0]=(1.0+this.get(etat,act))/2.0;
-	    forNN.add(new Sample(u,v)); 
-	}
-	return forNN;    
+	return DatasetBuilder.extract(this); 
     }// extractDataset
 
     
-}
+    /** Memories saved before the values were kept in Value cells hold 
+	Doubles : they are converted, and the fields added since then get 
+	their default values. */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException,ClassNotFoundException{
+	in.defaultReadObject(); 
+	// the maps saved by the first versions hold Double values
+	@SuppressWarnings("unchecked")
+	HashMap<ActionStatePair,Object> read=(HashMap<ActionStatePair,Object>)(HashMap<?,?>)map; 
+	Iterator<java.util.Map.Entry<ActionStatePair,Object>> enu=read.entrySet().iterator(); 
+	while(enu.hasNext()){
+	    java.util.Map.Entry<ActionStatePair,Object> e=enu.next(); 
+	    if(e.getValue() instanceof Double)
+		e.setValue(new Value(((Double)e.getValue()).doubleValue())); 
+	}
+	if(nextCheck==0){
+	    nextCheck=1024; 
+	    while(nextCheck<=map.size()) nextCheck*=2; 
+	    maxCollisionRate=0.5; 
+	}
+    }
+
+    /** A stored Q(s,a), changed in place when the pair is updated, and 
+	the number of visits of the pair (see addVisit()). */
+    private static final class Value implements Serializable{
+	private static final long serialVersionUID = 1L;
+	double q; 
+	int visits; 
+	Value(double q){this.q=q;}
+    }
 
+}
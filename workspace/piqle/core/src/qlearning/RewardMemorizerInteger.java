@@ -25,9 +25,13 @@ package qlearning;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
+import util.RandomSource;
+import statistics.QValueStatistics;
+
 import environment.IAction;
 import environment.IState;
 
@@ -44,11 +48,14 @@ public class RewardMemorizerInteger extends HashMap<ActionStatePair,Integer>{
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	private Random generateur=new Random(); 
+	private Random generateur=RandomSource.newGenerator(); 
     private int histogramme[]=new int[1000]; 
     private int maxValue=0; 
 
     private int number=0; 
+
+    /** Statistics of the values, if kept */
+    private QValueStatistics statistics; 
   
    
 
@@ -59,7 +66,8 @@ public class RewardMemorizerInteger extends HashMap<ActionStatePair,Integer>{
 	if (db==null) {
 		// TODO : generalize the way to return a random value
 	    int u=generateur.nextInt(10);  
-	    this.put(new ActionStatePair(a,s),new Integer(u)); 
+	    this.put(ActionStatePair.retain(a,s),new Integer(u)); 
+	    if(statistics!=null) statistics.add(u); 
 	    if(u>maxValue) maxValue=u; 
 	    number++; 
 	    return u;
@@ -70,47 +78,51 @@ public class RewardMemorizerInteger extends HashMap<ActionStatePair,Integer>{
     
     /** Store Q(s,a)*/
     public void put(IState s,IAction a,IState sp,int qsa){
-	if(sp!=null){
-	    if(this.put(new ActionStatePair(a,s),new Integer(qsa))==null){
-		number++;
-	    }
+	Integer old=this.put(ActionStatePair.retain(a,s),new Integer(qsa)); 
+	if((sp!=null)&&(old==null)) number++;
+	if(statistics!=null){
+	    if(old==null) statistics.add(qsa); 
+	    else statistics.replace(old.intValue(),qsa); 
 	}
-	else this.put(new ActionStatePair(a,s),new Integer(qsa));
     }
 
  
 	  
 
-    /** Debug */
+    /** Debug : one pass over the memory */
     public String toString(){
-	HashMap<IState,IAction> prov=new HashMap<IState,IAction>(); 
-	String s=number+" couples Etat/action\nAffichage de tous les Q(s,a)\n"; 
-	Set keys=this.keySet(); 
-	Iterator enu=keys.iterator(); 
+	StringBuilder s=new StringBuilder(); 
+	s.append(number).append(" couples Etat/action\nAffichage de tous les Q(s,a)\n"); 
+	HashMap<IState,ActionStatePair> prov=new HashMap<IState,ActionStatePair>(); 
+	Iterator<Map.Entry<ActionStatePair,Integer>> enu=this.entrySet().iterator(); 
 	while(enu.hasNext()){
-	    ActionStatePair courante=(ActionStatePair)enu.next(); 
-	    s+=courante.getState()+" "+courante.getAction()+" "+this.get(courante.getState(),courante.getAction())+"\n";
-	    IAction bestAct=(IAction)(prov.get(courante.getState())); 
-	    if(bestAct==null) prov.put(courante.getState(),courante.getAction()); 
-	    else{
-		if(this.get(courante.getState(),courante.getAction())>
-		   this.get(courante.getState(),bestAct))
-		    prov.put(courante.getState(),courante.getAction());
-	    }
-	
-	    
+	    Map.Entry<ActionStatePair,Integer> e=enu.next(); 
+	    ActionStatePair courante=e.getKey(); 
+	    s.append(courante.getState()).append(' ').append(courante.getAction())
+		.append(' ').append(e.getValue().intValue()).append('\n'); 
+	    ActionStatePair bestAct=prov.get(courante.getState()); 
+	    if((bestAct==null)||(e.getValue().intValue()>super.get(bestAct).intValue()))
+		prov.put(courante.getState(),courante); 
 	}
-	Set bk=prov.keySet(); 
-	Iterator ebis=bk.iterator();
-	s+="Affichage des meilleurs actions selon l'etat\n"; 
+	s.append("Affichage des meilleurs actions selon l'etat\n"); 
+	Iterator<ActionStatePair> ebis=prov.values().iterator();
 	while(ebis.hasNext()){
-	    IState s1=(IState)ebis.next(); 
-	    IAction best=(IAction)(prov.get(s1)); 
-	    s+=s1+"---->"+best+" : "+this.get(s1,best)+"\n"; 
+	    ActionStatePair best=ebis.next(); 
+	    s.append(best.getState()).append("---->").append(best.getAction())
+		.append(" : ").append(super.get(best).intValue()).append('\n'); 
 	}
-	 return s;
+	return s.toString();
     } // toString
 
+    /** Give every pair and its value to v (see QTableExporter) */
+    public void visit(IPairVisitor v){
+	Iterator<Map.Entry<ActionStatePair,Integer>> enu=this.entrySet().iterator(); 
+	while(enu.hasNext()){
+	    Map.Entry<ActionStatePair,Integer> e=enu.next(); 
+	    v.visit(e.getKey().getState(),e.getKey().getAction(),e.getValue().intValue()); 
+	}
+    }
+
     /** qsa=qsa/factor */
     public void divide(int factor){
 	Set keys=this.keySet(); 
@@ -121,6 +133,7 @@ public class RewardMemorizerInteger extends HashMap<ActionStatePair,Integer>{
 	   
 	    this.put(courante,new Integer(value/factor)); 
 	}
+	recount(); 
     }
 
     private int getMaxValue(){
@@ -148,25 +161,36 @@ public class RewardMemorizerInteger extends HashMap<ActionStatePair,Integer>{
 	    super.put(courante,new Integer((int)rapport)); 
 	}
 	maxValue=1000; 
+	recount(); 
     }
 
+    /** 1000 bins between 0 and the largest value */
     public void makeHistogram(){
 	histogramme=new int[1000]; 
-	Set keys=this.keySet(); 
-	Iterator enu=keys.iterator(); 
 	maxValue=0; 
-	int count=0; 
-	while(enu.hasNext()){ 
-	    int value=((Integer)this.get(enu.next())).intValue(); 
-	    if(value>maxValue) maxValue=value; 
-	    System.out.println(count+" xx "+value); 
-	    count++; 
-	}
-	enu=keys.iterator(); 
-	while(enu.hasNext()){
-	    int value=((Integer)this.get(enu.next())).intValue(); 
-	    histogramme[(999*value)/maxValue]++; 
-	}
+	for(Integer v : this.values())
+	    if(v.intValue()>maxValue) maxValue=v.intValue(); 
+	for(Integer v : this.values())
+	    histogramme[maxValue>0?(999*v.intValue())/maxValue:0]++; 
+    }
+
+    /** Keep statistics of the values stored, updated at each change 
+	(null : none, the default). The values already stored are counted. */
+    public void setStatistics(QValueStatistics st){
+	this.statistics=st; 
+	recount(); 
+    }
+
+    /** The statistics of the values stored, null if they are not kept. */
+    public QValueStatistics getStatistics(){
+	return statistics; 
+    }
+
+    /** Count again all the values in the statistics */
+    private void recount(){
+	if(statistics==null) return; 
+	statistics.clear(); 
+	for(Integer v : this.values()) statistics.add(v.intValue()); 
     }
 
     public void displayHistogram(){
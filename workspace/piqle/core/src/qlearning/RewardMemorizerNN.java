@@ -22,6 +22,8 @@ package qlearning;
  */
 import java.util.Random;
 
+import util.RandomSource;
+
 import neuralnetwork.NeuralNetwork;
 import dataset.Dataset;
 import dataset.Sample;
@@ -60,7 +62,7 @@ public class RewardMemorizerNN implements IRewardStore{
     protected int newOnes=0;
     /** Each time incoming samples reach limit, the neural network is asked to learn.*/
     protected int limit=50; 
-    protected Random generateur=new Random(); 
+    protected Random generateur=RandomSource.newGenerator(); 
     protected IDefaultValueChooser valueChooser;
     
     public RewardMemorizerNN(){
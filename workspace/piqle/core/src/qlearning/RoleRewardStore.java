@@ -0,0 +1,172 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    RoleRewardStore.java
+ *
+ */
+package qlearning;
+
+import util.Hashing;
+import dataset.Dataset;
+import environment.IAction;
+import environment.IRetainableAction;
+import environment.IState;
+
+/**
+ * A view of a memory shared by several homogeneous agents, for the agents
+ * playing one given role. <br>
+ * Interchangeable agents (the muscles of an arm...) may all learn in the same
+ * {@link IRewardStore} : the store then takes the space of one agent instead
+ * of one per agent, and each agent benefits from the experience of all the
+ * others. When agents of different roles see states of the same shape but
+ * must not share their values (flexor and extensor muscles, for instance),
+ * each role gets its own view : the values are kept in the same store, keyed
+ * by (role, state, action).
+ * <p>
+ * Only the memory is shared : each agent keeps its own selector, hence its own
+ * learning rate, exploration and eligibility traces.
+ * <p>
+ * A view reuses one probe action, and the shared store is used as it is :
+ * when the agents learn in parallel (see agents.ParallelSwarm), each agent
+ * needs its own view, and the shared store must be a
+ * {@link ConcurrentRewardMemorizer}. An {@link OrdinalRewardMemorizer}
+ * cannot be shared by roles : a {@link RoleAction} is not ordinal.
+ *
+ * @see algorithms.AbstractMemorySelector#setMemory(IRewardStore)
+ */
+public class RoleRewardStore implements IRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	private IRewardStore shared;
+
+	private int role;
+
+	/** Key used to look pairs up, copied when the store keeps it */
+	private transient RoleAction probe;
+
+	public RoleRewardStore(IRewardStore shared, int role) {
+		this.shared = shared;
+		this.role = role;
+	}
+
+	public IRewardStore getSharedStore() {
+		return shared;
+	}
+
+	public int getRole() {
+		return role;
+	}
+
+	public double get(IState s, IAction a) {
+		if (a == null)
+			return shared.get(s, a);
+		return shared.get(s, probe(a));
+	}
+
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		shared.put(s, probe(a), sp, qsa);
+	}
+
+	/**
+	 * The action tagged with the role, reused from call to call : only the
+	 * pairs really stored are allocated (see {@link RoleAction#retain()}).
+	 */
+	private RoleAction probe(IAction a) {
+		if (probe == null)
+			probe = new RoleAction(role, a, true);
+		else
+			probe.action = a;
+		return probe;
+	}
+
+	/** The dataset of the whole shared store, all roles together. */
+	public Dataset extractDataset() {
+		return shared.extractDataset();
+	}
+
+	public String toString() {
+		return "role " + role + " of " + shared;
+	}
+
+	/** An action tagged with the role of the agent performing it. */
+	public static class RoleAction implements IRetainableAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int role;
+
+		private IAction action;
+
+		/** Reused by a RoleRewardStore : a memory must keep a copy */
+		private final transient boolean probe;
+
+		public RoleAction(int role, IAction action) {
+			this(role, action, false);
+		}
+
+		private RoleAction(int role, IAction action, boolean probe) {
+			this.role = role;
+			this.action = action;
+			this.probe = probe;
+		}
+
+		public int getRole() {
+			return role;
+		}
+
+		public IAction getAction() {
+			return action;
+		}
+
+		public Object copy() {
+			return new RoleAction(role, (IAction) action.copy());
+		}
+
+		/** The action a memory may keep : a new one for a probe. */
+		public IAction retain() {
+			return probe ? new RoleAction(role, action) : this;
+		}
+
+		/** The coding of the action, followed by the role. */
+		public int nnCodingSize() {
+			return action.nnCodingSize() + 1;
+		}
+
+		public double[] nnCoding() {
+			double code[] = new double[nnCodingSize()];
+			System.arraycopy(action.nnCoding(), 0, code, 0, code.length - 1);
+			code[code.length - 1] = role;
+			return code;
+		}
+
+		public int hashCode() {
+			return Hashing.hash(action.hashCode(), role);
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof RoleAction))
+				return false;
+			RoleAction ra = (RoleAction) o;
+			return (ra.role == role) && ra.action.equals(action);
+		}
+
+		public String toString() {
+			return role + ":" + action;
+		}
+	}
+
+}
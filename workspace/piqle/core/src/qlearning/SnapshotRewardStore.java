@@ -0,0 +1,168 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    SnapshotRewardStore.java
+ *
+ */
+package qlearning;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * A read-only Q(s,a) memory reading a snapshot as it is (see
+ * {@link QSnapshot#open(java.io.File, IPairCodec)}) : no object is built when
+ * it is opened, a lookup encodes the pair and probes the index of the
+ * snapshot. Meant to evaluate a learnt policy ; the pairs absent from the
+ * snapshot get their default value, which is not stored. <br>
+ * Lookups reuse one buffer : one thread at a time.
+ */
+public class SnapshotRewardStore implements IEnumerableRewardStore {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Body of the snapshot (see QSnapshot) */
+	private transient ByteBuffer body;
+
+	private IPairCodec codec;
+
+	private IDefaultValueChooser valueChooser = new NullValueChooser();
+
+	private byte parameters[];
+
+	private int count;
+
+	/** Number of slots of the index, minus one */
+	private int mask;
+
+	/** Position of the first record */
+	private int records;
+
+	private transient PairEncoder key;
+
+	SnapshotRewardStore(ByteBuffer body, IPairCodec codec, byte parameters[]) {
+		this.body = body;
+		this.codec = codec;
+		this.parameters = parameters;
+		this.count = body.getInt(0);
+		int slots = body.getInt(4);
+		this.mask = slots - 1;
+		this.records = 8 + 8 * slots;
+		this.key = new PairEncoder(codec);
+	}
+
+	/** Value of the pairs absent from the snapshot (0 by default). */
+	public void setDefaultValueChooser(IDefaultValueChooser vc) {
+		this.valueChooser = vc;
+	}
+
+	/** The bytes stored with the pairs (parameters of a selector...). */
+	public byte[] getParameters() {
+		return parameters.clone();
+	}
+
+	/** Read Q(s,a) */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		try {
+			key.encode(s, a);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		int h = key.hash();
+		int n = key.size();
+		byte k[] = key.bytes();
+		for (int j = h & mask;; j = (j + 1) & mask) {
+			int offset = body.getInt(12 + 8 * j);
+			if (offset == 0)
+				return this.valueChooser.getValue();
+			if (body.getInt(8 + 8 * j) != h)
+				continue;
+			int r = records + offset - 1;
+			if (body.getInt(r) != n)
+				continue;
+			int i = 0;
+			while ((i < n) && (body.get(r + 4 + i) == k[i]))
+				i++;
+			if (i == n)
+				return body.getDouble(r + 4 + n);
+		}
+	}
+
+	/** A snapshot cannot be changed. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		throw new UnsupportedOperationException("read-only snapshot");
+	}
+
+	public int size() {
+		return count;
+	}
+
+	/** Every record is decoded. */
+	public void visit(IPairVisitor v) {
+		int r = records;
+		byte k[] = new byte[64];
+		try {
+			for (int i = 0; i < count; i++) {
+				int n = body.getInt(r);
+				if (n > k.length)
+					k = new byte[2 * n];
+				for (int j = 0; j < n; j++)
+					k[j] = body.get(r + 4 + j);
+				ActionStatePair p = codec.read(new DataInputStream(
+						new ByteArrayInputStream(k, 0, n)));
+				v.visit(p.getState(), p.getAction(), body.getDouble(r + 4 + n));
+				r += 12 + n;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Copy every pair into another memory. */
+	public void copyTo(final IRewardStore target) {
+		visit(new IPairVisitor() {
+			public void visit(IState s, IAction a, double q) {
+				target.put(s, a, s, q);
+			}
+		});
+	}
+
+	/** The snapshot itself is the saved form of this memory. */
+	private void writeObject(java.io.ObjectOutputStream out)
+			throws IOException {
+		throw new java.io.NotSerializableException(
+				"a snapshot is saved with QSnapshot.write()");
+	}
+
+	public String toString() {
+		return count + " state/action pairs (read-only snapshot)";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+}
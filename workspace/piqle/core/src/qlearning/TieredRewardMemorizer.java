@@ -0,0 +1,364 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    TieredRewardMemorizer.java
+ *
+ */
+package qlearning;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dataset.Dataset;
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Memorizing Q(s,a) in two tiers, for tables larger than the heap : the
+ * pairs used recently stay in a map of bounded size (the hot tier), the
+ * others are spilled to an append-only log on disk (the cold tier). <br>
+ * When the hot tier is full, its least recently used pair moves to the log ;
+ * a pair of the log read or written again moves back to the hot tier. The
+ * log is compacted by a background thread. Besides the hot tier, the heap
+ * only holds an index of 12 bytes per pair of the log.
+ * <p>
+ * The pairs are written to the disk by an {@link IPairCodec}, which must
+ * tell different pairs apart. Like {@link RewardMemorizer}, this memory is
+ * meant for one agent at a time.
+ * <p>
+ * The log belongs to the memory, and the memory to the code which created
+ * (or read) it : selectors, agents and referees never close their memory.
+ * Call {@link #close()} to delete the log when the memory is no longer used ;
+ * the logs not closed are deleted when the virtual machine exits.
+ */
+public class TieredRewardMemorizer implements IEnumerableRewardStore,
+		Closeable {
+
+	private static final long serialVersionUID = 2L;
+
+	/** Default size of a segment of the log : 16 MB */
+	public static final long SEGMENT_SIZE = 1 << 24;
+
+	/** Maximal number of pairs in the hot tier */
+	private int capacity;
+
+	private IPairCodec codec;
+
+	private IDefaultValueChooser valueChooser;
+
+	/** Where the log directories are created (null : temporary files) */
+	private File parent;
+
+	private long segmentSize;
+
+	/** Hot tier, in access order */
+	private transient LinkedHashMap<ActionStatePair, Value> hot;
+
+	private transient ColdLog cold;
+
+	/** Directory of the log */
+	private transient File directory;
+
+	/** Deletes the log at exit if close() was not called */
+	private transient Thread cleaner;
+
+	/** Key used to look pairs up in the hot tier */
+	private transient ActionStatePair probe;
+
+	/** Binary key used to look pairs up in the cold tier */
+	private transient PairEncoder key;
+
+	private transient double value[];
+
+	private transient long demotions, promotions;
+
+	/**
+	 * @param capacity number of pairs kept in the heap.
+	 */
+	public TieredRewardMemorizer(IPairCodec codec, int capacity)
+			throws IOException {
+		this(codec, new NullValueChooser(), capacity, null, SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param capacity number of pairs kept in the heap.
+	 * @param parent directory where the log is written (null : the directory
+	 *            of temporary files).
+	 * @param segmentSize size of the files of the log, in bytes.
+	 */
+	public TieredRewardMemorizer(IPairCodec codec, IDefaultValueChooser vc,
+			int capacity, File parent, long segmentSize) throws IOException {
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity must be positive");
+		this.codec = codec;
+		this.valueChooser = vc;
+		this.capacity = capacity;
+		this.parent = parent;
+		this.segmentSize = segmentSize;
+		open();
+	}
+
+	private void open() throws IOException {
+		directory = (parent == null) ? Files.createTempDirectory("piqle-cold")
+				.toFile() : Files.createTempDirectory(parent.toPath(),
+				"piqle-cold").toFile();
+		cleaner = new Cleaner(directory);
+		Runtime.getRuntime().addShutdownHook(cleaner);
+		cold = new ColdLog(directory, segmentSize, 0.5);
+		key = new PairEncoder(codec);
+		value = new double[1];
+		hot = new LinkedHashMap<ActionStatePair, Value>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(
+					Map.Entry<ActionStatePair, Value> eldest) {
+				if (size() <= capacity)
+					return false;
+				demote(eldest.getKey(), eldest.getValue().q);
+				return true;
+			}
+		};
+	}
+
+	/** Read Q(s,a) : unknown pairs get their default value. */
+	public double get(IState s, IAction a) {
+		if ((a == null) || (s == null))
+			return 0;
+		Value v = hot.get(probe(a, s));
+		if (v != null)
+			return v.q;
+		double q = promote(s, a) ? value[0] : this.valueChooser.getValue();
+		hot.put(ActionStatePair.retain(a, s), new Value(q));
+		return q;
+	}
+
+	/** Store Q(s,a) : change its value if already there. */
+	public void put(IState s, IAction a, IState sp, double qsa) {
+		Value v = hot.get(probe(a, s));
+		if (v != null) {
+			v.q = qsa;
+			return;
+		}
+		promote(s, a);
+		hot.put(ActionStatePair.retain(a, s), new Value(qsa));
+	}
+
+	private ActionStatePair probe(IAction a, IState s) {
+		if (probe == null)
+			probe = new ActionStatePair(a, s);
+		else
+			probe.reset(a, s);
+		return probe;
+	}
+
+	/** Take (s,a) out of the log : false if it is not there. */
+	private boolean promote(IState s, IAction a) {
+		try {
+			key.encode(s, a);
+			if (!cold.take(key.bytes(), key.size(), key.hash(), value))
+				return false;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		promotions++;
+		return true;
+	}
+
+	/** Move a pair of the hot tier to the log. */
+	private void demote(ActionStatePair p, double q) {
+		try {
+			key.encode(p.getState(), p.getAction());
+			cold.append(key.bytes(), key.size(), key.hash(), q);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		demotions++;
+	}
+
+	/** Number of (state,action) pairs stored so far. */
+	public int size() {
+		return hot.size() + cold.size();
+	}
+
+	/** The pairs of the log are decoded one after the other. */
+	public void visit(final IPairVisitor v) {
+		for (Map.Entry<ActionStatePair, Value> e : hot.entrySet())
+			v.visit(e.getKey().getState(), e.getKey().getAction(),
+					e.getValue().q);
+		try {
+			cold.visit(new ColdLog.Visitor() {
+				public void visit(byte record[], int n, double q)
+						throws IOException {
+					ActionStatePair p = decode(record, n);
+					v.visit(p.getState(), p.getAction(), q);
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Number of pairs in the heap. */
+	public int getHotSize() {
+		return hot.size();
+	}
+
+	/** Number of pairs on disk. */
+	public int getColdSize() {
+		return cold.size();
+	}
+
+	/** Bytes used by the log, dead records included. */
+	public long getDiskSize() {
+		return cold.getDiskSize();
+	}
+
+	/** Bytes of the live records of the log. */
+	public long getLiveDiskSize() {
+		return cold.getLiveSize();
+	}
+
+	/** Number of segments of the log compacted so far. */
+	public int getCompactions() {
+		return cold.getCompactions();
+	}
+
+	/** Number of pairs moved from the heap to the log so far. */
+	public long getDemotions() {
+		return demotions;
+	}
+
+	/** Number of pairs moved from the log to the heap so far. */
+	public long getPromotions() {
+		return promotions;
+	}
+
+	/** Delete the log : the memory can no longer be used. */
+	public void close() throws IOException {
+		cold.close();
+		directory.delete();
+		try {
+			Runtime.getRuntime().removeShutdownHook(cleaner);
+		} catch (IllegalStateException e) {
+			// exiting : the cleaner runs anyway
+		}
+	}
+
+	public String toString() {
+		return size() + " state/action pairs, " + hot.size() + " in heap, "
+				+ cold.size() + " on disk (" + cold.getDiskSize() + " bytes, "
+				+ cold.getCompactions() + " compactions)";
+	}
+
+	/** Extracts dataset for use with local NN */
+	public Dataset extractDataset() {
+		return DatasetBuilder.extract(this);
+	}
+
+	private ActionStatePair decode(byte record[], int n) throws IOException {
+		return codec.read(new DataInputStream(new ByteArrayInputStream(record,
+				4, n)));
+	}
+
+	/**
+	 * All the pairs are written as their keys (see {@link IPairCodec}), the
+	 * pairs of the log straight from the disk : the log is never loaded into
+	 * the heap.
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size());
+		for (Map.Entry<ActionStatePair, Value> e : hot.entrySet()) {
+			key.encode(e.getKey().getState(), e.getKey().getAction());
+			writePair(out, key.bytes(), 0, key.size(), e.getValue().q);
+		}
+		cold.visit(new ColdLog.Visitor() {
+			public void visit(byte record[], int n, double q)
+					throws IOException {
+				writePair(out, record, 4, n, q);
+			}
+		});
+	}
+
+	private static void writePair(ObjectOutputStream out, byte b[], int off,
+			int n, double q) throws IOException {
+		out.writeInt(n);
+		out.write(b, off, n);
+		out.writeDouble(q);
+	}
+
+	/** The first pairs fill the hot tier, the others go to the log. */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		open();
+		int n = in.readInt();
+		byte b[] = new byte[64];
+		for (int i = 0; i < n; i++) {
+			int length = in.readInt();
+			if (length > b.length)
+				b = new byte[Math.max(length, 2 * b.length)];
+			in.readFully(b, 0, length);
+			double q = in.readDouble();
+			if (hot.size() < capacity)
+				hot.put(codec.read(new DataInputStream(new ByteArrayInputStream(
+						b, 0, length))), new Value(q));
+			else
+				cold.append(b, length, ColdLog.hash(b, 0, length), q);
+		}
+	}
+
+	/** Deletes a log directory : run at exit. */
+	private static final class Cleaner extends Thread {
+
+		private final File directory;
+
+		Cleaner(File directory) {
+			super("piqle-cold-cleaner");
+			this.directory = directory;
+		}
+
+		public void run() {
+			File files[] = directory.listFiles();
+			if (files != null)
+				for (int i = 0; i < files.length; i++)
+					files[i].delete();
+			directory.delete();
+		}
+	}
+
+	/** A stored Q(s,a), changed in place when the pair is updated. */
+	private static final class Value implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		double q;
+
+		Value(double q) {
+			this.q = q;
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    VisitCounts.java
+ *
+ */
+package qlearning;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+import environment.IAction;
+import environment.IState;
+
+/**
+ * Visit counters of the pairs, for the memories which cannot keep them
+ * next to the values.
+ */
+public class VisitCounts implements IVisitCounter, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private HashMap<ActionStatePair, int[]> map = new HashMap<ActionStatePair, int[]>();
+
+	/** Key used to look pairs up */
+	private transient ActionStatePair probe;
+
+	private ActionStatePair probe(IAction a, IState s) {
+		if (probe == null)
+			probe = new ActionStatePair(a, s);
+		else
+			probe.reset(a, s);
+		return probe;
+	}
+
+	public int addVisit(IState s, IAction a) {
+		int c[] = map.get(probe(a, s));
+		if (c == null) {
+			c = new int[1];
+			map.put(ActionStatePair.retain(a, s), c);
+		}
+		return ++c[0];
+	}
+
+	public int getVisits(IState s, IAction a) {
+		int c[] = map.get(probe(a, s));
+		return c == null ? 0 : c[0];
+	}
+
+	/** Number of pairs visited. */
+	public int size() {
+		return map.size();
+	}
+
+}
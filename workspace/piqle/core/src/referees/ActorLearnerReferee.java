@@ -0,0 +1,162 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ActorLearnerReferee.java
+ *
+ */
+package referees;
+
+import agents.Transition;
+import agents.TransitionQueue;
+import algorithms.IStrategyLearner;
+import qlearning.PublishedRewardStore;
+
+/**
+ * Decoupling simulation from learning : the actors ({@link agents.ActorAgent})
+ * play their episodes in their own threads and only push transitions into a
+ * {@link TransitionQueue}; one learner thread drains the queue by batches and
+ * calls <code>learn</code> on a single selector.
+ * <p>
+ * Actors choose their actions with selectors reading a
+ * {@link PublishedRewardStore} : a copy of the learner memory, published by
+ * the learner thread every few transitions (see
+ * {@link #setPolicy(PublishedRewardStore, int)}). The actors never read the
+ * memory being written, which may then be an ordinary
+ * {@link qlearning.RewardMemorizer} ; the policy they follow lags behind the
+ * learner. <br>
+ * Transitions of different actors are interleaved : this mode is meant for
+ * one-step algorithms (Q-Learning, Sarsa), not for algorithms keeping
+ * eligibility traces across steps.
+ */
+public class ActorLearnerReferee extends HogwildReferee {
+
+	private IStrategyLearner learner;
+
+	private TransitionQueue queue;
+
+	/** Maximal number of transitions learned in one batch */
+	private int batchSize = 64;
+
+	/** Set when all actors have stopped */
+	private volatile boolean actorsDone;
+
+	private volatile long learned;
+
+	private volatile long batches;
+
+	/** The copy of the learner memory read by the actors, if any */
+	private PublishedRewardStore policy;
+
+	/** Number of transitions learned between two publications */
+	private int publishInterval = 1000;
+
+	/**
+	 * @param learner the only selector which learns.
+	 * @param queue the queue shared by all the actors.
+	 */
+	public ActorLearnerReferee(IStrategyLearner learner, TransitionQueue queue) {
+		this.learner = learner;
+		this.queue = queue;
+	}
+
+	public void setBatchSize(int b) {
+		if (b > 0)
+			batchSize = b;
+	}
+
+	/**
+	 * The actors choose with <code>p</code>, which the learner thread
+	 * publishes when the run starts, every <code>interval</code> transitions
+	 * learned, and when the run ends.
+	 */
+	public void setPolicy(PublishedRewardStore p, int interval) {
+		this.policy = p;
+		if (interval > 0)
+			publishInterval = interval;
+	}
+
+	public PublishedRewardStore getPolicy() {
+		return policy;
+	}
+
+	/** Start the learner, then the actors ; wait until the queue is empty. */
+	public int run() throws InterruptedException {
+		actorsDone = false;
+		learned = 0;
+		batches = 0;
+		if (policy != null)
+			policy.publish();
+		Thread learnerThread = new Thread(new Runnable() {
+			public void run() {
+				learn();
+			}
+		}, "learner");
+		learnerThread.start();
+		int episodes;
+		try {
+			episodes = super.run();
+		} finally {
+			actorsDone = true;
+		}
+		learnerThread.join();
+		return episodes;
+	}
+
+	/** Loop of the learner thread. */
+	private void learn() {
+		Transition batch[] = new Transition[batchSize];
+		long published = 0;
+		while (true) {
+			int n = queue.drainTo(batch);
+			if (n == 0) {
+				if (actorsDone && queue.isEmpty()) {
+					if (policy != null)
+						policy.publish();
+					return;
+				}
+				Thread.yield();
+				continue;
+			}
+			for (int i = 0; i < n; i++) {
+				Transition t = batch[i];
+				learner.learn(t.getOldState(), t.getNewState(), t.getAction(),
+						t.getReward());
+				batch[i] = null;
+			}
+			learned += n;
+			batches++;
+			if ((policy != null) && (learned - published >= publishInterval)) {
+				policy.publish();
+				published = learned;
+			}
+		}
+	}
+
+	public TransitionQueue getQueue() {
+		return queue;
+	}
+
+	/** Number of transitions learned during the last run. */
+	public long getTransitionsLearned() {
+		return learned;
+	}
+
+	/** Mean number of transitions per learning batch. */
+	public double getMeanBatchSize() {
+		return batches == 0 ? 0.0 : learned / (batches + 0.0);
+	}
+
+}
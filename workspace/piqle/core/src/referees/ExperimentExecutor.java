@@ -0,0 +1,167 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ExperimentExecutor.java
+ *
+ */
+package referees;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import util.RandomSource;
+
+/**
+ * Runs many independent {@link IExperiment}s concurrently, each one in its own
+ * thread, with at most <code>maxConcurrent</code> of them running at the same
+ * time. <br>
+ * Threads come from a <code>ThreadFactory</code> : by default daemon platform
+ * threads, but on Java 21 one can give <code>Thread.ofVirtual().factory()</code>
+ * to run each experiment in a virtual thread.
+ * <p>
+ * Timeouts and cancellations are cooperative : the experiment stops at the
+ * end of the current episode (see {@link ExperimentResult#mustStop()}).
+ */
+public class ExperimentExecutor {
+
+	private ExecutorService pool;
+
+	/** Bounds the number of running experiments */
+	private Semaphore permits;
+
+	/** Time limit of each experiment in milliseconds, 0 for none */
+	private long timeout = 0;
+
+	private ArrayList<ExperimentResult> results = new ArrayList<ExperimentResult>();
+
+	private ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+
+	public ExperimentExecutor(int maxConcurrent) {
+		this(maxConcurrent, new ThreadFactory() {
+			private int number = 0;
+
+			public synchronized Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "experiment-" + (number++));
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	public ExperimentExecutor(int maxConcurrent, ThreadFactory factory) {
+		this.permits = new Semaphore(maxConcurrent);
+		this.pool = Executors.newCachedThreadPool(factory);
+	}
+
+	/** Time limit for each experiment submitted from now on. */
+	public void setTimeout(long milliseconds) {
+		this.timeout = milliseconds;
+	}
+
+	/**
+	 * Schedule an experiment : waits while <code>maxConcurrent</code>
+	 * experiments are already running. Its random generators are seeded from
+	 * the generator of the calling thread (see {@link RandomSource}).
+	 *
+	 * @return the result, filled while the experiment runs.
+	 * @throws InterruptedException
+	 */
+	public ExperimentResult submit(String name, IExperiment e)
+			throws InterruptedException {
+		return submit(name, e, RandomSource.newSeed());
+	}
+
+	/**
+	 * Schedule an experiment whose random generators, created in the running
+	 * thread by {@link RandomSource#newGenerator()}, derive from
+	 * <code>seed</code>.
+	 */
+	public ExperimentResult submit(String name, final IExperiment e,
+			final long seed) throws InterruptedException {
+		final ExperimentResult result = new ExperimentResult(name);
+		final long limit = timeout;
+		permits.acquire();
+		try {
+			Future<?> f = pool.submit(new Runnable() {
+				public void run() {
+					try {
+						if (result.getStatus() == ExperimentResult.Status.CANCELLED)
+							return;
+						RandomSource.setThreadSeed(seed);
+						result.start(limit);
+						Throwable error = null;
+						try {
+							e.run(result);
+						} catch (Throwable t) {
+							error = t;
+						}
+						result.finish(error);
+					} finally {
+						permits.release();
+					}
+				}
+			});
+			synchronized (this) {
+				results.add(result);
+				futures.add(f);
+			}
+		} catch (RuntimeException ex) {
+			permits.release();
+			throw ex;
+		}
+		return result;
+	}
+
+	/**
+	 * Wait for all the submitted experiments.
+	 *
+	 * @return their results, in submission order.
+	 * @throws InterruptedException
+	 */
+	public ArrayList<ExperimentResult> awaitAll() throws InterruptedException {
+		ArrayList<Future<?>> copy;
+		synchronized (this) {
+			copy = new ArrayList<Future<?>>(futures);
+		}
+		for (Future<?> f : copy) {
+			try {
+				f.get();
+			} catch (java.util.concurrent.CancellationException ce) {
+			} catch (java.util.concurrent.ExecutionException ee) {
+			}
+		}
+		return getResults();
+	}
+
+	/** Ask every pending or running experiment to stop. */
+	public synchronized void cancelAll() {
+		for (ExperimentResult r : results)
+			r.cancel();
+	}
+
+	public synchronized ArrayList<ExperimentResult> getResults() {
+		return new ArrayList<ExperimentResult>(results);
+	}
+
+	/** No more experiments : release the threads once the running ones end. */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
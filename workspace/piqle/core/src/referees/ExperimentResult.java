@@ -0,0 +1,170 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ExperimentResult.java
+ *
+ */
+package referees;
+
+/**
+ * What an {@link IExperiment} produced : status, number of episodes, rewards,
+ * lengths and winners. Episodes recorded before a timeout or a cancellation
+ * are kept.
+ */
+public class ExperimentResult {
+
+	public enum Status {
+		PENDING, RUNNING, COMPLETED, TIMED_OUT, CANCELLED, FAILED
+	}
+
+	private String name;
+
+	private volatile Status status = Status.PENDING;
+
+	/** Reward of each episode */
+	private double rewards[] = new double[16];
+
+	private int episodes = 0;
+
+	private double totalReward = 0.0;
+
+	private long totalLength = 0;
+
+	/** Number of episodes won (-1), tied (0), lost (1), see IEnvironment.whoWins */
+	private int wins = 0, ties = 0, losses = 0;
+
+	/** Time limit (System.currentTimeMillis()), 0 when none */
+	private long deadline = 0;
+
+	private volatile boolean cancelled = false;
+
+	private long startTime, endTime;
+
+	private Throwable error = null;
+
+	public ExperimentResult(String name) {
+		this.name = name;
+	}
+
+	/** Record one episode. */
+	public synchronized void addEpisode(double reward, int length, int winner) {
+		if (episodes == rewards.length) {
+			double bigger[] = new double[2 * rewards.length];
+			System.arraycopy(rewards, 0, bigger, 0, episodes);
+			rewards = bigger;
+		}
+		rewards[episodes++] = reward;
+		totalReward += reward;
+		totalLength += length;
+		if (winner < 0)
+			wins++;
+		else if (winner == 0)
+			ties++;
+		else
+			losses++;
+	}
+
+	/** True when the experiment should stop : cancelled, interrupted or out of time. */
+	public boolean mustStop() {
+		if (cancelled || Thread.currentThread().isInterrupted())
+			return true;
+		return (deadline != 0) && (System.currentTimeMillis() > deadline);
+	}
+
+	void start(long timeout) {
+		startTime = System.currentTimeMillis();
+		deadline = (timeout > 0) ? startTime + timeout : 0;
+		status = Status.RUNNING;
+	}
+
+	void finish(Throwable t) {
+		endTime = System.currentTimeMillis();
+		error = t;
+		if (t != null)
+			status = Status.FAILED;
+		else if (cancelled || Thread.currentThread().isInterrupted())
+			status = Status.CANCELLED;
+		else if ((deadline != 0) && (endTime > deadline))
+			status = Status.TIMED_OUT;
+		else
+			status = Status.COMPLETED;
+	}
+
+	void cancel() {
+		cancelled = true;
+		if (status == Status.PENDING)
+			status = Status.CANCELLED;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public synchronized int getEpisodes() {
+		return episodes;
+	}
+
+	public synchronized double getTotalReward() {
+		return totalReward;
+	}
+
+	public synchronized double getMeanReward() {
+		return episodes == 0 ? 0.0 : totalReward / episodes;
+	}
+
+	public synchronized double getMeanLength() {
+		return episodes == 0 ? 0.0 : totalLength / (episodes + 0.0);
+	}
+
+	/** Reward of episode i */
+	public synchronized double getReward(int i) {
+		return rewards[i];
+	}
+
+	public synchronized int getWins() {
+		return wins;
+	}
+
+	public synchronized int getTies() {
+		return ties;
+	}
+
+	public synchronized int getLosses() {
+		return losses;
+	}
+
+	/** Duration of the experiment, in milliseconds. */
+	public long getElapsedTime() {
+		return endTime - startTime;
+	}
+
+	/** The exception thrown by the experiment, if it failed. */
+	public Throwable getError() {
+		return error;
+	}
+
+	public synchronized String toString() {
+		return name + " " + status + " episodes : " + episodes
+				+ " mean reward : " + getMeanReward() + " mean length : "
+				+ getMeanLength() + " wins/ties/losses : " + wins + "/" + ties
+				+ "/" + losses + " time : " + getElapsedTime() + " ms"
+				+ (error == null ? "" : " error : " + error);
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    HogwildReferee.java
+ *
+ */
+package referees;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import agents.IAgent;
+import environment.IEnvironmentSingle;
+import environment.IState;
+import util.RandomSource;
+
+/**
+ * Asynchronous one-step Q-Learning : several actors, each one with its own
+ * environment and its own agent, play episodes at the same time in separate
+ * threads. <br>
+ * Their selectors are meant to share the same thread-safe memory (see
+ * {@link qlearning.ConcurrentRewardMemorizer} and
+ * {@link algorithms.QLearningSelector#QLearningSelector(qlearning.IRewardStore)}),
+ * so that the experience of every actor benefits to all of them.
+ * <p>
+ * The referee collects the reward and length of every episode, in the order
+ * they were started, and stops all actors when either the global budget of
+ * episodes is exhausted or the {@link IStopCondition} is satisfied.
+ */
+public class HogwildReferee {
+
+	/** The actors : each one must live in its own environment. */
+	private ArrayList<IAgent> actors = new ArrayList<IAgent>();
+
+	/** Maximal length of an episode */
+	private int maxIter = 1000;
+
+	/** Maximal number of episodes, all actors together */
+	private int maxEpisodes = 10000;
+
+	/** Number of episodes used to compute the recent average reward */
+	private int window = 100;
+
+	private IStopCondition stopCondition = null;
+
+	/** Index given to the next episode to be played */
+	private AtomicInteger nextEpisode;
+
+	/** Set as soon as one actor sees the stop condition satisfied */
+	private volatile boolean stopped;
+
+	/** Learning curve : reward and length of each episode */
+	private double rewards[];
+
+	private int lengths[];
+
+	/** Episodes whose reward has been recorded */
+	private boolean recorded[];
+
+	/** Number of episodes finished */
+	private int finished;
+
+	/** Rewards of the last finished episodes, in finishing order */
+	private double recent[];
+
+	private double recentSum;
+
+	/** Wall clock time of the last run, in milliseconds */
+	private long elapsedTime;
+
+	public HogwildReferee() {
+	}
+
+	public HogwildReferee(ArrayList<IAgent> actors) {
+		this.actors.addAll(actors);
+	}
+
+	/** Add an actor : its environment must not be shared with other actors. */
+	public void add(IAgent a) {
+		this.actors.add(a);
+	}
+
+	public int getNbActors() {
+		return this.actors.size();
+	}
+
+	/** Read the maximal length of an episode */
+	public int getMaxIter() {
+		return this.maxIter;
+	}
+
+	/** Change the maximal length of an episode. */
+	public void setMaxIter(int t) {
+		if (t > 0)
+			maxIter = t;
+	}
+
+	/** Read the global budget of episodes. */
+	public int getMaxEpisodes() {
+		return this.maxEpisodes;
+	}
+
+	/** Change the global budget of episodes. */
+	public void setMaxEpisodes(int t) {
+		if (t > 0)
+			maxEpisodes = t;
+	}
+
+	/** Number of recent episodes averaged before checking the stop condition. */
+	public void setWindow(int w) {
+		if (w > 0)
+			window = w;
+	}
+
+	public void setStopCondition(IStopCondition c) {
+		this.stopCondition = c;
+	}
+
+	/**
+	 * Initial state of an episode for a given actor : by default, the default
+	 * initial state of the actor's environment. Override it to randomize the
+	 * starting position (this method is called from the actor's thread).
+	 */
+	protected IState initialState(IAgent a) {
+		return ((IEnvironmentSingle) a.getEnvironment()).defaultInitialState();
+	}
+
+	/**
+	 * Start all the actors, wait until they stop.
+	 *
+	 * @return the number of episodes played.
+	 * @throws InterruptedException
+	 */
+	public int run() throws InterruptedException {
+		rewards = new double[maxEpisodes];
+		lengths = new int[maxEpisodes];
+		recorded = new boolean[maxEpisodes];
+		recent = new double[window];
+		recentSum = 0.0;
+		finished = 0;
+		stopped = false;
+		nextEpisode = new AtomicInteger(0);
+		long start = System.currentTimeMillis();
+		Thread threads[] = new Thread[actors.size()];
+		for (int i = 0; i < actors.size(); i++) {
+			final IAgent actor = actors.get(i);
+			final long seed = RandomSource.newSeed();
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					RandomSource.setThreadSeed(seed);
+					play(actor);
+				}
+			}, "hogwild-actor-" + i);
+			threads[i].start();
+		}
+		for (int i = 0; i < threads.length; i++)
+			threads[i].join();
+		elapsedTime = System.currentTimeMillis() - start;
+		return getEpisodesPlayed();
+	}
+
+	/** Loop of one actor. */
+	private void play(IAgent actor) {
+		OnePlayerReferee arbitre = new OnePlayerReferee(actor);
+		arbitre.setMaxIter(maxIter);
+		while (!stopped) {
+			int episode = nextEpisode.getAndIncrement();
+			if (episode >= maxEpisodes)
+				break;
+			int length = arbitre.episode(initialState(actor));
+			record(episode, arbitre.getRewardForEpisode(), length);
+		}
+	}
+
+	private synchronized void record(int episode, double reward, int length) {
+		rewards[episode] = reward;
+		lengths[episode] = length;
+		recorded[episode] = true;
+		recentSum += reward - recent[finished % window];
+		recent[finished % window] = reward;
+		finished++;
+		if ((stopCondition != null) && (finished >= window)
+				&& stopCondition.isSatisfied(finished, recentSum / window))
+			stopped = true;
+	}
+
+	/** Number of episodes played during the last run. */
+	public synchronized int getEpisodesPlayed() {
+		return finished;
+	}
+
+	/** True if the last run was interrupted by the stop condition. */
+	public boolean isStopConditionReached() {
+		return stopped;
+	}
+
+	/** Wall clock duration of the last run, in milliseconds. */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public double getRewardForEpisode(int i) {
+		return rewards[i];
+	}
+
+	public int getLengthOfEpisode(int i) {
+		return lengths[i];
+	}
+
+	/**
+	 * Aggregated learning curve : mean reward over consecutive blocks of
+	 * <code>width</code> episodes, episodes being ordered by starting time.
+	 * During a run, the episodes not finished yet are left out of the means
+	 * (NaN : none of the block is finished).
+	 */
+	public synchronized double[] getLearningCurve(int width) {
+		int started = (nextEpisode == null) ? 0 : Math.min(nextEpisode.get(),
+				recorded.length);
+		double curve[] = new double[started / width];
+		for (int i = 0; i < curve.length; i++) {
+			double sum = 0.0;
+			int n = 0;
+			for (int j = i * width; j < (i + 1) * width; j++)
+				if (recorded[j]) {
+					sum += rewards[j];
+					n++;
+				}
+			curve[i] = (n == 0) ? Double.NaN : sum / n;
+		}
+		return curve;
+	}
+
+}
@@ -0,0 +1,39 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IExperiment.java
+ *
+ */
+package referees;
+
+/**
+ * One independent experiment (build agents and environment, play a series
+ * of episodes), to be scheduled by an {@link ExperimentExecutor}. <br>
+ * An experiment must not share any mutable object with other experiments.
+ *
+ * @see OnePlayerExperiment
+ * @see TwoPlayerExperiment
+ */
+public interface IExperiment {
+
+	/**
+	 * Play the experiment, recording every episode into <code>result</code>.
+	 * Implementations should check {@link ExperimentResult#mustStop()} between
+	 * episodes, so that timeouts and cancellations are honoured.
+	 */
+	public void run(ExperimentResult result) throws Exception;
+
+}
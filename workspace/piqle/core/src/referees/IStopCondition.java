@@ -0,0 +1,39 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    IStopCondition.java
+ *
+ */
+package referees;
+
+/**
+ * A global condition telling a referee driving several agents at once
+ * that learning can stop (target reward reached, time budget exhausted...).
+ * It is checked by every actor at the end of each of its episodes, so it
+ * must be cheap and thread-safe.
+ *
+ * @see HogwildReferee
+ */
+public interface IStopCondition {
+
+	/**
+	 * @param episodes number of episodes played so far, all actors together.
+	 * @param averageReward mean reward of the most recently finished episodes.
+	 * @return true if all actors must stop.
+	 */
+	public boolean isSatisfied(int episodes, double averageReward);
+
+}
@@ -0,0 +1,74 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    OnePlayerExperiment.java
+ *
+ */
+package referees;
+
+import agents.IAgent;
+import environment.IEnvironmentSingle;
+import environment.IState;
+
+/**
+ * A series of episodes played by one agent under a {@link OnePlayerReferee} :
+ * subclasses build the agent (with its own environment and selector) and may
+ * choose the initial state of each episode, or change settings between
+ * episodes (decaying epsilon...).
+ */
+abstract public class OnePlayerExperiment implements IExperiment {
+
+	/** Number of episodes to play */
+	protected int nbEpisodes;
+
+	/** Maximal length of an episode */
+	protected int maxIter = 1000;
+
+	public OnePlayerExperiment(int nbEpisodes) {
+		this.nbEpisodes = nbEpisodes;
+	}
+
+	public OnePlayerExperiment(int nbEpisodes, int maxIter) {
+		this.nbEpisodes = nbEpisodes;
+		this.maxIter = maxIter;
+	}
+
+	/** Build the agent, called once from the experiment's thread. */
+	abstract protected IAgent buildAgent();
+
+	/** Initial state of episode number <code>episode</code>. */
+	protected IState initialState(IAgent a, int episode) {
+		return ((IEnvironmentSingle) a.getEnvironment()).defaultInitialState();
+	}
+
+	/** Called after each episode : nothing to do by default. */
+	protected void endOfEpisode(IAgent a, int episode) {
+	}
+
+	public void run(ExperimentResult result) throws Exception {
+		IAgent agent = buildAgent();
+		OnePlayerReferee arbitre = new OnePlayerReferee(agent);
+		arbitre.setMaxIter(maxIter);
+		for (int i = 0; i < nbEpisodes; i++) {
+			if (result.mustStop())
+				return;
+			int length = arbitre.episode(initialState(agent, i));
+			result.addEpisode(arbitre.getRewardForEpisode(), length,
+					arbitre.getWinner());
+			endOfEpisode(agent, i);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    TwoPlayerExperiment.java
+ *
+ */
+package referees;
+
+/**
+ * A series of games played under a {@link TwoPlayerReferee} : subclasses build
+ * the referee and its two players. Rewards are those of player one, the
+ * winner is the one returned by {@link TwoPlayerReferee#episode()}.
+ */
+abstract public class TwoPlayerExperiment implements IExperiment {
+
+	/** Number of games to play */
+	protected int nbEpisodes;
+
+	public TwoPlayerExperiment(int nbEpisodes) {
+		this.nbEpisodes = nbEpisodes;
+	}
+
+	/** Build the referee and the players, called once from the experiment's thread. */
+	abstract protected TwoPlayerReferee buildReferee();
+
+	/** Called after each game : nothing to do by default. */
+	protected void endOfEpisode(TwoPlayerReferee arbitre, int episode) {
+	}
+
+	public void run(ExperimentResult result) throws Exception {
+		TwoPlayerReferee arbitre = buildReferee();
+		for (int i = 0; i < nbEpisodes; i++) {
+			if (result.mustStop())
+				return;
+			int winner = arbitre.episode();
+			result.addEpisode(arbitre.getRewardForEpisodePlayer1(), 0, winner);
+			endOfEpisode(arbitre, i);
+		}
+	}
+}
@@ -23,6 +23,8 @@ package statistics;
 import java.io.Serializable;
 import java.util.Random;
 
+import util.RandomSource;
+
 /** Generating integers between 0 and nb-1 following Poisson 's laws */
 
 public class Poisson implements Serializable{
@@ -38,7 +40,7 @@ public class Poisson implements Serializable{
     /** The law's coefficient */
     private double lambda; 
 
-    private Random generateur=new Random(); 
+    private Random generateur=RandomSource.newGenerator(); 
 
     /** Fill the auxiliary array */
     public Poisson(double lam,int nb){
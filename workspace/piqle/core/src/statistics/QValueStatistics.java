@@ -0,0 +1,263 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    QValueStatistics.java
+ *
+ */
+package statistics;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+
+/**
+ * Statistics of the values held by a Q(s,a) memory, kept up to date at each
+ * change instead of being computed by walking the memory : number of values,
+ * mean and variance (Welford's algorithm, values being added, removed or
+ * replaced), smallest and largest values ever stored, and a histogram with
+ * fixed bins over [low,high[, plus two bins for the values outside. <br>
+ * Every query takes a constant time, except the quantiles (proportional to
+ * the number of bins) ; {@link #writeCsv(Writer, int)} exports one line, for
+ * example at the end of each episode.
+ * 
+ * @see qlearning.RewardMemorizer#setStatistics(QValueStatistics)
+ */
+public class QValueStatistics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private long count = 0;
+
+	private double mean = 0.0;
+
+	/** Sum of the squared differences to the mean */
+	private double m2 = 0.0;
+
+	private double min = Double.POSITIVE_INFINITY;
+
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/** Number of changes seen */
+	private long updates = 0;
+
+	private final double low, high;
+
+	/** Width of a bin, and its inverse */
+	private final double width, scale;
+
+	/** Bin 0 : below low ; last bin : high and above */
+	private final long bins[];
+
+	/**
+	 * @param nbBins number of bins of width (high-low)/nbBins between low and
+	 *            high.
+	 */
+	public QValueStatistics(double low, double high, int nbBins) {
+		if (!(high > low) || (nbBins < 1))
+			throw new IllegalArgumentException("empty histogram");
+		this.low = low;
+		this.high = high;
+		this.width = (high - low) / nbBins;
+		this.scale = nbBins / (high - low);
+		this.bins = new long[nbBins + 2];
+	}
+
+	/** A new value. */
+	public void add(double q) {
+		count++;
+		double delta = q - mean;
+		mean += delta / count;
+		m2 += delta * (q - mean);
+		extremes(q);
+		bins[bin(q)]++;
+		updates++;
+	}
+
+	/** A value which is no longer stored. */
+	public void remove(double q) {
+		if (count <= 1) {
+			clear();
+			return;
+		}
+		double delta = q - mean;
+		mean -= delta / (count - 1);
+		m2 -= delta * (q - mean);
+		if (m2 < 0)
+			m2 = 0;
+		count--;
+		bins[bin(q)]--;
+		updates++;
+	}
+
+	/** A value changed from old to q. */
+	public void replace(double old, double q) {
+		double delta = q - old;
+		double oldMean = mean;
+		mean += delta / count;
+		m2 += delta * (q - mean + old - oldMean);
+		if (m2 < 0)
+			m2 = 0;
+		extremes(q);
+		int from = bin(old), to = bin(q);
+		if (from != to) {
+			bins[from]--;
+			bins[to]++;
+		}
+		updates++;
+	}
+
+	/** Forget all the values (the bins are kept). */
+	public void clear() {
+		count = 0;
+		mean = 0.0;
+		m2 = 0.0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+		java.util.Arrays.fill(bins, 0);
+	}
+
+	private void extremes(double q) {
+		if (q < min)
+			min = q;
+		if (q > max)
+			max = q;
+	}
+
+	private int bin(double q) {
+		if (q < low)
+			return 0;
+		if (q >= high)
+			return bins.length - 1;
+		return Math.min(1 + (int) ((q - low) * scale), bins.length - 2);
+	}
+
+	/** Number of values. */
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/** Variance of the values (divided by their number). */
+	public double getVariance() {
+		return (count == 0) ? 0.0 : m2 / count;
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/** Smallest value ever stored (a value may have changed since). */
+	public double getMin() {
+		return min;
+	}
+
+	/** Largest value ever stored (a value may have changed since). */
+	public double getMax() {
+		return max;
+	}
+
+	/** Number of additions, removals and changes seen. */
+	public long getUpdates() {
+		return updates;
+	}
+
+	public int getNbBins() {
+		return bins.length - 2;
+	}
+
+	/** Number of values in bin i, in [low+i*width, low+(i+1)*width[. */
+	public long getBinCount(int i) {
+		return bins[i + 1];
+	}
+
+	/** Number of values below low. */
+	public long getUnderflow() {
+		return bins[0];
+	}
+
+	/** Number of values above high. */
+	public long getOverflow() {
+		return bins[bins.length - 1];
+	}
+
+	/** Lower bound of bin i */
+	public double getBinLow(int i) {
+		return low + i * width;
+	}
+
+	/**
+	 * Approximate quantile : p=0.5 for the median. Values outside [low,high[
+	 * are taken at the bounds.
+	 */
+	public double quantile(double p) {
+		if (count == 0)
+			return Double.NaN;
+		double target = p * count;
+		long seen = bins[0];
+		if (seen >= target)
+			return low;
+		for (int i = 1; i < bins.length - 1; i++) {
+			if (seen + bins[i] >= target)
+				return low + (i - 1 + (target - seen) / bins[i]) * width;
+			seen += bins[i];
+		}
+		return high;
+	}
+
+	/** A copy, to keep the statistics of a given moment. */
+	public QValueStatistics copy() {
+		QValueStatistics c = new QValueStatistics(low, high, getNbBins());
+		c.count = count;
+		c.mean = mean;
+		c.m2 = m2;
+		c.min = min;
+		c.max = max;
+		c.updates = updates;
+		System.arraycopy(bins, 0, c.bins, 0, bins.length);
+		return c;
+	}
+
+	/** Header of the lines written by {@link #writeCsv(Writer, int)}. */
+	public void writeCsvHeader(Writer out) throws IOException {
+		out.write("episode,count,mean,variance,min,max,below");
+		for (int i = 0; i < getNbBins(); i++) {
+			out.write(",");
+			out.write(Double.toString(getBinLow(i)));
+		}
+		out.write(",above\n");
+	}
+
+	/** One line of CSV : the statistics at the end of an episode. */
+	public void writeCsv(Writer out, int episode) throws IOException {
+		StringBuilder s = new StringBuilder();
+		s.append(episode).append(',').append(count).append(',').append(mean)
+				.append(',').append(getVariance()).append(',').append(min)
+				.append(',').append(max);
+		for (int i = 0; i < bins.length; i++)
+			s.append(',').append(bins[i]);
+		s.append('\n');
+		out.write(s.toString());
+	}
+
+	public String toString() {
+		return count + " values, mean " + mean + ", standard deviation "
+				+ getStandardDeviation() + ", min " + min + ", max " + max;
+	}
+
+}
@@ -0,0 +1,39 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ISweepTask.java
+ *
+ */
+package sweep;
+
+import referees.IExperiment;
+
+/**
+ * Builds the experiment evaluating one parameter setting : typically a
+ * {@link referees.OnePlayerExperiment} or a
+ * {@link referees.TwoPlayerExperiment} whose selector is configured with
+ * {@link ParameterSetting#applyTo(Object)}.
+ */
+public interface ISweepTask {
+
+	/**
+	 * @param p the parameters to evaluate.
+	 * @param seed the repetition's seed, for the random parts of the experiment.
+	 * @param episodes the number of episodes to play.
+	 */
+	public IExperiment build(ParameterSetting p, long seed, int episodes);
+
+}
@@ -0,0 +1,103 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ParameterSetting.java
+ *
+ */
+package sweep;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A set of named numerical parameters (alpha, gamma, epsilon, lambda, tau,
+ * decay, alphaDecayPower...), which can be applied to any selector having
+ * the corresponding <code>setXxx(double)</code> methods
+ * ({@link algorithms.AbstractMemorySelector},
+ * {@link algorithms.AbstractQLambdaSelector}, {@link algorithms.TDFASelector}).
+ */
+public class ParameterSetting {
+
+	private LinkedHashMap<String, Double> values = new LinkedHashMap<String, Double>();
+
+	public ParameterSetting() {
+	}
+
+	public ParameterSetting(ParameterSetting p) {
+		this.values.putAll(p.values);
+	}
+
+	public void set(String name, double value) {
+		values.put(name, Double.valueOf(value));
+	}
+
+	public double get(String name) {
+		Double d = values.get(name);
+		if (d == null)
+			throw new IllegalArgumentException("No parameter named " + name);
+		return d.doubleValue();
+	}
+
+	public boolean has(String name) {
+		return values.containsKey(name);
+	}
+
+	/** The parameter names, in insertion order. */
+	public Iterator<String> names() {
+		return values.keySet().iterator();
+	}
+
+	/**
+	 * Call <code>setName(value)</code> on the selector for every parameter
+	 * (the case of the setter name is not significant : setlambda and
+	 * setLambda both match "lambda").
+	 *
+	 * @throws IllegalArgumentException if a setter is missing.
+	 */
+	public void applyTo(Object selector) {
+		Method methods[] = selector.getClass().getMethods();
+		for (Map.Entry<String, Double> e : values.entrySet()) {
+			String setter = "set" + e.getKey();
+			boolean done = false;
+			for (int i = 0; (i < methods.length) && !done; i++) {
+				Method m = methods[i];
+				if (m.getName().equalsIgnoreCase(setter)
+						&& (m.getParameterTypes().length == 1)
+						&& (m.getParameterTypes()[0] == double.class)) {
+					try {
+						m.invoke(selector, e.getValue());
+					} catch (Exception ex) {
+						throw new IllegalArgumentException("Cannot call " + setter
+								+ " on " + selector.getClass().getName(), ex);
+					}
+					done = true;
+				}
+			}
+			if (!done)
+				throw new IllegalArgumentException("No method " + setter
+						+ "(double) in " + selector.getClass().getName());
+		}
+	}
+
+	public String toString() {
+		String s = "";
+		for (Map.Entry<String, Double> e : values.entrySet())
+			s += e.getKey() + "=" + e.getValue() + " ";
+		return s.trim();
+	}
+}
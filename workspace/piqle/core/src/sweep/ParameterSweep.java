@@ -0,0 +1,313 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    ParameterSweep.java
+ *
+ */
+package sweep;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import referees.ExperimentExecutor;
+import referees.ExperimentResult;
+
+import util.Xoroshiro128Random;
+
+/**
+ * Searching good selector settings : the candidate settings come either from
+ * a grid (every combination of the given values) or from random search
+ * (uniform or logarithmic ranges). Each setting is evaluated with several
+ * seeds, all evaluations running in parallel in an {@link ExperimentExecutor}.
+ * <p>
+ * Bad settings are dropped early by <i>successive halving</i> : all the
+ * settings are first evaluated with a small number of episodes, only the best
+ * 1/eta of them are evaluated again with eta times more episodes, and so on
+ * until the maximal number of episodes is reached.
+ * <p>
+ * The score of an evaluation is the mean reward of the last episodes (see
+ * {@link #setScoreFraction(double)}), averaged over the seeds. Every
+ * evaluation is written as one tab-separated line in the result file.
+ */
+public class ParameterSweep {
+
+	private ISweepTask task;
+
+	/** Grid : values of each parameter */
+	private LinkedHashMap<String, double[]> grid = new LinkedHashMap<String, double[]>();
+
+	/** Random search : bounds of each parameter, and log scale or not */
+	private LinkedHashMap<String, double[]> ranges = new LinkedHashMap<String, double[]>();
+
+	private int nbSeeds = 3;
+
+	private long rootSeed = 0;
+
+	private int maxConcurrent = Runtime.getRuntime().availableProcessors();
+
+	/** Number of episodes of the first (cheapest) round */
+	private int minEpisodes = 100;
+
+	/** Number of episodes of the last round */
+	private int maxEpisodes = 10000;
+
+	/** Reduction factor of successive halving */
+	private int eta = 3;
+
+	/** Part of the episodes (the last ones) used to compute the score */
+	private double scoreFraction = 0.25;
+
+	/** Time limit of each evaluation, 0 for none */
+	private long timeout = 0;
+
+	private String fileName = null;
+
+	public ParameterSweep(ISweepTask task) {
+		this.task = task;
+	}
+
+	/** Grid search : try each of those values for this parameter. */
+	public void addGrid(String name, double values[]) {
+		grid.put(name, values.clone());
+	}
+
+	/** Random search : draw this parameter uniformly in [low,high]. */
+	public void addRange(String name, double low, double high) {
+		ranges.put(name, new double[] { low, high, 0 });
+	}
+
+	/** Random search : draw this parameter log-uniformly in [low,high] (low>0). */
+	public void addLogRange(String name, double low, double high) {
+		ranges.put(name, new double[] { low, high, 1 });
+	}
+
+	/** Number of repetitions (seeds) of each evaluation. */
+	public void setNbSeeds(int n) {
+		if (n > 0)
+			nbSeeds = n;
+	}
+
+	/** The seeds of the repetitions are derived from this one. */
+	public void setSeed(long seed) {
+		rootSeed = seed;
+	}
+
+	public void setMaxConcurrent(int n) {
+		if (n > 0)
+			maxConcurrent = n;
+	}
+
+	/**
+	 * Successive halving schedule : from <code>min</code> to <code>max</code>
+	 * episodes, keeping the best 1/<code>factor</code> of the settings at each
+	 * round. Use min==max to evaluate every setting fully.
+	 */
+	public void setHalving(int min, int max, int factor) {
+		if ((min > 0) && (max >= min) && (factor > 1)) {
+			minEpisodes = min;
+			maxEpisodes = max;
+			eta = factor;
+		}
+	}
+
+	public void setScoreFraction(double f) {
+		if ((f > 0) && (f <= 1))
+			scoreFraction = f;
+	}
+
+	public void setTimeout(long milliseconds) {
+		timeout = milliseconds;
+	}
+
+	/** Where to write the table of results (tab-separated). */
+	public void setOutput(String fileName) {
+		this.fileName = fileName;
+	}
+
+	/** Every combination of the grid values. */
+	public ArrayList<ParameterSetting> gridSettings() {
+		ArrayList<ParameterSetting> settings = new ArrayList<ParameterSetting>();
+		settings.add(new ParameterSetting());
+		for (Map.Entry<String, double[]> e : grid.entrySet()) {
+			ArrayList<ParameterSetting> next = new ArrayList<ParameterSetting>();
+			for (ParameterSetting p : settings)
+				for (double v : e.getValue()) {
+					ParameterSetting q = new ParameterSetting(p);
+					q.set(e.getKey(), v);
+					next.add(q);
+				}
+			settings = next;
+		}
+		return settings;
+	}
+
+	/**
+	 * <code>n</code> settings drawn at random in the ranges ; grid parameters,
+	 * if any, are drawn among their values.
+	 */
+	public ArrayList<ParameterSetting> randomSettings(int n) {
+		Random generator = new Xoroshiro128Random(rootSeed);
+		ArrayList<ParameterSetting> settings = new ArrayList<ParameterSetting>();
+		for (int i = 0; i < n; i++) {
+			ParameterSetting p = new ParameterSetting();
+			for (Map.Entry<String, double[]> e : grid.entrySet()) {
+				double v[] = e.getValue();
+				p.set(e.getKey(), v[generator.nextInt(v.length)]);
+			}
+			for (Map.Entry<String, double[]> e : ranges.entrySet()) {
+				double r[] = e.getValue();
+				double u = generator.nextDouble();
+				if (r[2] == 0)
+					p.set(e.getKey(), r[0] + u * (r[1] - r[0]));
+				else
+					p.set(e.getKey(), Math.exp(Math.log(r[0]) + u
+							* (Math.log(r[1]) - Math.log(r[0]))));
+			}
+			settings.add(p);
+		}
+		return settings;
+	}
+
+	/** Grid search with successive halving. */
+	public ArrayList<SweepScore> runGrid() throws InterruptedException,
+			IOException {
+		return run(gridSettings());
+	}
+
+	/** Random search of n settings with successive halving. */
+	public ArrayList<SweepScore> runRandom(int n) throws InterruptedException,
+			IOException {
+		return run(randomSettings(n));
+	}
+
+	/**
+	 * Evaluate the settings with successive halving.
+	 *
+	 * @return the scores of the settings that reached the last round, best first.
+	 */
+	public ArrayList<SweepScore> run(ArrayList<ParameterSetting> settings)
+			throws InterruptedException, IOException {
+		PrintWriter out = null;
+		if (fileName != null)
+			out = new PrintWriter(new BufferedWriter(new FileWriter(fileName)));
+		ExperimentExecutor executor = new ExperimentExecutor(maxConcurrent);
+		executor.setTimeout(timeout);
+		ArrayList<SweepScore> scores = new ArrayList<SweepScore>();
+		try {
+			if (out != null && !settings.isEmpty())
+				writeHeader(out, settings.get(0));
+			int episodes = minEpisodes;
+			int round = 0;
+			ArrayList<ParameterSetting> alive = settings;
+			while (true) {
+				scores = evaluate(executor, alive, episodes, round, out);
+				Collections.sort(scores, new Comparator<SweepScore>() {
+					public int compare(SweepScore a, SweepScore b) {
+						return Double.compare(b.getScore(), a.getScore());
+					}
+				});
+				if ((alive.size() <= 1) || (episodes >= maxEpisodes))
+					break;
+				int keep = Math.max(1, (alive.size() + eta - 1) / eta);
+				alive = new ArrayList<ParameterSetting>();
+				for (int i = 0; i < keep; i++)
+					alive.add(scores.get(i).getSetting());
+				episodes = (int) Math.min((long) episodes * eta, maxEpisodes);
+				round++;
+			}
+		} finally {
+			executor.shutdown();
+			if (out != null)
+				out.close();
+		}
+		return scores;
+	}
+
+	/** One round : every setting with every seed, in parallel. */
+	private ArrayList<SweepScore> evaluate(ExperimentExecutor executor,
+			ArrayList<ParameterSetting> settings, int episodes, int round,
+			PrintWriter out) throws InterruptedException {
+		ExperimentResult results[][] = new ExperimentResult[settings.size()][nbSeeds];
+		for (int s = 0; s < nbSeeds; s++)
+			for (int i = 0; i < settings.size(); i++) {
+				ParameterSetting p = settings.get(i);
+				results[i][s] = executor.submit(p + " seed " + s, task.build(p,
+						seed(s), episodes), seed(s));
+			}
+		executor.awaitAll();
+		ArrayList<SweepScore> scores = new ArrayList<SweepScore>();
+		for (int i = 0; i < settings.size(); i++) {
+			double sum = 0.0;
+			for (int s = 0; s < nbSeeds; s++) {
+				double score = score(results[i][s]);
+				sum += score;
+				if (out != null)
+					writeLine(out, round, episodes, settings.get(i), s,
+							results[i][s], score);
+			}
+			scores.add(new SweepScore(settings.get(i), sum / nbSeeds, episodes));
+		}
+		if (out != null)
+			out.flush();
+		return scores;
+	}
+
+	/** The seeds are the same for every setting, so that they are compared on
+	 * the same random sequences. */
+	private long seed(int repetition) {
+		return rootSeed * 1000003L + repetition;
+	}
+
+	/** Mean reward of the last episodes ; failed runs get the worst score. */
+	private double score(ExperimentResult r) {
+		int n = r.getEpisodes();
+		if ((n == 0) || (r.getStatus() == ExperimentResult.Status.FAILED))
+			return Double.NEGATIVE_INFINITY;
+		int first = n - Math.max(1, (int) (n * scoreFraction));
+		double sum = 0.0;
+		for (int i = first; i < n; i++)
+			sum += r.getReward(i);
+		return sum / (n - first);
+	}
+
+	private void writeHeader(PrintWriter out, ParameterSetting p) {
+		out.print("round\tepisodes");
+		Iterator<String> names = p.names();
+		while (names.hasNext())
+			out.print("\t" + names.next());
+		out.println("\tseed\tscore\tmeanReward\tmeanLength\tstatus\ttime");
+	}
+
+	private void writeLine(PrintWriter out, int round, int episodes,
+			ParameterSetting p, int seed, ExperimentResult r, double score) {
+		out.print(round + "\t" + episodes);
+		Iterator<String> names = p.names();
+		while (names.hasNext())
+			out.print("\t" + p.get(names.next()));
+		out.println("\t" + seed + "\t" + score + "\t" + r.getMeanReward() + "\t"
+				+ r.getMeanLength() + "\t" + r.getStatus() + "\t"
+				+ r.getElapsedTime());
+	}
+}
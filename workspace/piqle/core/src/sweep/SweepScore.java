@@ -0,0 +1,53 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    SweepScore.java
+ *
+ */
+package sweep;
+
+/** The score of one parameter setting, averaged over the seeds. */
+public class SweepScore {
+
+	private ParameterSetting setting;
+
+	private double score;
+
+	/** Number of episodes of the evaluation */
+	private int episodes;
+
+	public SweepScore(ParameterSetting p, double score, int episodes) {
+		this.setting = p;
+		this.score = score;
+		this.episodes = episodes;
+	}
+
+	public ParameterSetting getSetting() {
+		return setting;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public int getEpisodes() {
+		return episodes;
+	}
+
+	public String toString() {
+		return setting + " : " + score + " (" + episodes + " episodes)";
+	}
+}
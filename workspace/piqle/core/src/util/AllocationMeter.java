@@ -0,0 +1,84 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    AllocationMeter.java
+ *
+ */
+package util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated on the heap by the calling thread, to check
+ * the allocation budget of a learning loop (bytes per step). <br>
+ * Relies on the HotSpot extension of <code>ThreadMXBean</code> : on other
+ * virtual machines, {@link #isSupported()} is false and every measure is -1.
+ */
+public class AllocationMeter {
+
+	private static final com.sun.management.ThreadMXBean bean = findBean();
+
+	/** Bytes already allocated by the thread when the meter was started */
+	private long start;
+
+	private static com.sun.management.ThreadMXBean findBean() {
+		try {
+			java.lang.management.ThreadMXBean b = ManagementFactory
+					.getThreadMXBean();
+			if (!(b instanceof com.sun.management.ThreadMXBean))
+				return null;
+			com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) b;
+			if (!sun.isThreadAllocatedMemorySupported())
+				return null;
+			sun.setThreadAllocatedMemoryEnabled(true);
+			return sun;
+		} catch (Throwable e) {
+			return null;
+		}
+	}
+
+	/** True if allocations can be measured in this virtual machine. */
+	public static boolean isSupported() {
+		return bean != null;
+	}
+
+	/** Bytes allocated so far by the calling thread (-1 if unsupported). */
+	public static long allocatedBytes() {
+		if (bean == null)
+			return -1;
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/** Start measuring in the calling thread. */
+	public AllocationMeter() {
+		restart();
+	}
+
+	public void restart() {
+		start = allocatedBytes();
+	}
+
+	/**
+	 * Bytes allocated by the calling thread since the meter was (re)started :
+	 * the thread must be the one which started it.
+	 */
+	public long getBytes() {
+		if (bean == null)
+			return -1;
+		return allocatedBytes() - start;
+	}
+
+}
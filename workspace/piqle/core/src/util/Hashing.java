@@ -0,0 +1,101 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    Hashing.java
+ *
+ */
+package util;
+
+/**
+ * Hash codes for states, actions and keys of the Q(s,a) memories. <br>
+ * Java hash maps use the lowest bits of the hash codes : codes computed as a
+ * small sum, or reduced modulo a small prime, put all the values in a few
+ * buckets of long chains. The functions of this class spread every input bit
+ * over the whole code.
+ * <p>
+ * A typical <code>hashCode</code> combines the fields one after the other :
+ *
+ * <pre>
+ * int h = Hashing.SEED;
+ * h = Hashing.combine(h, x);
+ * h = Hashing.combine(h, y);
+ * return h;
+ * </pre>
+ *
+ * For an immutable state, the result can be kept in a <code>transient</code>
+ * field and computed only once (see {@link #cache(int)}).
+ */
+public final class Hashing {
+
+	/** Starting value of a combination */
+	public static final int SEED = 0x2F0B3C91;
+
+	private Hashing() {
+	}
+
+	/** Final mixing step of MurmurHash3 : every bit of h changes half the bits. */
+	public static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	public static int mix(long v) {
+		v = Xoroshiro128Random.mix(v);
+		return (int) (v ^ (v >>> 32));
+	}
+
+	/** Add a value to a combination : the order of the values matters. */
+	public static int combine(int h, int value) {
+		return mix(h * 0x9E3779B9 + value);
+	}
+
+	public static int combine(int h, long value) {
+		return combine(h, mix(value));
+	}
+
+	/** Hash of a discretized real value (grid step <code>step</code>). */
+	public static int combine(int h, double value, double step) {
+		return combine(h, (long) Math.floor(value / step));
+	}
+
+	public static int hash(int a, int b) {
+		return combine(combine(SEED, a), b);
+	}
+
+	public static int hash(int a, int b, int c) {
+		return combine(hash(a, b), c);
+	}
+
+	public static int hash(int values[]) {
+		int h = SEED;
+		for (int i = 0; i < values.length; i++)
+			h = combine(h, values[i]);
+		return h;
+	}
+
+	/**
+	 * Value to store in a cached hash field : 0 meaning "not computed yet",
+	 * a computed code of 0 is replaced by 1.
+	 */
+	public static int cache(int h) {
+		return h == 0 ? 1 : h;
+	}
+
+}
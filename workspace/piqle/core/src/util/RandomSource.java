@@ -0,0 +1,91 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    RandomSource.java
+ *
+ */
+package util;
+
+import java.util.Random;
+
+/**
+ * Where all the random generators of the library come from. <br>
+ * Every thread owns a root generator ; each object needing randomness
+ * (selector, environment, value chooser...) asks for its own stream with
+ * {@link #newGenerator()}, which splits the root of the current thread.
+ * Nothing is shared between threads, and fixing the seeds makes runs
+ * reproducible :
+ * <ul>
+ * <li>{@link #setSeed(long)} at the beginning of <code>main</code> fixes the
+ * streams of all the objects then built by the main thread ;</li>
+ * <li>a thread running an independent experiment calls
+ * {@link #setThreadSeed(long)} with a seed obtained from
+ * {@link #newSeed()} in the thread launching it.</li>
+ * </ul>
+ * Objects used by several threads at once should draw from {@link #current()}
+ * rather than from a generator of their own.
+ */
+public class RandomSource {
+
+	/** Roots of the threads which did not set their own seed */
+	private static Xoroshiro128Random global = new Xoroshiro128Random(System
+			.nanoTime());
+
+	private static final ThreadLocal<Xoroshiro128Random> root = new ThreadLocal<Xoroshiro128Random>() {
+		protected Xoroshiro128Random initialValue() {
+			synchronized (RandomSource.class) {
+				return global.split();
+			}
+		}
+	};
+
+	private RandomSource() {
+	}
+
+	/**
+	 * Fix the global seed, and the root of the calling thread : the objects
+	 * built afterwards by this thread draw reproducible numbers.
+	 */
+	public static void setSeed(long seed) {
+		synchronized (RandomSource.class) {
+			global = new Xoroshiro128Random(seed);
+			root.set(global.split());
+		}
+	}
+
+	/** Fix the root of the calling thread only. */
+	public static void setThreadSeed(long seed) {
+		root.set(new Xoroshiro128Random(seed));
+	}
+
+	/** A seed drawn from the root of the calling thread, for another thread. */
+	public static long newSeed() {
+		return root.get().nextLong();
+	}
+
+	/** A new independent stream, for the exclusive use of one object. */
+	public static Random newGenerator() {
+		return root.get().split();
+	}
+
+	/**
+	 * The root generator of the calling thread, for objects shared between
+	 * threads. It must not be kept in a field.
+	 */
+	public static Random current() {
+		return root.get();
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    Xoroshiro128Random.java
+ *
+ */
+package util;
+
+import java.util.Random;
+
+/**
+ * A <code>java.util.Random</code> backed by the xoroshiro128++ generator
+ * (Blackman and Vigna) : faster than the linear congruential generator of
+ * <code>java.util.Random</code>, much longer period, and no atomic operation
+ * at each draw. <br>
+ * As a consequence, an instance must not be shared between threads : each
+ * agent, selector or environment gets its own stream, obtained by
+ * {@link #split()} or from {@link RandomSource}.
+ * <p>
+ * Being a subclass of <code>Random</code>, it can be used wherever a
+ * <code>Random</code> was, and is serialized with the objects holding it.
+ */
+public class Xoroshiro128Random extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	/* No initializers : they would run after Random's constructor, which
+	 * already called setSeed. */
+	private long s0;
+
+	private long s1;
+
+	public Xoroshiro128Random(long seed) {
+		super(seed);
+	}
+
+	private Xoroshiro128Random(long a, long b) {
+		super(0);
+		s0 = a;
+		s1 = b;
+		if ((s0 | s1) == 0)
+			s1 = 0x9E3779B97F4A7C15L;
+	}
+
+	/** SplitMix64 finalizer : turns any long into a well-mixed one. */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public synchronized void setSeed(long seed) {
+		s0 = mix(seed + 0x9E3779B97F4A7C15L);
+		s1 = mix(seed + 2 * 0x9E3779B97F4A7C15L);
+		if ((s0 | s1) == 0)
+			s1 = 0x9E3779B97F4A7C15L;
+		super.setSeed(seed); // resets the cached gaussian
+	}
+
+	public long nextLong() {
+		long a = s0;
+		long b = s1;
+		long result = Long.rotateLeft(a + b, 17) + a;
+		b ^= a;
+		s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+		s1 = Long.rotateLeft(b, 28);
+		return result;
+	}
+
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * A new generator, statistically independent from this one : this one
+	 * advances by two draws.
+	 */
+	public Xoroshiro128Random split() {
+		return new Xoroshiro128Random(mix(nextLong()), mix(nextLong()));
+	}
+}
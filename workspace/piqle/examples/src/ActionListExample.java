@@ -0,0 +1,68 @@
+/* Cost of building lists of legal moves, for the 50 bets of the gambler 
+   (capital 50) and for 500 distinct actions : 
+   - the former way (ArrayList.contains before each insertion, in k^2),
+   - add() (scan up to 8 actions, then a hash index),
+   - addDistinct(), for environments producing each move once,
+   - the same list emptied by reset() and filled again,
+   - an OrdinalActionList (duplicates found by ordinal).
+   Prints the time needed to build one list, in nanoseconds.
+*/
+
+import java.util.ArrayList;
+
+import environment.ActionList;
+import environment.OrdinalActionList;
+import gambler.ActionGambler;
+
+public class ActionListExample{
+
+    static int sink=0; 
+
+    static double time(int k,int way,int repeat){
+	ActionGambler bets[]=new ActionGambler[k]; 
+	for(int i=0;i<k;i++) bets[i]=new ActionGambler(i+1); 
+	ActionList reused=new ActionList(null); 
+	long start=System.nanoTime(); 
+	for(int r=0;r<repeat;r++){
+	    switch(way){
+	    case 0 : 
+		ArrayList<ActionGambler> former=new ArrayList<ActionGambler>(); 
+		for(int i=0;i<k;i++) if(!former.contains(bets[i])) former.add(bets[i]); 
+		sink+=former.size(); 
+		break; 
+	    case 1 : 
+		ActionList l=new ActionList(null); 
+		for(int i=0;i<k;i++) l.add(bets[i]); 
+		sink+=l.size(); 
+		break; 
+	    case 2 : 
+		ActionList d=new ActionList(null); 
+		for(int i=0;i<k;i++) d.addDistinct(bets[i]); 
+		sink+=d.size(); 
+		break; 
+	    case 3 : 
+		reused.reset(null); 
+		for(int i=0;i<k;i++) reused.addDistinct(bets[i]); 
+		sink+=reused.size(); 
+		break; 
+	    default : 
+		OrdinalActionList o=new OrdinalActionList(null,k+1); 
+		for(int i=0;i<k;i++) o.add(bets[i]); 
+		sink+=o.size(); 
+	    }
+	}
+	return (System.nanoTime()-start)/(double)repeat; 
+    }
+
+    public static void main(String argv[]){
+	String names[]={"contains (former)","add            ","addDistinct    ","reset + reuse  ","ordinal list   "}; 
+	int sizes[]={50,500}; 
+	for(int s=0;s<sizes.length;s++){
+	    int repeat=2000000/sizes[s]; 
+	    for(int w=0;w<names.length;w++) time(sizes[s],w,repeat); // warming up
+	    System.out.println(sizes[s]+" actions :"); 
+	    for(int w=0;w<names.length;w++)
+		System.out.println("  "+names[w]+" "+(int)time(sizes[s],w,repeat)+" ns"); 
+	}
+    }
+}
@@ -0,0 +1,60 @@
+/** The central cross maze of SimpleMazeExample, with simulation and learning
+in separate threads : four actors feed one learner through a TransitionQueue, 
+and choose with the copy of its memory it publishes every 1000 transitions.
+
+Prints the learning curve, then the queue monitoring values.
+
+*/
+
+import agents.ActorAgent;
+import agents.IAgent;
+import agents.TransitionQueue;
+import environment.IState;
+import mazes.*;
+import qlearning.PublishedRewardStore;
+import qlearning.RewardMemorizer;
+import referees.ActorLearnerReferee;
+import algorithms.*;
+
+
+public class ActorLearnerMazeExample{
+
+    public static void main(String args[])throws Exception{
+	int nbActors=4; 
+	// Only the learner thread reads and writes its memory
+	RewardMemorizer memory=new RewardMemorizer(); 
+	QLearningSelector learner=new QLearningSelector(memory); 
+	PublishedRewardStore published=new PublishedRewardStore(memory); 
+	learner.setGamma(1);
+	learner.setAlpha(0.5);
+	learner.setGeometricAlphaDecay();
+	learner.setDecay(1);
+	TransitionQueue queue=new TransitionQueue(1024); 
+	ActorLearnerReferee arbitre=new ActorLearnerReferee(learner,queue){
+		protected IState initialState(IAgent a){
+		    Maze m=(Maze)a.getEnvironment(); 
+		    m.randomInitialState(); 
+		    return m.defaultInitialState(); 
+		}
+	    };
+	arbitre.setPolicy(published,1000); 
+	for(int t=0;t<nbActors;t++){
+	    // Those selectors never learn : they only read the published copy
+	    QLearningSelector policy=new QLearningSelector(published); 
+	    policy.setEpsilon(0.1); 
+	    arbitre.add(new ActorAgent(HogwildMazeExample.buildMaze(20),policy,queue)); 
+	}
+	arbitre.setMaxIter(300); 
+	arbitre.setMaxEpisodes(4000); 
+	arbitre.run(); 
+	double curve[]=arbitre.getLearningCurve(100); 
+	for(int i=0;i<curve.length;i++)
+	    System.out.println((i+1)*100+" "+curve[i]); 
+	System.out.println("Transitions learned : "+arbitre.getTransitionsLearned()
+			   +" mean batch : "+arbitre.getMeanBatchSize()
+			   +" max queue depth : "+queue.getMaxDepth()+"/"+queue.getCapacity()
+			   +" backpressure events : "+queue.getBackpressureEvents()
+			   +" policies published : "+published.getPublications()
+			   +" time : "+arbitre.getElapsedTime()+" ms"); 
+    }
+}
@@ -0,0 +1,61 @@
+/** Allocation budget of the step loop of a LoneAgent driven by a 
+OnePlayerReferee, in the central cross maze of SimpleMazeExample.
+
+Once the Q(s,a) memory holds every reachable pair, a step only reads 
+and updates values : the actions are shared instances, the maze states 
+are shared by position, and the lists of legal moves are reused. 
+The bytes allocated by the thread are counted with ThreadMXBean, and 
+the program exits with status 1 when the mean number of bytes per step 
+exceeds the budget (first argument, 16 bytes by default).
+
+*/
+
+import agents.IAgent;
+import agents.LoneAgent;
+import mazes.*;
+import referees.OnePlayerReferee;
+import util.AllocationMeter;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class AllocationBudgetExample{
+
+    public static void main(String args[]){
+	double budget=16.0;
+	if(args.length>0) budget=Double.parseDouble(args[0]);
+	if(!AllocationMeter.isSupported()){
+	    System.out.println("Allocations cannot be measured in this virtual machine");
+	    return;
+	}
+	RandomSource.setSeed(36);
+	Maze cnossos=HogwildMazeExample.buildMaze(20);
+	QLearningSelector sql=new QLearningSelector();
+	sql.setEpsilon(0.3);
+	sql.setGamma(1);
+	IAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(300);
+	
+	// Warming up : fill the memory, let the JIT compile the loop
+	for(int i=0;i<3000;i++){
+	    cnossos.randomInitialState();
+	    arbitre.episode(cnossos.defaultInitialState());
+	}
+
+	long steps=0;
+	AllocationMeter meter=new AllocationMeter();
+	for(int i=0;i<3000;i++){
+	    cnossos.randomInitialState();
+	    steps+=arbitre.episode(cnossos.defaultInitialState());
+	}
+	long bytes=meter.getBytes();
+	double perStep=bytes/(double)steps;
+	System.out.println(steps+" steps, "+bytes+" bytes allocated, "
+			   +perStep+" bytes per step (budget "+budget+")");
+	if(perStep>budget){
+	    System.out.println("Allocation budget exceeded");
+	    System.exit(1);
+	}
+    }
+}
@@ -0,0 +1,145 @@
+/** Surviving a crash : Q-Learning in the central cross maze of 
+SimpleMazeExample, with a memory logging its changes (see 
+CheckpointedRewardStore). 
+
+A first process learns, marking the end of each episode with the 
+episode number, the state of the selector (parameters and random 
+streams) and the generator of the starting cells, and is killed in the 
+middle of the run. A second process recovers the memory and the state 
+of the last mark on disk, and finishes the run. A third process does 
+the whole run without interruption : both runs must end with the same 
+Q(s,a) table (compared through a digest of all the values). 
+
+Arguments : number of episodes (2000), episode of the crash (1234).
+*/
+
+import java.io.*;
+import java.util.Random;
+
+import agents.LoneAgent;
+import algorithms.QLearningSelector;
+import environment.IAction;
+import environment.IOrdinalAction;
+import environment.IState;
+import mazes.*;
+import qlearning.CheckpointedRewardStore;
+import qlearning.IPairVisitor;
+import qlearning.RewardMemorizer;
+import referees.OnePlayerReferee;
+import util.Hashing;
+import util.RandomSource;
+import util.Xoroshiro128Random;
+
+public class CheckpointExample{
+
+    static long digest; 
+
+    /** Order-independent digest of a table */
+    static long digest(CheckpointedRewardStore memory){
+	digest=0; 
+	memory.visit(new IPairVisitor(){
+		public void visit(IState s,IAction a,double q){
+		    MazeState e=(MazeState)s; 
+		    int h=Hashing.hash(e.getX(),e.getY(),((IOrdinalAction)a).ordinal()); 
+		    digest+=Xoroshiro128Random.mix(Double.doubleToLongBits(q)^h); 
+		}
+	    }); 
+	return digest; 
+    }
+
+    static byte[] state(int episode,QLearningSelector sql,Random cells)throws IOException{
+	ByteArrayOutputStream bytes=new ByteArrayOutputStream(); 
+	DataOutputStream out=new DataOutputStream(bytes); 
+	out.writeInt(episode); 
+	sql.writeState(out); 
+	ObjectOutputStream oos=new ObjectOutputStream(out); 
+	oos.writeObject(cells); 
+	oos.close(); 
+	return bytes.toByteArray(); 
+    }
+
+    /** One process : learn until nbEpisodes, or die at episode crash */
+    static void run(File dir,int nbEpisodes,int crash)throws Exception{
+	RandomSource.setSeed(42); 
+	Maze cnossos=HogwildMazeExample.buildMaze(20); 
+	CheckpointedRewardStore memory=new CheckpointedRewardStore(new RewardMemorizer(),
+								   new MazePairCodec(cnossos),dir,20); 
+	memory.setCheckpointInterval(500); 
+	QLearningSelector sql=new QLearningSelector(memory); 
+	sql.setEpsilon(0.2); 
+	sql.setGamma(1); 
+	Random cells=RandomSource.newGenerator(); 
+	int first=0; 
+	byte recovered[]=memory.getRecoveredState(); 
+	if(recovered!=null){
+	    DataInputStream in=new DataInputStream(new ByteArrayInputStream(recovered)); 
+	    first=in.readInt(); 
+	    sql.readState(in); 
+	    cells=(Random)new ObjectInputStream(in).readObject(); 
+	    System.out.println("recovered "+memory.size()+" pairs, resuming at episode "+first); 
+	}
+	OnePlayerReferee arbitre=new OnePlayerReferee(new LoneAgent(cnossos,sql)); 
+	arbitre.setMaxIter(300); 
+	for(int i=first;i<nbEpisodes;i++){
+	    int x,y; 
+	    do{
+		x=cells.nextInt(20); 
+		y=cells.nextInt(20); 
+	    }while(cnossos.isWall(new MazeState(x,y,cnossos))); 
+	    arbitre.episode(new MazeState(x,y,cnossos)); 
+	    memory.mark(state(i+1,sql,cells)); 
+	    if(i+1==crash){
+		System.out.println("crash after episode "+crash+", "+memory.getRecords()
+				   +" records logged in "+memory.getCommits()+" commits"); 
+		Runtime.getRuntime().halt(3); 
+	    }
+	}
+	memory.close(); 
+	System.out.println("digest "+Long.toHexString(digest(memory))+" ("+memory.size()+" pairs)"); 
+    }
+
+    /** Run a process, return the last line it printed */
+    static String child(File dir,int nbEpisodes,int crash)throws Exception{
+	ProcessBuilder pb=new ProcessBuilder(System.getProperty("java.home")+File.separator+"bin"+File.separator+"java",
+					     "-cp",System.getProperty("java.class.path"),"CheckpointExample",
+					     "run",dir.getPath(),""+nbEpisodes,""+crash); 
+	pb.redirectErrorStream(true); 
+	Process p=pb.start(); 
+	BufferedReader r=new BufferedReader(new InputStreamReader(p.getInputStream())); 
+	String line,last=null; 
+	while((line=r.readLine())!=null){
+	    System.out.println("  "+line); 
+	    last=line; 
+	}
+	p.waitFor(); 
+	return last; 
+    }
+
+    static void delete(File dir){
+	File files[]=dir.listFiles(); 
+	if(files!=null) for(int i=0;i<files.length;i++) files[i].delete(); 
+	dir.delete(); 
+    }
+
+    public static void main(String args[])throws Exception{
+	if(args.length>0&&args[0].equals("run")){
+	    run(new File(args[1]),Integer.parseInt(args[2]),Integer.parseInt(args[3])); 
+	    return; 
+	}
+	int nbEpisodes=args.length>0?Integer.parseInt(args[0]):2000; 
+	int crash=args.length>1?Integer.parseInt(args[1]):1234; 
+	File tmp=new File(System.getProperty("java.io.tmpdir")); 
+	File interrupted=new File(tmp,"checkpoint-example-1"); 
+	File reference=new File(tmp,"checkpoint-example-2"); 
+	delete(interrupted); 
+	delete(reference); 
+	System.out.println("interrupted run :"); 
+	child(interrupted,nbEpisodes,crash); 
+	String resumed=child(interrupted,nbEpisodes,0); 
+	System.out.println("uninterrupted run :"); 
+	String whole=child(reference,nbEpisodes,0); 
+	System.out.println(resumed.equals(whole)?"same tables":"the tables differ"); 
+	delete(interrupted); 
+	delete(reference); 
+    }
+}
@@ -0,0 +1,78 @@
+/** Distillation of a large Q(s,a) table into a neural network, first 
+through extractDataset() (a Dataset holding the coding of every pair), 
+then through a PairDatasetView (pairs coded when they are read). 
+
+The table covers every pair of an empty maze, the value of a pair 
+decreasing with the distance to the corner (0,0). Both networks start 
+from the same weights and see the samples in the same order : their 
+errors must be equal. Prints the heap needed by each dataset, the time 
+of the training and the error of the last epoch. 
+
+Arguments : size of the maze (200), number of epochs (2).
+*/
+
+import dataset.Dataset;
+import mazes.*;
+import neuralnetwork.NeuralNetwork;
+import qlearning.PairDatasetView;
+import qlearning.RewardMemorizer;
+import util.RandomSource;
+
+
+public class DatasetViewExample{
+
+    static long usedHeap(){
+	Runtime r=Runtime.getRuntime(); 
+	for(int i=0;i<3;i++) System.gc(); 
+	return r.totalMemory()-r.freeMemory(); 
+    }
+
+    static NeuralNetwork network(int epochs){
+	RandomSource.setSeed(45); 
+	NeuralNetwork nn=new NeuralNetwork(new int[]{29,10,1}); 
+	nn.initNetwork(); 
+	nn.setEpoch(epochs); 
+	return nn; 
+    }
+
+    public static void main(String args[])throws Exception{
+	int taille=args.length>0?Integer.parseInt(args[0]):200; 
+	int epochs=args.length>1?Integer.parseInt(args[1]):2; 
+	Maze cnossos=new Maze(taille,taille); 
+	RewardMemorizer memory=new RewardMemorizer(); 
+	for(int x=0;x<taille;x++)
+	    for(int y=0;y<taille;y++){
+		MazeState s=new MazeState(x,y,cnossos); 
+		for(int o=0;o<8;o++)
+		    memory.put(s,MazeAction.valueOf(o),null,-(x+y)/(2.0*taille)); 
+	    }
+	System.out.println(memory.size()+" pairs"); 
+	long base=usedHeap(); 
+
+	Dataset d=memory.extractDataset(); 
+	long heap=usedHeap()-base; 
+	NeuralNetwork nn=network(epochs); 
+	long start=System.currentTimeMillis(); 
+	nn.learnFromDatasetNonStochastic(d); 
+	long time=System.currentTimeMillis()-start; 
+	double error=nn.getSE(); 
+	System.out.println("Dataset : "+heap/1024+" KB, "+time+" ms, error "+error); 
+	d=null; 
+	base=usedHeap(); 
+
+	PairDatasetView view=new PairDatasetView(memory); 
+	heap=usedHeap()-base; 
+	nn=network(epochs); 
+	start=System.currentTimeMillis(); 
+	nn.learnFromSource(view,false); 
+	time=System.currentTimeMillis()-start; 
+	System.out.println("view    : "+heap/1024+" KB, "+time+" ms, error "+nn.getSE()
+			   +(nn.getSE()==error?" (same)":" (DIFFERENT)")); 
+
+	nn=network(epochs); 
+	start=System.currentTimeMillis(); 
+	nn.learnFromSource(view,true); 
+	time=System.currentTimeMillis()-start; 
+	System.out.println("view, shuffled at each epoch : "+time+" ms, error "+nn.getSE()); 
+    }
+}
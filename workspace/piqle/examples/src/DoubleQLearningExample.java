@@ -0,0 +1,162 @@
+/** The gambler problem (see GamblerTest), learnt by Q-Learning and by 
+Double Q-Learning (see DoubleQLearningSelector), with the same constant 
+learning rate, for each of the three exploration policies. 
+
+Every 1000 episodes, the greedy policy of each agent is evaluated 
+exactly (the model of the game is known). Averaged over several seeds, 
+prints the number of episodes after which its mean value over all 
+capitals stays above a given fraction of the optimal one (more than the 
+number of episodes if it ends below), the value of the final greedy policy, the bias of 
+max_a Q(s,a) relative to V*(s) at the end, and the number of learning 
+steps per second. Then times both selectors learning from the same 
+random transitions, without acting. 
+
+Arguments : number of episodes (30000), target fraction (0.95), number 
+of seeds (3).
+*/
+
+import java.util.Random;
+
+import agents.LoneAgent;
+import algorithms.*;
+import gambler.ActionGambler;
+import gambler.GamblerGame;
+import gambler.GamblerState;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+
+public class DoubleQLearningExample{
+
+    static final double P=0.4; 
+
+    /** Value of each capital under the greedy policy of algo */
+    static double[] evaluate(GamblerGame casino,AbstractMemorySelector algo){
+	int bet[]=new int[100]; 
+	for(int i=1;i<100;i++){
+	    GamblerState e=new GamblerState(casino,i);
+	    double max=Double.NEGATIVE_INFINITY; 
+	    for(int j=1;j<=Math.min(i,100-i);j++){
+		double q=algo.getValue(e,ActionGambler.valueOf(j)); 
+		if(q>max){max=q; bet[i]=j;}
+	    }
+	}
+	double v[]=new double[101]; 
+	v[100]=1.0; 
+	for(int sweep=0;sweep<10000;sweep++){
+	    double delta=0.0; 
+	    for(int i=1;i<100;i++){
+		double u=P*v[i+bet[i]]+(1-P)*v[i-bet[i]]; 
+		delta=Math.max(delta,Math.abs(u-v[i])); 
+		v[i]=u; 
+	    }
+	    if(delta<1e-12) break; 
+	}
+	return v; 
+    }
+
+    static double mean(double v[]){
+	double s=0.0; 
+	for(int i=1;i<100;i++) s+=v[i]; 
+	return s/99; 
+    }
+
+    /** Episodes to the target, final greedy value, bias, steps, time */
+    static double results[]=new double[5]; 
+
+    static void run(AbstractMemorySelector algo,int policy,int nbEpisodes,
+		    double fraction,long seed){
+	RandomSource.setSeed(seed);
+	GamblerGame casino=new GamblerGame(P);
+	casino.computeVStar(1.0); 
+	double optimal[]=new double[101]; 
+	for(int i=1;i<100;i++) optimal[i]=casino.getVStar(new GamblerState(casino,i)); 
+	algo.setGamma(1.0);
+	algo.setEpsilon(0.5);
+	algo.setTau(0.05); 
+	if(policy==1) algo.setBoltzmann(); 
+	if(policy==2) algo.setRouletteWheel(); 
+	algo.setLearningRateSchedule(new ConstantSchedule(0.05)); 
+	LoneAgent joueur=new LoneAgent(casino,algo);
+	OnePlayerReferee arbitre=new OnePlayerReferee(joueur);
+	arbitre.setMaxIter(10000);
+	Random generateur=RandomSource.newGenerator();
+	long steps=0, time=0; 
+	int reached=1000; 
+	for(int i=1;i<=nbEpisodes;i++){
+	    long start=System.nanoTime(); 
+	    steps+=arbitre.episode(new GamblerState(casino,generateur.nextInt(99)+1));
+	    time+=System.nanoTime()-start; 
+	    if((i%1000==0)&&(mean(evaluate(casino,algo))<fraction*mean(optimal))) 
+		reached=i+1000; 
+	}
+	double bias=0.0; 
+	for(int i=1;i<100;i++){
+	    GamblerState e=new GamblerState(casino,i);
+	    double max=Double.NEGATIVE_INFINITY; 
+	    for(int j=1;j<=Math.min(i,100-i);j++)
+		max=Math.max(max,algo.getValue(e,ActionGambler.valueOf(j))); 
+	    bias+=(max-optimal[i])/99; 
+	}
+	results[0]+=reached; 
+	results[1]+=mean(evaluate(casino,algo)); 
+	results[2]+=bias; 
+	results[3]+=steps; 
+	results[4]+=time; 
+    }
+
+    static String round(double x){
+	return ""+Math.round(1e4*x)/1e4; 
+    }
+
+    public static void main(String args[]){
+	int nbEpisodes=args.length>0?Integer.parseInt(args[0]):30000;
+	double fraction=args.length>1?Double.parseDouble(args[1]):0.95;
+	int nbSeeds=args.length>2?Integer.parseInt(args[2]):3;
+	String policies[]={"epsilon-greedy","Boltzmann     ","roulette wheel"}; 
+	// warm up
+	run(new QLearningSelector(),0,nbEpisodes/10,fraction,0); 
+	run(new DoubleQLearningSelector(),0,nbEpisodes/10,fraction,0); 
+	for(int policy=0;policy<3;policy++)
+	    for(int d=0;d<2;d++){
+		results=new double[5]; 
+		for(int seed=0;seed<nbSeeds;seed++)
+		    run(d==0?(AbstractMemorySelector)new QLearningSelector():new DoubleQLearningSelector(),
+			policy,nbEpisodes,fraction,50+seed); 
+		System.out.println((d==0?"Q-Learning,        ":"Double Q-Learning, ")+policies[policy]
+				   +" : above target after "+(long)(results[0]/nbSeeds)+" episodes"
+				   +", greedy value "+round(results[1]/nbSeeds)
+				   +", bias of max Q "+round(results[2]/nbSeeds)
+				   +", "+(long)(results[3]/(results[4]/1e9))+" steps/s"); 
+	    }
+	GamblerGame casino=new GamblerGame(P); 
+	int n=1000000; 
+	GamblerState from[]=new GamblerState[n], to[]=new GamblerState[n]; 
+	ActionGambler bets[]=new ActionGambler[n]; 
+	RandomSource.setSeed(50); 
+	Random generateur=RandomSource.newGenerator(); 
+	for(int i=0;i<n;i++){
+	    int c=generateur.nextInt(99)+1; 
+	    int b=generateur.nextInt(Math.min(c,100-c))+1; 
+	    from[i]=new GamblerState(casino,c); 
+	    bets[i]=ActionGambler.valueOf(b); 
+	    to[i]=new GamblerState(casino,generateur.nextDouble()<P?c+b:c-b); 
+	}
+	for(int d=0;d<2;d++){
+	    AbstractMemorySelector algo=d==0?(AbstractMemorySelector)new QLearningSelector():new DoubleQLearningSelector(); 
+	    algo.setGamma(1.0); 
+	    algo.setLearningRateSchedule(new ConstantSchedule(0.05)); 
+	    for(int round=0;round<3;round++){
+		long start=System.nanoTime(); 
+		for(int i=0;i<n;i++) 
+		    algo.learn(from[i],to[i],bets[i],to[i].getValue()==100?1:0); 
+		if(round==2) 
+		    System.out.println((d==0?"Q-Learning        ":"Double Q-Learning ")+" : "
+				       +(System.nanoTime()-start)/n+" ns per learning step"); 
+	    }
+	}
+	casino.computeVStar(1.0); 
+	double v=0.0; 
+	for(int i=1;i<100;i++) v+=casino.getVStar(new GamblerState(casino,i))/99; 
+	System.out.println("optimal value "+round(v)); 
+    }
+}
@@ -0,0 +1,172 @@
+/** The central cross maze of SimpleMazeExample, made slow : each move 
+takes some time, as for a real robot. Learnt by Q-Learning, then by 
+Dyna-Q planning in the background while the agent waits for the maze 
+(see DynaQSelector), with a budget per real step, then per second. 
+
+For each algorithm, prints the number of real steps and of episodes 
+needed to reach a given average reward over the last 100 episodes, the 
+number of planning backups, and the duration of the run. 
+
+The same comparison is then made on the acrobot, as slow as the maze : 
+its continuous states are quantized on a 10x10x10x10 grid, both for the 
+values (see QuantizedRewardStore) and for the model, which numbers the 
+states by cell and counts the outcomes of each (cell, action). Prints 
+the number of real steps of 300 episodes, and the mean length of the 
+first and last 50 ones. 
+
+Arguments : size of the maze (20), duration of a move in microseconds 
+(50), target average reward (-25).
+*/
+
+import java.util.concurrent.locks.LockSupport;
+
+import acrobot.Acrobot;
+import agents.LoneAgent;
+import environment.IAction;
+import environment.IMutableState;
+import environment.IState;
+import environment.StateQuantizer;
+import mazes.*;
+import qlearning.ConcurrentRewardMemorizer;
+import qlearning.QuantizedRewardStore;
+import qlearning.RewardMemorizer;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class DynaQExample{
+
+    /** Same design as in SimpleMazeExample, each move taking 'delay' ns */
+    static Maze slowMaze(int taille,final long delay){
+	Maze cnossos=new Maze(taille,taille){
+		public IState successorState(IState s,IAction a){
+		    long end=System.nanoTime()+delay; 
+		    while(System.nanoTime()<end) LockSupport.parkNanos(end-System.nanoTime()); 
+		    return super.successorState(s,a); 
+		}
+	    }; 
+	int design[][]=new int[taille][];
+	for(int i=0;i<taille;i++) design[i]=new int[taille];
+	for(int i=((taille+1)/3);i<(2*(taille/3));i++)
+	    for(int j=3;j<taille-2;j++) design[i][j]=1;
+	for(int j=(taille+1)/3;j<(2*(taille/3));j++)
+	    for(int i=2;i<taille-2;i++) design[i][j]=1;
+	design[2][2]=2;
+	cnossos.setDesign(design);
+	return cnossos;
+    }
+
+    /** The acrobot, each move taking 'delay' ns */
+    static Acrobot slowAcrobot(final long delay){
+	return new Acrobot(){
+		public void successorState(IState s,IAction a,IMutableState target){
+		    long end=System.nanoTime()+delay; 
+		    while(System.nanoTime()<end) LockSupport.parkNanos(end-System.nanoTime()); 
+		    super.successorState(s,a,target); 
+		}
+	    }; 
+    }
+
+    /** 10 cells for each angle and each speed */
+    static StateQuantizer acrobotGrid(){
+	StateQuantizer grid=new StateQuantizer(); 
+	grid.addDimension(-Math.PI,Math.PI,10); 
+	grid.addDimension(-Math.PI,Math.PI,10); 
+	grid.addDimension(-4*Math.PI,4*Math.PI,10); 
+	grid.addDimension(-9*Math.PI,9*Math.PI,10); 
+	return grid; 
+    }
+
+    static void runAcrobot(String name,Acrobot acro,AbstractMemorySelector sql)throws Exception{
+	sql.setEpsilon(0.0);
+	sql.setGamma(1);
+	sql.setAlpha(0.2);
+	sql.setGeometricAlphaDecay();
+	sql.setDecay(1);
+	LoneAgent agent=new LoneAgent(acro,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(agent);
+	arbitre.setMaxIter(2000);
+	long steps=0, first=0, last=0; 
+	long start=System.currentTimeMillis(); 
+	for(int episode=0;episode<300;episode++){
+	    int n=arbitre.episode(acro.defaultInitialState()); 
+	    steps+=n; 
+	    if(episode<50) first+=n; 
+	    if(episode>=250) last+=n; 
+	}
+	long time=System.currentTimeMillis()-start; 
+	String planning=""; 
+	if(sql instanceof DynaQSelector){
+	    DynaQSelector dyna=(DynaQSelector)sql; 
+	    dyna.stopPlanning(); 
+	    planning=dyna.getPlanningUpdates()+" planning backups, "; 
+	}
+	System.out.println(name+" : "+steps+" real steps, mean length "+first/50
+			   +" then "+last/50+", "+planning+time+" ms"); 
+    }
+
+    static void run(String name,Maze cnossos,AbstractMemorySelector sql,double target)throws Exception{
+	sql.setEpsilon(0.1);
+	sql.setGamma(1);
+	sql.setAlpha(0.5);
+	sql.setGeometricAlphaDecay();
+	sql.setDecay(1);
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(300);
+	double recent[]=new double[100]; 
+	double sum=0.0; 
+	long steps=0; 
+	int episode=0; 
+	long start=System.currentTimeMillis(); 
+	while(episode<20000){
+	    cnossos.randomInitialState();
+	    steps+=arbitre.episode(cnossos.defaultInitialState());
+	    double r=arbitre.getRewardForEpisode(); 
+	    sum+=r-recent[episode%100]; 
+	    recent[episode%100]=r; 
+	    episode++; 
+	    if((episode>=100)&&(sum/100>=target)) break; 
+	}
+	long time=System.currentTimeMillis()-start; 
+	String planning=""; 
+	if(sql instanceof DynaQSelector){
+	    DynaQSelector dyna=(DynaQSelector)sql; 
+	    dyna.stopPlanning(); 
+	    planning=dyna.getPlanningUpdates()+" planning backups, "; 
+	}
+	System.out.println(name+" : "+steps+" real steps, "+episode+" episodes, "
+			   +planning+time+" ms"); 
+    }
+
+    public static void main(String args[])throws Exception{
+	int taille=args.length>0?Integer.parseInt(args[0]):20; 
+	long delay=1000*(args.length>1?Long.parseLong(args[1]):50); 
+	double target=args.length>2?Double.parseDouble(args[2]):-25.0; 
+
+	RandomSource.setSeed(48); 
+	run("Q-Learning                 ",slowMaze(taille,delay),new QLearningSelector(),target); 
+
+	RandomSource.setSeed(48); 
+	DynaQSelector dyna=new DynaQSelector(); 
+	dyna.setPlanningRatio(10); 
+	run("Dyna-Q, 10 backups/step    ",slowMaze(taille,delay),dyna,target); 
+
+	RandomSource.setSeed(48); 
+	dyna=new DynaQSelector(); 
+	dyna.setPlanningRate(200000); 
+	run("Dyna-Q, 200000 backups/s   ",slowMaze(taille,delay),dyna,target); 
+
+	RandomSource.setSeed(48); 
+	runAcrobot("Acrobot, Q-Learning        ",slowAcrobot(delay),
+		   new QLearningSelector(new QuantizedRewardStore(new RewardMemorizer(),acrobotGrid()))); 
+
+	// sample-based model : the states of a cell do not all move to the same cell
+	RandomSource.setSeed(48); 
+	dyna=new DynaQSelector(new QuantizedRewardStore(new ConcurrentRewardMemorizer(),acrobotGrid()),false); 
+	dyna.setPlanningRatio(10); 
+	dyna.setPlanningAlpha(0.2); 
+	runAcrobot("Acrobot, Dyna-Q, 10/step   ",slowAcrobot(delay),dyna); 
+    }
+}
@@ -7,10 +7,12 @@ import gambler.*;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 public class GamblerTest{
 
     public static void main(String[] argv){ 
-	Random generateur=new Random(); 
+	Random generateur=RandomSource.current(); 
 
 	// Conditions defined in Sutton & Barto
 	double proba=0.4; 
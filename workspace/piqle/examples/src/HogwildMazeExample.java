@@ -0,0 +1,80 @@
+/** Asynchronous Q-Learning in the central cross maze of SimpleMazeExample :
+several actors, each one in its own copy of the maze, share the same Q(s,a) memory.
+
+For 1, 2, 4 and 8 actors, prints the wall clock time needed to reach a given
+average reward, and the speed-up relative to a single actor.
+
+*/
+
+import java.util.ArrayList;
+
+import agents.IAgent;
+import agents.LoneAgent;
+import environment.IState;
+import mazes.*;
+import qlearning.ConcurrentRewardMemorizer;
+import referees.HogwildReferee;
+import referees.IStopCondition;
+import algorithms.*;
+
+
+public class HogwildMazeExample{
+
+    /** Same design as in SimpleMazeExample */
+    static Maze buildMaze(int taille){
+	Maze cnossos=new Maze(taille,taille);
+	int design[][]=new int[taille][];
+	for(int i=0;i<taille;i++) {
+	    design[i]=new int[taille];
+	    for(int j=0;j<taille;j++)  design[i][j]=0;
+	}
+	for(int i=((taille+1)/3);i<(2*(taille/3));i++)
+	    for(int j=3;j<taille-2;j++) design[i][j]=1;
+	for(int j=(taille+1)/3;j<(2*(taille/3));j++)
+	    for(int i=2;i<taille-2;i++) design[i][j]=1;
+	design[2][2]=2;
+	cnossos.setDesign(design);
+	return cnossos;
+    }
+
+    public static void main(String args[])throws Exception{
+	int taille=20;
+	final double target=-25.0;
+	int nbThreads[]={1,2,4,8};
+	long reference=0;
+	for(int k=0;k<nbThreads.length;k++){
+	    ConcurrentRewardMemorizer shared=new ConcurrentRewardMemorizer();
+	    HogwildReferee arbitre=new HogwildReferee(){
+		    protected IState initialState(IAgent a){
+			Maze m=(Maze)a.getEnvironment();
+			m.randomInitialState();
+			return m.defaultInitialState();
+		    }
+		};
+	    for(int t=0;t<nbThreads[k];t++){
+		QLearningSelector sql=new QLearningSelector(shared);
+		sql.setEpsilon(0.1);
+		sql.setGamma(1);
+		sql.setAlpha(0.5);
+		sql.setGeometricAlphaDecay();
+		sql.setDecay(1);
+		arbitre.add(new LoneAgent(buildMaze(taille),sql));
+	    }
+	    arbitre.setMaxIter(300);
+	    arbitre.setMaxEpisodes(200000);
+	    arbitre.setWindow(200);
+	    arbitre.setStopCondition(new IStopCondition(){
+		    public boolean isSatisfied(int episodes,double averageReward){
+			return averageReward>=target;
+		    }
+		});
+	    int episodes=arbitre.run();
+	    long time=arbitre.getElapsedTime();
+	    if(k==0) reference=time;
+	    System.out.println(nbThreads[k]+" threads : "+episodes+" episodes, "
+			       +time+" ms, "+shared.size()+" pairs, speed-up "
+			       +(reference/(Math.max(time,1)+0.0))
+			       +(arbitre.isStopConditionReached()?"":" (target not reached)"));
+	}
+    }
+}
@@ -0,0 +1,87 @@
+/* Moving states in place on three continuous problems : the mountain car,
+   the acrobot (CLSquare version, Runge-Kutta integration) and a circular 
+   circuit. Each problem is learnt twice with the same seed : once by an 
+   agent building a new state at each step, once by an agent overwriting 
+   its two state buffers. Prints, for both, the number of steps, the 
+   total reward (identical : the trajectories are the same), the bytes 
+   allocated per step and the time taken (measured on a second round, 
+   once the code is compiled).
+*/
+
+import acrobot.*; 
+import mobileRobot.*; 
+import mountaincar.*; 
+import agents.LoneAgent; 
+import algorithms.*; 
+import environment.IAction; 
+import environment.IEnvironmentSingle; 
+import environment.IState; 
+import environment.StateQuantizer; 
+import qlearning.QuantizedRewardStore; 
+import qlearning.RewardMemorizer; 
+import referees.OnePlayerReferee; 
+import util.AllocationMeter; 
+import util.RandomSource; 
+
+public class InPlaceStepsExample{
+
+    /** An agent ignoring the in-place contract */
+    static class AllocatingAgent extends LoneAgent{
+	private static final long serialVersionUID = 1L;
+	AllocatingAgent(IEnvironmentSingle s,QLearningSelector sel){super(s,sel);}
+	protected IState successor(IState s,IAction a){return s.modify(a);}
+    }
+
+    static IEnvironmentSingle problem(int k){
+	switch(k){
+	case 0 : return new MountainCar(); 
+	case 1 : return new AcrobotCLS2(); 
+	default : return new CircularCircuit(50.0,150.0); 
+	}
+    }
+
+    static void run(int k,boolean inPlace,int nbEpisodes,boolean verbose){
+	RandomSource.setSeed(37); 
+	IEnvironmentSingle env=problem(k); 
+	QLearningSelector sel; 
+	if(k==1){
+	    StateQuantizer grid=new StateQuantizer(); 
+	    grid.addDimension(-Math.PI,Math.PI,10); 
+	    grid.addDimension(-Math.PI,Math.PI,10); 
+	    grid.addDimension(-4*Math.PI,4*Math.PI,10); 
+	    grid.addDimension(-9*Math.PI,9*Math.PI,10); 
+	    sel=new QLearningSelector(new QuantizedRewardStore(new RewardMemorizer(),grid)); 
+	}
+	else 
+	    sel=new QLearningSelector(); 
+	sel.setAlpha(0.1);
+	sel.setGamma(1.0); 
+	sel.setGeometricAlphaDecay(); 
+	sel.setDecay(1.0); 
+	sel.setEpsilon(0.05); 
+	LoneAgent agent=inPlace?new LoneAgent(env,sel):new AllocatingAgent(env,sel); 
+	OnePlayerReferee arbitre=new OnePlayerReferee(agent);
+	arbitre.setMaxIter(1000); 
+	long steps=0; 
+	double reward=0.0; 
+	AllocationMeter meter=new AllocationMeter(); 
+	long start=System.currentTimeMillis(); 
+	for(int i=0;i<nbEpisodes;i++){
+	    steps+=arbitre.episode(env.defaultInitialState()); 
+	    reward+=arbitre.getRewardForEpisode(); 
+	}
+	long time=System.currentTimeMillis()-start; 
+	if(verbose) System.out.println(env.getClass().getSimpleName()+(inPlace?" in place  : ":" allocating : ")
+			   +steps+" steps, total reward "+reward+", "
+			   +(meter.getBytes()/steps)+" bytes/step, "+time+" ms"); 
+    }
+
+    public static void main(String argv[]){
+	int episodes[]={1000,100,1000}; 
+	for(int k=0;k<3;k++)
+	    for(int round=0;round<2;round++){
+		run(k,false,episodes[k],round==1); 
+		run(k,true,episodes[k],round==1); 
+	    }
+    }
+}
@@ -0,0 +1,62 @@
+/** Q-Learning in the central cross maze of SimpleMazeExample, with the 
+learning rate decaying with the number of steps of the agent (the 
+default, alpha=1/count^0.8), then with a learning rate for each pair, 
+decaying with the number of its backups (see ILearningRateSchedule). 
+
+With the global rate, the pairs met late learn with tiny rates : for 
+each setting, prints the number of steps and of episodes needed to reach 
+a given average reward over the last 100 episodes (or the average reached 
+after 20000 episodes), and the time per step. 
+
+Arguments : size of the maze (20), target average reward (-25).
+*/
+
+import agents.LoneAgent;
+import mazes.*;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class LearningRateExample{
+
+    static void run(String name,int taille,ILearningRateSchedule schedule,double target){
+	RandomSource.setSeed(49); 
+	Maze cnossos=HogwildMazeExample.buildMaze(taille);
+	QLearningSelector sql=new QLearningSelector();
+	sql.setEpsilon(0.1);
+	sql.setGamma(1);
+	sql.setLearningRateSchedule(schedule); 
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(300);
+	double recent[]=new double[100]; 
+	double sum=0.0; 
+	long steps=0; 
+	int episode=0; 
+	long start=System.nanoTime(); 
+	while(episode<20000){
+	    cnossos.randomInitialState();
+	    steps+=arbitre.episode(cnossos.defaultInitialState());
+	    double r=arbitre.getRewardForEpisode(); 
+	    sum+=r-recent[episode%100]; 
+	    recent[episode%100]=r; 
+	    episode++; 
+	    if((episode>=100)&&(sum/100>=target)) break; 
+	}
+	long time=System.nanoTime()-start; 
+	System.out.println(name+" : "+steps+" steps, "+episode+" episodes"
+			   +(sum/100>=target?"":" (average "+sum/100+")")
+			   +", "+time/steps+" ns/step"); 
+    }
+
+    public static void main(String args[]){
+	int taille=args.length>0?Integer.parseInt(args[0]):20; 
+	double target=args.length>1?Double.parseDouble(args[1]):-25.0; 
+	run("global 1/count^0.8  ",taille,null,target); 
+	run("per pair 1/n^0.8    ",taille,new PolynomialSchedule(0.8),target); 
+	run("per pair 1/n^0.6    ",taille,new PolynomialSchedule(0.6),target); 
+	run("per pair 10/(10+n-1)",taille,new HarmonicSchedule(10),target); 
+	run("constant 0.5        ",taille,new ConstantSchedule(0.5),target); 
+    }
+}
@@ -0,0 +1,80 @@
+/* The arm of TestMaabac, learnt three ways :
+   - each muscle with its own memory (as in TestMaabac) ;
+   - all muscles sharing one memory ;
+   - one memory shared by role : the first muscle of each segment on one 
+     side, the second one on the other.
+   Each muscle keeps its own selector (learning rate, exploration).
+   Prints the mean episode length along learning, and the total number of
+   Q(s,a) values stored.
+*/
+
+import environment.IState; 
+import agents.SwarmArray; 
+import algorithms.*;
+import qlearning.RewardMemorizer; 
+import qlearning.RoleRewardStore; 
+import referees.OnePlayerReferee; 
+import maabac.ArmN;
+import maabac.Muscle; 
+import maabac.ElementaryMuscleEnvironment;
+import maabac.MuscleFilter; 
+import util.RandomSource;
+
+public class MaabacSharedMemoryExample{
+
+    static final int INDEPENDENT=0, SHARED=1, BY_ROLE=2; 
+    static final String names[]={"independent","shared","shared by role"}; 
+
+    static void train(int nbseg,int mode,int nbEpisodes,int block){
+	RandomSource.setSeed(7); 
+	ArmN bras=new ArmN(nbseg,0.5,3.5,0.2); 
+	SwarmArray essaim=new SwarmArray(bras); 
+	int contr[]=new int[2*nbseg];
+	int maxi[]=new int[2*nbseg];
+	for(int i=0;i<2*nbseg;i++) maxi[i]=50; 
+	bras.setState(contr,maxi); 
+	IState depart=bras.defaultInitialState(); 
+	RewardMemorizer common=new RewardMemorizer(); 
+	RewardMemorizer own[]=new RewardMemorizer[2*nbseg]; 
+	for(int i=0;i<2*nbseg;i++){
+	    QLearningSelector guru=new QLearningSelector(); 
+	    guru.setBoltzmann(); 
+	    guru.setGamma(1.0);  
+	    guru.setAlpha(0.1);  
+	    guru.setGeometricAlphaDecay(); 
+	    guru.setDecay(1); 
+	    guru.setTau(0.5); 
+	    switch(mode){
+	    case INDEPENDENT : own[i]=(RewardMemorizer)guru.getMemory(); break; 
+	    case SHARED : guru.setMemory(common); break; 
+	    case BY_ROLE : guru.setMemory(new RoleRewardStore(common,i%2)); break; 
+	    }
+	    essaim.add(new Muscle(new ElementaryMuscleEnvironment(),
+				  guru,new MuscleFilter(i),depart)); 
+	} 
+	OnePlayerReferee arbitre=new OnePlayerReferee(essaim); 
+	arbitre.setMaxIter(1000); 
+	StringBuffer curve=new StringBuffer(); 
+	double total=0.0; 
+	for(int i=1;i<=nbEpisodes;i++){
+	    total+=arbitre.episode(depart); 
+	    if(i%block==0){
+		curve.append(" "+(int)(total/block)); 
+		total=0.0; 
+	    }
+	}
+	int size=common.size(); 
+	if(mode==INDEPENDENT){
+	    size=0; 
+	    for(int i=0;i<own.length;i++) size+=own[i].size(); 
+	}
+	System.out.println(names[mode]+" : "+size+" Q(s,a) stored, mean length by "
+			   +block+" episodes :"+curve); 
+    }
+
+    public static void main(String argv[]){
+	int nbseg=4; 
+	for(int mode=INDEPENDENT;mode<=BY_ROLE;mode++)
+	    train(nbseg,mode,1000,100); 
+    }
+}
@@ -12,6 +12,8 @@ import qlearning.*;
 
 
 import java.util.Random; 
+
+import util.RandomSource;
 public class MazeTest{
 
 
@@ -28,7 +30,7 @@ public class MazeTest{
 	//int design[][]={{0,0,0,0,0,0,0,0,0,0},{1,1,1,1,0,0,0,0,0,0},{1,0,0,1,0,0,0,0,0,0},{1,0,1,1,0,0,0,0,0,0},{0,0,0,0,0,0,0,0,0,0},{0,0,0,0,0,0,0,0,0,0},{0,0,0,1,1,1,1,1,0,0},{0,0,0,0,1,1,0,0,0,0},{0,0,0,1,1,1,1,1,0,0},{0,0,0,0,0,0,0,0,0,0}}; 
 	//	int design[][]={{0,0,0,0,0,0,0,0,0,0},{1,1,1,1,1,1,1,1,1,0},{0,0,0,0,0,0,0,0,1,0},{0,0,0,0,0,0,0,2,1,0},{0,1,1,1,1,1,1,1,1,0},{0,0,0,0,0,0,0,0,1,0},{1,1,1,1,1,1,1,0,1,0},{0,0,0,0,0,0,0,0,1,0},{0,1,1,1,1,1,1,1,1,0},{0,0,0,0,0,0,0,0,0,0}}; 
 	
-	Random generateur=new Random(); 
+	Random generateur=RandomSource.current(); 
 	
 	int design[][]=new int[taille][]; 
 	for(int i=0;i<taille;i++) {
@@ -0,0 +1,60 @@
+/* Tabular Q-Learning on the mountain car, with states quantized on a 
+   20x20 grid (position x speed) before reaching the memory.
+   The same learning without quantization (states compared with a 
+   tolerance, as in MountainGraphic) is run for comparison.
+   Prints the mean episode length every 200 episodes and the number of 
+   values stored.
+*/
+
+import mountaincar.*; 
+import algorithms.*; 
+import agents.LoneAgent; 
+import environment.StateQuantizer; 
+import qlearning.QuantizedRewardStore; 
+import qlearning.RewardMemorizer; 
+import referees.OnePlayerReferee; 
+import util.RandomSource; 
+
+public class MountainCarQuantizedExample{
+
+    static void train(boolean quantized,int nbEpisodes){
+	RandomSource.setSeed(3); 
+	MountainCar alpes=new MountainCar(); 
+	RewardMemorizer table=new RewardMemorizer(); 
+	QLearningSelector sel; 
+	if(quantized){
+	    StateQuantizer grid=new StateQuantizer(); 
+	    grid.addDimension(-1.5,0.45,20); 
+	    grid.addDimension(-0.07,0.07,20); 
+	    sel=new QLearningSelector(new QuantizedRewardStore(table,grid)); 
+	}
+	else 
+	    sel=new QLearningSelector(table); 
+	sel.setAlpha(0.1);
+	sel.setGamma(1.0); 
+	sel.setGeometricAlphaDecay(); 
+	sel.setDecay(1.0); 
+	sel.setEpsilon(0.05); 
+	LoneAgent car=new LoneAgent(alpes,sel); 
+	OnePlayerReferee arbitre=new OnePlayerReferee(car);
+	arbitre.setMaxIter(2000); 
+	StringBuffer curve=new StringBuffer(); 
+	double total=0.0; 
+	long start=System.currentTimeMillis(); 
+	for(int i=1;i<=nbEpisodes;i++){
+	    total+=arbitre.episode(alpes.defaultInitialState()); 
+	    if(i%200==0){
+		curve.append(" "+(int)(total/200)); 
+		total=0.0; 
+	    }
+	}
+	System.out.println((quantized?"quantized":"tolerance")+" : "+table.size()
+			   +" Q(s,a) stored, "+(System.currentTimeMillis()-start)
+			   +" ms, mean length :"+curve); 
+    }
+
+    public static void main(String argv[]){
+	train(true,2000); 
+	train(false,2000); 
+    }
+}
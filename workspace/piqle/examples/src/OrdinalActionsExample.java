@@ -0,0 +1,72 @@
+/* Q-Learning on the gambler problem (see GamblerTest), with the same
+   seeds, first with a RewardMemorizer (one key per state/action pair),
+   then with an OrdinalRewardMemorizer (one row per state, indexed by the
+   ordinal of the bets, which are shared instances, see ActionRegistry).
+
+   Both runs must learn exactly the same values ; prints the time of each
+   run and the largest difference between the two Q tables.
+*/
+
+import java.util.Random;
+
+import agents.LoneAgent;
+import algorithms.QLearningSelector;
+import gambler.ActionGambler;
+import gambler.GamblerGame;
+import gambler.GamblerState;
+import qlearning.IRewardStore;
+import qlearning.OrdinalRewardMemorizer;
+import qlearning.RewardMemorizer;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+
+public class OrdinalActionsExample{
+
+    static long time;
+
+    static QLearningSelector learn(boolean ordinal,int nbEpisodes){
+	RandomSource.setSeed(1234);
+	GamblerGame casino=new GamblerGame(0.4);
+	RewardMemorizer keys=null;
+	OrdinalRewardMemorizer rows=null;
+	IRewardStore memory;
+	if(ordinal){
+	    // RewardMemorizer draws one generator : keep the same streams
+	    RandomSource.newGenerator();
+	    memory=rows=new OrdinalRewardMemorizer();
+	}
+	else memory=keys=new RewardMemorizer();
+	QLearningSelector algo=new QLearningSelector(memory);
+	algo.setGamma(1.0);
+	algo.setEpsilon(0.5);
+	LoneAgent joueur=new LoneAgent(casino,algo);
+	OnePlayerReferee arbitre=new OnePlayerReferee(joueur);
+	arbitre.setMaxIter(10000);
+	Random generateur=RandomSource.newGenerator();
+	long start=System.nanoTime();
+	for(int i=0;i<nbEpisodes;i++)
+	    arbitre.episode(new GamblerState(casino,generateur.nextInt(99)+1));
+	time=(System.nanoTime()-start)/1000000;
+	System.out.println((ordinal?"ordinal rows   : ":"pair keys      : ")
+			   +time+" ms, "+(ordinal?rows.size():keys.size())+" pairs");
+	return algo;
+    }
+
+    public static void main(String args[]){
+	int nbEpisodes=args.length>0?Integer.parseInt(args[0]):100000;
+	for(int round=0;round<2;round++){
+	    QLearningSelector keys=learn(false,nbEpisodes);
+	    QLearningSelector rows=learn(true,nbEpisodes);
+	    GamblerGame casino=new GamblerGame(0.4);
+	    double diff=0.0;
+	    for(int i=1;i<100;i++){
+		GamblerState e=new GamblerState(casino,i);
+		for(int j=1;j<=Math.min(i,100-i);j++){
+		    ActionGambler a=ActionGambler.valueOf(j);
+		    diff=Math.max(diff,Math.abs(keys.getValue(e,a)-rows.getValue(e,a)));
+		}
+	    }
+	    System.out.println("largest difference between the two tables : "+diff);
+	}
+    }
+}
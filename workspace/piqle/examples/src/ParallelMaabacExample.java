@@ -0,0 +1,59 @@
+/* The arm of TestMaabac, its muscles learning in parallel.
+   Prints the time needed for the same number of episodes with a
+   sequential swarm and with a ParallelSwarm.
+*/
+
+import environment.IState; 
+import agents.ParallelSwarm; 
+import algorithms.*;
+import referees.OnePlayerReferee; 
+import maabac.ArmN;
+import maabac.Muscle; 
+import maabac.ElementaryMuscleEnvironment;
+import maabac.MuscleFilter; 
+import util.RandomSource;
+
+public class ParallelMaabacExample{
+
+    static long train(int nbseg,int threshold,int nbEpisodes){
+	RandomSource.setSeed(1); 
+	ArmN bras=new ArmN(nbseg,0.5,3.5,0.2); 
+	ParallelSwarm essaim=new ParallelSwarm(bras); 
+	essaim.setThreshold(threshold); 
+	int contr[]=new int[2*nbseg];
+	int maxi[]=new int[2*nbseg];
+	for(int i=0;i<2*nbseg;i++) maxi[i]=50; 
+	bras.setState(contr,maxi); 
+	IState depart=bras.defaultInitialState(); 
+	for(int i=0;i<2*nbseg;i++){
+	    QLearningSelector guru=new QLearningSelector(); 
+	    guru.setBoltzmann(); 
+	    guru.setGamma(1.0);  
+	    guru.setAlpha(0.1);  
+	    guru.setGeometricAlphaDecay(); 
+	    guru.setDecay(1); 
+	    guru.setTau(0.5); 
+	    essaim.add(new Muscle(new ElementaryMuscleEnvironment(),
+				  guru,new MuscleFilter(i),depart)); 
+	} 
+	OnePlayerReferee arbitre=new OnePlayerReferee(essaim); 
+	arbitre.setMaxIter(1000); 
+	long start=System.currentTimeMillis(); 
+	double total=0.0; 
+	for(int i=1;i<=nbEpisodes;i++)
+	    total+=arbitre.episode(depart); 
+	long time=System.currentTimeMillis()-start; 
+	System.out.println((2*nbseg)+" muscles, "
+			   +(threshold>2*nbseg?"sequential":"parallel")+" : "
+			   +time+" ms, mean length "+(total/nbEpisodes)); 
+	return time; 
+    }
+
+    public static void main(String argv[]){
+	int nbseg=8; 
+	int nbEpisodes=200; 
+	long seq=train(nbseg,Integer.MAX_VALUE,nbEpisodes); 
+	long par=train(nbseg,1,nbEpisodes); 
+	System.out.println("speed-up "+(seq/(Math.max(par,1)+0.0))); 
+    }
+}
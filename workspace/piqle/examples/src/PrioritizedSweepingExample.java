@@ -0,0 +1,68 @@
+/** The central cross maze of SimpleMazeExample, learnt by Q-Learning, 
+then by prioritized sweeping with a growing number of backups per real 
+step (see PrioritizedSweepingSelector). 
+
+For each algorithm, prints the number of real steps (transitions met in 
+the maze) and of episodes needed to reach a given average reward over 
+the last 100 episodes, the number of backups, and the duration of the 
+run. 
+
+Arguments : size of the maze (20), target average reward (-25).
+*/
+
+import agents.LoneAgent;
+import mazes.*;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class PrioritizedSweepingExample{
+
+    static void run(String name,Maze cnossos,AbstractMemorySelector sql,double target){
+	sql.setEpsilon(0.1);
+	sql.setGamma(1);
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(300);
+	double recent[]=new double[100]; 
+	double sum=0.0; 
+	long steps=0; 
+	int episode=0; 
+	long start=System.currentTimeMillis(); 
+	while(episode<20000){
+	    cnossos.randomInitialState();
+	    steps+=arbitre.episode(cnossos.defaultInitialState());
+	    double r=arbitre.getRewardForEpisode(); 
+	    sum+=r-recent[episode%100]; 
+	    recent[episode%100]=r; 
+	    episode++; 
+	    if((episode>=100)&&(sum/100>=target)) break; 
+	}
+	System.out.println(name+" : "+steps+" real steps, "+episode+" episodes, "
+			   +(sql instanceof PrioritizedSweepingSelector?
+			     ((PrioritizedSweepingSelector)sql).getNbBackups()+" backups, ":"")
+			   +(System.currentTimeMillis()-start)+" ms"); 
+    }
+
+    public static void main(String args[]){
+	int taille=args.length>0?Integer.parseInt(args[0]):20; 
+	double target=args.length>1?Double.parseDouble(args[1]):-25.0; 
+
+	RandomSource.setSeed(47); 
+	QLearningSelector sql=new QLearningSelector();
+	sql.setAlpha(0.5);
+	sql.setGeometricAlphaDecay();
+	sql.setDecay(1);
+	run("Q-Learning              ",HogwildMazeExample.buildMaze(taille),sql,target); 
+
+	int backups[]={1,5,20}; 
+	for(int i=0;i<backups.length;i++){
+	    RandomSource.setSeed(47); 
+	    PrioritizedSweepingSelector ps=new PrioritizedSweepingSelector(); 
+	    ps.setBackups(backups[i]); 
+	    run("sweeping, "+backups[i]+" backups/step"+(backups[i]<10?" ":""),
+		HogwildMazeExample.buildMaze(taille),ps,target); 
+	}
+    }
+}
@@ -0,0 +1,96 @@
+/** Q-Learning in the central cross maze of HogwildMazeExample, with the 
+statistics of the Q(s,a) values kept by the memory at each change 
+(see QValueStatistics) : one line of statistics is written every 100 
+episodes, without walking the memory. 
+
+At the end, the statistics are checked against a computation in two 
+passes over the memory, and the run is timed again without statistics. 
+
+Arguments : size of the maze (60), number of episodes (2000), file 
+receiving the statistics (standard output if absent).
+*/
+
+import java.io.FileWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import agents.LoneAgent;
+import environment.IAction;
+import environment.IState;
+import mazes.*;
+import qlearning.IPairVisitor;
+import qlearning.RewardMemorizer;
+import referees.OnePlayerReferee;
+import statistics.QValueStatistics;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class QStatisticsExample{
+
+    static long learn(int taille,int nbEpisodes,RewardMemorizer memory,Writer out)throws Exception{
+	RandomSource.setSeed(44);
+	Maze cnossos=HogwildMazeExample.buildMaze(taille);
+	QLearningSelector sql=new QLearningSelector(memory);
+	sql.setEpsilon(0.2);
+	sql.setGamma(0.99);
+	sql.setAlpha(0.5);
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(2000);
+	QValueStatistics st=memory.getStatistics(); 
+	if(out!=null) st.writeCsvHeader(out); 
+	long start=System.nanoTime(); 
+	for(int i=1;i<=nbEpisodes;i++){
+	    cnossos.randomInitialState();
+	    arbitre.episode(cnossos.defaultInitialState());
+	    if((out!=null)&&(i%100==0)) st.writeCsv(out,i); 
+	}
+	return (System.nanoTime()-start)/1000000; 
+    }
+
+    public static void main(String args[])throws Exception{
+	int taille=args.length>0?Integer.parseInt(args[0]):60; 
+	int nbEpisodes=args.length>1?Integer.parseInt(args[1]):2000; 
+	Writer out=args.length>2?new FileWriter(args[2]):new OutputStreamWriter(System.out); 
+
+	final RewardMemorizer memory=new RewardMemorizer(); 
+	final QValueStatistics st=new QValueStatistics(-1.0,1.0,100); 
+	memory.setStatistics(st); 
+	long with=learn(taille,nbEpisodes,memory,out); 
+	out.flush(); 
+	System.out.println(st); 
+
+	// Two passes over the memory
+	final double sums[]=new double[2]; 
+	final long counts[]=new long[st.getNbBins()+2]; 
+	memory.visit(new IPairVisitor(){
+		public void visit(IState s,IAction a,double q){
+		    sums[0]+=q; 
+		}
+	    }); 
+	final double mean=sums[0]/memory.size(); 
+	memory.visit(new IPairVisitor(){
+		public void visit(IState s,IAction a,double q){
+		    sums[1]+=(q-mean)*(q-mean); 
+		    if(q<-1.0) counts[0]++; 
+		    else if(q>=1.0) counts[counts.length-1]++; 
+		    else counts[1+Math.min(st.getNbBins()-1,(int)Math.floor((q+1.0)*st.getNbBins()/2.0))]++; 
+		}
+	    }); 
+	double variance=sums[1]/memory.size(); 
+	boolean same=true; 
+	same&=counts[0]==st.getUnderflow(); 
+	same&=counts[counts.length-1]==st.getOverflow(); 
+	for(int i=0;i<st.getNbBins();i++) 
+	    same&=counts[i+1]==st.getBinCount(i); 
+	System.out.println("two passes : "+memory.size()+" pairs, mean "+mean+", variance "+variance); 
+	System.out.println("mean difference "+Math.abs(mean-st.getMean())
+			   +", variance difference "+Math.abs(variance-st.getVariance())
+			   +", same histogram : "+same); 
+
+	RewardMemorizer plain=new RewardMemorizer(); 
+	long without=learn(taille,nbEpisodes,plain,null); 
+	System.out.println("learning with statistics : "+with+" ms, without : "+without+" ms"); 
+    }
+}
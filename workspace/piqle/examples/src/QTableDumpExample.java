@@ -0,0 +1,112 @@
+/** Dumping a large Q(s,a) table : the former RewardMemorizer.toString() 
+(String concatenation in a loop, get() for every comparison), its 
+one-pass version, and a QTableExporter streaming the pairs and the greedy 
+policy to a file, as CSV, as binary, with the 3 best moves of each cell 
+only, and with a filter keeping the positive values. 
+
+The memory gets a random value for every legal pair of a square maze, 
+for several sizes of the maze ; the former listing is only timed on the 
+small ones. Prints the time of each way, in milliseconds, and the size 
+of the files. 
+*/
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+
+import environment.ActionList;
+import environment.IAction;
+import environment.IState;
+import mazes.*;
+import qlearning.ActionStatePair;
+import qlearning.IPairFilter;
+import qlearning.QTableExporter;
+import qlearning.RewardMemorizer;
+import util.RandomSource;
+
+public class QTableDumpExample{
+
+    static RewardMemorizer memory; 
+
+    /** The listing as RewardMemorizer built it before */
+    static String formerToString(HashMap<ActionStatePair,Double> map){
+	HashMap<IState,IAction> prov=new HashMap<IState,IAction>(); 
+	HashMap<ActionStatePair,Double> local=new HashMap<ActionStatePair,Double>(map); 
+	String s=local.size()+" state/action pairs \nListing of ALL  Q(s,a)\n";  
+	Iterator<ActionStatePair> enu=local.keySet().iterator(); 
+	while(enu.hasNext()){
+	    ActionStatePair courante=enu.next(); 
+	    s+=courante.getState()+" "+courante.getAction()+" "+memory.get(courante.getState(),courante.getAction())+"\n";
+	    IAction bestAct=prov.get(courante.getState()); 
+	    if(bestAct==null) prov.put(courante.getState(),courante.getAction()); 
+	    else if(memory.get(courante.getState(),courante.getAction())>memory.get(courante.getState(),bestAct))
+		prov.put(courante.getState(),courante.getAction());
+	}
+	s+="Best values Q(s,a) for given s and a\n"; 
+	Iterator<IState> ebis=prov.keySet().iterator();
+	while(ebis.hasNext()){
+	    IState s1=ebis.next(); 
+	    IAction best=prov.get(s1); 
+	    s+=s1+"---->"+best+" : "+memory.get(s1,best)+"\n"; 
+	}
+	return s;
+    }
+
+    public static void main(String args[])throws Exception{
+	int sizes[]={20,40,60,300}; 
+	File f=File.createTempFile("qtable",".dump"); 
+	System.out.println("pairs\tformer\ttoString\tCSV\tbinary\ttop-3\tfilter"); 
+	for(int k=0;k<sizes.length;k++){
+	    int taille=sizes[k]; 
+	    RandomSource.setSeed(43); 
+	    Random generateur=RandomSource.newGenerator(); 
+	    Maze cnossos=HogwildMazeExample.buildMaze(taille); 
+	    memory=new RewardMemorizer(); 
+	    HashMap<ActionStatePair,Double> copy=new HashMap<ActionStatePair,Double>(); 
+	    for(int x=0;x<taille;x++)
+		for(int y=0;y<taille;y++){
+		    MazeState e=new MazeState(x,y,cnossos); 
+		    if(cnossos.isWall(e)) continue; 
+		    ActionList l=e.getActionList(); 
+		    for(int i=0;i<l.size();i++){
+			double q=2*generateur.nextDouble()-1; 
+			memory.put(e,l.get(i),e,q); 
+			copy.put(new ActionStatePair(l.get(i),e),q); 
+		    }
+		}
+	    String line=memory.size()+"\t"; 
+
+	    long start=System.currentTimeMillis(); 
+	    if(taille<=60){
+		int length=formerToString(copy).length(); 
+		line+=(System.currentTimeMillis()-start)+"\t"; 
+		if(length!=memory.toString().length()) line+="(differs) "; 
+	    }
+	    else line+="-\t"; 
+
+	    start=System.currentTimeMillis(); 
+	    memory.toString(); 
+	    line+=(System.currentTimeMillis()-start)+"\t\t"; 
+
+	    for(int way=0;way<4;way++){
+		start=System.currentTimeMillis(); 
+		QTableExporter export; 
+		OutputStream out=new FileOutputStream(f); 
+		Writer w=null; 
+		if(way==1) export=new QTableExporter(out,new MazePairCodec(cnossos)); 
+		else export=new QTableExporter(w=new BufferedWriter(new OutputStreamWriter(out,"UTF-8"),1<<16)); 
+		if(way==2) export.setTopK(3); 
+		if(way==3) export.setFilter(new IPairFilter(){
+			public boolean accept(IState s,IAction a,double q){return q>0;}
+		    }); 
+		export.export(memory); 
+		if(w!=null) w.close(); 
+		else out.close(); 
+		line+=(System.currentTimeMillis()-start)+" ("+f.length()/1024+" KB)\t"; 
+	    }
+	    System.out.println(line); 
+	}
+	f.delete(); 
+    }
+}
@@ -0,0 +1,61 @@
+/** Q-Learning in the central cross maze of SimpleMazeExample, learning 
+again from past transitions (see ReplayBuffer) : without replay, with 
+uniform replay and with prioritized replay. 
+
+For each setting, prints the number of real steps (transitions met in 
+the maze) and of episodes needed to reach a given average reward over 
+the last 100 episodes, and the duration of the run. 
+
+Arguments : size of the maze (20), replay ratio (4), capacity of the 
+buffer (10000).
+*/
+
+import agents.LoneAgent;
+import mazes.*;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class ReplayExample{
+
+    static void run(String name,int taille,ReplayBuffer buffer,double ratio){
+	RandomSource.setSeed(46); 
+	Maze cnossos=HogwildMazeExample.buildMaze(taille);
+	QLearningSelector sql=new QLearningSelector();
+	sql.setEpsilon(0.1);
+	sql.setGamma(1);
+	sql.setAlpha(0.5);
+	sql.setGeometricAlphaDecay();
+	sql.setDecay(1);
+	if(buffer!=null) sql.setReplay(buffer,ratio); 
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(300);
+	double recent[]=new double[100]; 
+	double sum=0.0; 
+	long steps=0; 
+	int episode=0; 
+	long start=System.currentTimeMillis(); 
+	while(episode<20000){
+	    cnossos.randomInitialState();
+	    steps+=arbitre.episode(cnossos.defaultInitialState());
+	    double r=arbitre.getRewardForEpisode(); 
+	    sum+=r-recent[episode%100]; 
+	    recent[episode%100]=r; 
+	    episode++; 
+	    if((episode>=100)&&(sum/100>=-25.0)) break; 
+	}
+	System.out.println(name+" : "+steps+" real steps, "+episode+" episodes, "
+			   +(System.currentTimeMillis()-start)+" ms"); 
+    }
+
+    public static void main(String args[]){
+	int taille=args.length>0?Integer.parseInt(args[0]):20; 
+	double ratio=args.length>1?Double.parseDouble(args[1]):4; 
+	int capacity=args.length>2?Integer.parseInt(args[2]):10000; 
+	run("no replay         ",taille,null,0); 
+	run("uniform replay    ",taille,new ReplayBuffer(capacity),ratio); 
+	run("prioritized replay",taille,new ReplayBuffer(capacity,true),ratio); 
+    }
+}
@@ -0,0 +1,101 @@
+/** Saving a large Q(s,a) table : serialization of the whole agent 
+(AbstractAgent.saveAgent) against the binary snapshots of QSnapshot, 
+plain and compressed. 
+
+The memory of an agent is filled with a random value for every legal 
+pair of a large version of the central cross maze of SimpleMazeExample. 
+For each format, prints the size of the file, the time to save it, the 
+time to load it back (the plain snapshot is only mapped in memory), and 
+checks that the loaded agent chooses the same move as the original one 
+in every cell. 
+
+Argument : size of the maze (300).
+*/
+
+import java.io.File;
+import java.util.Random;
+
+import agents.IAgent;
+import agents.LoneAgent;
+import algorithms.QLearningSelector;
+import environment.ActionList;
+import environment.IAction;
+import mazes.*;
+import qlearning.RewardMemorizer;
+import util.RandomSource;
+
+public class SnapshotExample{
+
+    static int taille; 
+
+    /** Number of cells where the two selectors choose different moves */
+    static int differences(Maze m,QLearningSelector a,QLearningSelector b){
+	int diff=0; 
+	for(int x=0;x<taille;x++)
+	    for(int y=0;y<taille;y++){
+		MazeState e=new MazeState(x,y,m); 
+		if(m.isWall(e)) continue; 
+		if(!a.bestAction(e).equals(b.bestAction(e))) diff++; 
+	    }
+	return diff; 
+    }
+
+    static void report(String format,File f,long save,long load,int diff){
+	System.out.println(format+f.length()/1024+" KB, saved in "+save
+			   +" ms, loaded in "+load+" ms, "
+			   +(diff==0?"same policy":diff+" cells with another move")); 
+    }
+
+    public static void main(String args[])throws Exception{
+	taille=args.length>0?Integer.parseInt(args[0]):300; 
+	RandomSource.setSeed(41); 
+	Random generateur=RandomSource.newGenerator(); 
+	Maze cnossos=HogwildMazeExample.buildMaze(taille); 
+	RewardMemorizer memory=new RewardMemorizer(); 
+	for(int x=0;x<taille;x++)
+	    for(int y=0;y<taille;y++){
+		MazeState e=new MazeState(x,y,cnossos); 
+		if(cnossos.isWall(e)) continue; 
+		ActionList l=e.getActionList(); 
+		for(int i=0;i<l.size();i++)
+		    memory.put(e,l.get(i),e,generateur.nextDouble()); 
+	    }
+	QLearningSelector sql=new QLearningSelector(memory); 
+	sql.setEpsilon(0.05); 
+	LoneAgent agent=new LoneAgent(cnossos,sql); 
+	System.out.println(memory.size()+" state/action pairs"); 
+	MazePairCodec codec=new MazePairCodec(cnossos); 
+
+	// Serialization of the agent
+	File dir=new File(System.getProperty("java.io.tmpdir")); 
+	String name=new File(dir,"snapshot-example").getPath(); 
+	long start=System.currentTimeMillis(); 
+	agent.saveAgent(name); 
+	long save=System.currentTimeMillis()-start; 
+	start=System.currentTimeMillis(); 
+	IAgent read=LoneAgent.readAgent(name,cnossos); 
+	long load=System.currentTimeMillis()-start; 
+	File agt=new File(name+".agt"); 
+	report("serialized agent    : ",agt,save,load,
+	       differences(cnossos,sql,(QLearningSelector)read.getAlgorithm())); 
+	agt.delete(); 
+	read=null; 
+
+	for(int k=0;k<2;k++){
+	    boolean compress=(k==1); 
+	    File f=new File(dir,"snapshot-example.pqls"); 
+	    start=System.currentTimeMillis(); 
+	    sql.saveSnapshot(f,codec,compress); 
+	    save=System.currentTimeMillis()-start; 
+	    start=System.currentTimeMillis(); 
+	    QLearningSelector loaded=new QLearningSelector(); 
+	    loaded.loadSnapshot(f,codec,true); 
+	    load=System.currentTimeMillis()-start; 
+	    report(compress?"compressed snapshot : ":"snapshot (mapped)   : ",
+		   f,save,load,differences(cnossos,sql,loaded)); 
+	    if(loaded.getEpsilon()!=sql.getEpsilon())
+		System.out.println("epsilon not restored"); 
+	    f.delete(); 
+	}
+    }
+}
@@ -0,0 +1,60 @@
+/** Choosing the settings of SimpleMazeExample's Q-Learning automatically : 
+grid search over alpha, epsilon and gamma, with successive halving 
+(100, 300 then 900 episodes), three seeds per setting.
+
+The whole table is written into sweepMaze.txt, the best settings are printed.
+
+*/
+
+import java.util.ArrayList;
+
+import agents.IAgent;
+import agents.LoneAgent;
+import environment.IState;
+import mazes.*;
+import referees.IExperiment;
+import referees.OnePlayerExperiment;
+import sweep.ISweepTask;
+import sweep.ParameterSetting;
+import sweep.ParameterSweep;
+import sweep.SweepScore;
+import algorithms.*;
+
+
+public class SweepMazeExample{
+
+    public static void main(String args[])throws Exception{
+	ParameterSweep sweep=new ParameterSweep(new ISweepTask(){
+		public IExperiment build(final ParameterSetting p,long seed,int episodes){
+		    return new OnePlayerExperiment(episodes,300){
+			    QLearningSelector sql; 
+			    protected IAgent buildAgent(){
+				sql=new QLearningSelector(); 
+				p.applyTo(sql); 
+				sql.setGeometricAlphaDecay(); 
+				sql.setDecay(1); 
+				return new LoneAgent(HogwildMazeExample.buildMaze(20),sql); 
+			    }
+			    protected IState initialState(IAgent a,int episode){
+				Maze m=(Maze)a.getEnvironment(); 
+				m.randomInitialState(); 
+				return m.defaultInitialState(); 
+			    }
+			    protected void endOfEpisode(IAgent a,int episode){
+				// Decay epsilon as in SimpleMazeExample
+				sql.setEpsilon(sql.getEpsilon()*0.999); 
+			    }
+			}; 
+		}
+	    }); 
+	sweep.addGrid("alpha",new double[]{0.05,0.2,0.5,0.9}); 
+	sweep.addGrid("epsilon",new double[]{0.05,0.2,0.5}); 
+	sweep.addGrid("gamma",new double[]{0.9,1.0}); 
+	sweep.setNbSeeds(3); 
+	sweep.setHalving(100,900,3); 
+	sweep.setOutput("sweepMaze.txt"); 
+	ArrayList<SweepScore> best=sweep.runGrid(); 
+	for(SweepScore s:best)
+	    System.out.println(s); 
+    }
+}
@@ -0,0 +1,48 @@
+import java.util.ArrayList;
+
+import agents.TwoPlayerAgent;
+
+import tictactoe.TicTacToeBoard;
+import referees.ExperimentExecutor;
+import referees.ExperimentResult;
+import referees.TwoPlayerExperiment;
+import referees.TwoPlayerReferee;
+import algorithms.*;
+
+/** Many independent Q-Learning vs Random tic-tac-toe trainings run 
+ * concurrently by an ExperimentExecutor, one per (epsilon, repetition) :
+ * instead of one long for-loop as in TestTicTacToe. */
+
+public class TicTacToeExperiments {
+
+	public static void main(String argv[]) throws Exception {
+		double epsilons[] = { 0.05, 0.1, 0.2, 0.3, 0.5 };
+		int repetitions = 4;
+		ExperimentExecutor executor = new ExperimentExecutor(Runtime
+				.getRuntime().availableProcessors());
+		// Each experiment may not last more than one minute
+		executor.setTimeout(60000);
+		for (int e = 0; e < epsilons.length; e++)
+			for (int r = 0; r < repetitions; r++) {
+				final double epsilon = epsilons[e];
+				executor.submit("epsilon " + epsilon + " run " + r,
+						new TwoPlayerExperiment(20000) {
+							protected TwoPlayerReferee buildReferee() {
+								// Each experiment has its own board and selectors
+								TicTacToeBoard p = new TicTacToeBoard();
+								QLearningSelector sql1 = new QLearningSelector();
+								sql1.setEpsilon(epsilon);
+								sql1.setGeometricAlphaDecay();
+								TwoPlayerAgent j1 = new TwoPlayerAgent(p, sql1);
+								TwoPlayerAgent j2 = new TwoPlayerAgent(p,
+										new RandomSelector());
+								return new TwoPlayerReferee(j1, j2);
+							}
+						});
+			}
+		ArrayList<ExperimentResult> results = executor.awaitAll();
+		executor.shutdown();
+		for (ExperimentResult r : results)
+			System.out.println(r);
+	}
+}
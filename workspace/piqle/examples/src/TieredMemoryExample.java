@@ -0,0 +1,96 @@
+/** Q-Learning in a large version of the central cross maze of 
+SimpleMazeExample, with the same seeds, first with a RewardMemorizer 
+(every pair in the heap), then with a TieredRewardMemorizer keeping only 
+a few thousand pairs in the heap, the others in a log on disk. 
+
+Both memories must learn the same values : prints the average reward 
+of the successive blocks of episodes for both runs, their duration, the 
+heap used at the end of each run, and the state of the log. 
+
+Arguments : size of the maze (150), number of pairs kept in the heap 
+(4000), number of episodes (2000).
+*/
+
+import agents.LoneAgent;
+import mazes.*;
+import qlearning.IRewardStore;
+import qlearning.NullValueChooser;
+import qlearning.RewardMemorizer;
+import qlearning.TieredRewardMemorizer;
+import referees.OnePlayerReferee;
+import util.RandomSource;
+import algorithms.*;
+
+
+public class TieredMemoryExample{
+
+    static double curve[]; 
+
+    static long usedHeap(){
+	Runtime r=Runtime.getRuntime(); 
+	for(int i=0;i<3;i++) System.gc(); 
+	return r.totalMemory()-r.freeMemory(); 
+    }
+
+    static void learn(Maze cnossos,IRewardStore memory,int nbEpisodes){
+	QLearningSelector sql=new QLearningSelector(memory);
+	sql.setEpsilon(0.2);
+	sql.setGamma(1);
+	sql.setAlpha(0.5);
+	LoneAgent zero07=new LoneAgent(cnossos,sql);
+	OnePlayerReferee arbitre=new OnePlayerReferee(zero07);
+	arbitre.setMaxIter(2000);
+	curve=new double[10]; 
+	int block=nbEpisodes/curve.length; 
+	for(int i=0;i<block*curve.length;i++){
+	    cnossos.randomInitialState();
+	    arbitre.episode(cnossos.defaultInitialState());
+	    curve[i/block]+=arbitre.getRewardForEpisode()/block; 
+	}
+    }
+
+    public static void main(String args[])throws Exception{
+	int taille=args.length>0?Integer.parseInt(args[0]):150; 
+	int capacity=args.length>1?Integer.parseInt(args[1]):4000; 
+	int nbEpisodes=args.length>2?Integer.parseInt(args[2]):2000; 
+	long base=usedHeap(); 
+
+	RandomSource.setSeed(40);
+	Maze cnossos=HogwildMazeExample.buildMaze(taille);
+	RewardMemorizer all=new RewardMemorizer(); 
+	long start=System.currentTimeMillis(); 
+	learn(cnossos,all,nbEpisodes); 
+	long time=System.currentTimeMillis()-start; 
+	double reference[]=curve; 
+	long heap=usedHeap()-base; 
+	System.out.println("heap only : "+time+" ms, "+all.size()+" pairs, "
+			   +heap/1024+" KB of heap"); 
+	all=null; 
+	cnossos=null; 
+	base=usedHeap(); 
+
+	RandomSource.setSeed(40);
+	cnossos=HogwildMazeExample.buildMaze(taille);
+	// RewardMemorizer draws one generator : keep the same streams
+	RandomSource.newGenerator(); 
+	TieredRewardMemorizer tiered=new TieredRewardMemorizer(new MazePairCodec(cnossos),
+								 new NullValueChooser(),capacity,null,1<<20); 
+	start=System.currentTimeMillis(); 
+	learn(cnossos,tiered,nbEpisodes); 
+	time=System.currentTimeMillis()-start; 
+	heap=usedHeap()-base; 
+	System.out.println("tiered    : "+time+" ms, "+tiered.size()+" pairs, "
+			   +heap/1024+" KB of heap"); 
+	System.out.println("  "+tiered); 
+	System.out.println("  "+tiered.getDemotions()+" pairs moved to disk, "
+			   +tiered.getPromotions()+" back to the heap, "
+			   +tiered.getLiveDiskSize()+" live bytes on disk"); 
+	boolean same=true; 
+	for(int i=0;i<curve.length;i++){
+	    System.out.println("block "+i+" : average reward "+reference[i]+" / "+curve[i]); 
+	    same&=(reference[i]==curve[i]); 
+	}
+	System.out.println(same?"same learning curves":"the learning curves differ"); 
+	tiered.close(); 
+    }
+}
@@ -32,19 +32,21 @@ import javax.swing.BoxLayout;
 import environment.*;
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** See <a href="http://www.cs.ualberta.ca/~sutton/book/ebook/node110.html"> Sutton and Barto page 270</a> for a description. All the settings are (quite) strictly following this definition.
 
  @author Francesco De Comite (decomite at lifl.fr)
  @version $Revision: 1.0 $ 
 */
 
-public class Acrobot extends AbstractEnvironmentSingle{
+public class Acrobot extends AbstractEnvironmentSingle implements IMutableEnvironment,IActionListFiller{
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private Random generateur=new Random(); 
+	private Random generateur=RandomSource.newGenerator(); 
 
  /** Diverse settings, to eventually be able to modify them ... */
     protected double maxSpeed1=4*Math.PI; 
@@ -66,16 +68,26 @@ public class Acrobot extends AbstractEnvironmentSingle{
 
  /**  Gives the list of possible actions from a given state. */
     public ActionList getActionList(IState s){
-	AcrobotState el=(AcrobotState) s;
-	ActionList l=new ActionList(el);  
+	ActionList l=new ActionList(s);  
+	fillActionList(s,l); 
+	return l; 
+    }
+
+    public void fillActionList(IState s,ActionList l){
 	l.add(ActionAcrobot.NEGATIVE); 
 	l.add(ActionAcrobot.NHUL); 
 	l.add(ActionAcrobot.POSITIVE); 
-	return l; 
     }
     
     /**  Computes the next state, given a start state and an action. */
    public IState successorState(IState s,IAction a){
+	AcrobotState next=new AcrobotState(0,0,0,0,this); 
+	successorState(s,a,next); 
+	return next; 
+   }
+
+    /**  Writes the next state into target, without any allocation. */
+   public void successorState(IState s,IAction a,IMutableState target){
 	AcrobotState ea=(AcrobotState)s; 
 	double theta1=ea.getTheta1(); 
 	double theta2=ea.getTheta2(); 
@@ -116,7 +128,7 @@ public class Acrobot extends AbstractEnvironmentSingle{
 	while(theta2<-Math.PI) theta2+=2*Math.PI; 
 	while(theta2>Math.PI) theta2-=2*Math.PI; 
 
-	return new AcrobotState(theta1,theta2,angularSpeed1,angularSpeed2,this); 
+	((AcrobotState)target).set(theta1,theta2,angularSpeed1,angularSpeed2); 
     }//etatSuivant
 
     public IState defaultInitialState(){
@@ -44,41 +44,31 @@ public class AcrobotCLS2 extends Acrobot{
 	private static final long serialVersionUID = 1L;
 	private double dt=this.delta_t/10.0; 
 
-    private double[] rk4(double[] startx,double torque){
-	double dx0[]; 
-	double dx1[];
-	double dx2[]; 
-	double dx3[]; 
-	double x1[]=new double[4]; 
-	double x2[]=new double[4]; 
-	double x3[]=new double[4]; 
-	double resu[]=new double[4];
-
-	dx0=f(startx,torque); 
-	for(int i=0;i<4;i++) x1[i]=startx[i]+dx0[i]*dt/2; 
-	//System.out.println("dx0:"+dx0[0]+" "+dx0[1]+" "+dx0[2]+" "+dx0[3]); 
-
-	dx1=f(x1,torque); 
-	for(int i=0;i<4;i++) x2[i]=startx[i]+dx1[i]*dt/2; 
-	dx2=f(x2,torque); 
-	for(int i=0;i<4;i++) x3[i]=startx[i]+dx2[i]*dt;
-
-	dx3=f(x3,torque); 
+    /** Work arrays of the integration, allocated once */
+    private transient double x1[],x2[],x3[],dx0[],dx1[],dx2[],dx3[]; 
+
+    /** One step of Runge-Kutta 4, the state x being replaced by its successor. */
+    private void rk4(double[] x,double torque){
+	if(x1==null){
+	    x1=new double[4]; x2=new double[4]; x3=new double[4]; 
+	    dx0=new double[4]; dx1=new double[4]; dx2=new double[4]; dx3=new double[4]; 
+	}
+	f(x,torque,dx0); 
+	for(int i=0;i<4;i++) x1[i]=x[i]+dx0[i]*dt/2; 
+	f(x1,torque,dx1); 
+	for(int i=0;i<4;i++) x2[i]=x[i]+dx1[i]*dt/2; 
+	f(x2,torque,dx2); 
+	for(int i=0;i<4;i++) x3[i]=x[i]+dx2[i]*dt;
+	f(x3,torque,dx3); 
 	for(int i=0;i<4;i++)
-	    resu[i]=startx[i]+dt/6.0*(dx0[i]+2*(dx1[i]+dx2[i])+dx3[i]); 
-
-	
-	//System.out.println(resu[0]+" "+resu[1]+" "+resu[2]+" "+resu[3]); 
-	return resu; 
-
+	    x[i]=x[i]+dt/6.0*(dx0[i]+2*(dx1[i]+dx2[i])+dx3[i]); 
     }//rk4
 
-    private double[] f(double[] x,double torque){
+    private void f(double[] x,double torque,double resu[]){
 	double theta1=x[0]; 
 	double theta2=x[2]; 
 	double angularSpeed1=x[1]; 
 	double angularSpeed2=x[3]; 
-	double resu[]=new double[4];
 
 	double d1; 
 	double d2; 
@@ -98,14 +88,13 @@ public class AcrobotCLS2 extends Acrobot{
 	resu[2]=angularSpeed2;
 	resu[1]=accel1; 
 	resu[3]=accel2; 
-
-	return resu; 
 	
 
     }//f
    
 
-    public IState successorState(IState s,IAction a){
+    /** Ten steps of Runge-Kutta 4, written into target. */
+    public void successorState(IState s,IAction a,IMutableState target){
 	AcrobotState ea=(AcrobotState)s; 
 	double theta1=ea.getTheta1(); 
 	double theta2=ea.getTheta2(); 
@@ -119,15 +108,19 @@ public class AcrobotCLS2 extends Acrobot{
 	if(angularSpeed2<-maxSpeed2) angularSpeed2=-maxSpeed2; 
 	if(angularSpeed2>maxSpeed2) angularSpeed2=maxSpeed2; 
 
-	double temp[]={theta1,angularSpeed1,theta2,angularSpeed2};
-	for(int t=0;t<10;t++) temp=rk4(temp,torque); 
+	if(temp==null) temp=new double[4]; 
+	temp[0]=theta1; temp[1]=angularSpeed1; temp[2]=theta2; temp[3]=angularSpeed2; 
+	for(int t=0;t<10;t++) rk4(temp,torque); 
 	
 	while(temp[0]<-Math.PI) temp[0]+=2*Math.PI; 
 	while(temp[0]>Math.PI) temp[0]-=2*Math.PI; 
 	while(temp[2]<-Math.PI) temp[2]+=2*Math.PI; 
 	while(temp[2]>Math.PI) temp[2]-=2*Math.PI; 
 
-	return new AcrobotState(temp[0],temp[2],temp[1],temp[3],this);  
+	((AcrobotState)target).set(temp[0],temp[2],temp[1],temp[3]);  
  }
 
-}
\ No newline at end of file
+    /** Angles and speeds during the integration */
+    private transient double temp[]; 
+
+}
@@ -34,6 +34,8 @@ import environment.IState;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 
 /** An attempt to implement the CLSquare version of the acrobot described in 
 <a href="http://www.cs.ualberta.ca/~sutton/book/ebook/node110.html"> Sutton and Barto page 270</a> 
@@ -52,7 +54,7 @@ public class AcrobotCLS2Tiling extends AcrobotCLS2 implements TileAbleEnvironmen
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	private static Random generateur=new Random(); 
+	private Random generateur=RandomSource.newGenerator(); 
     /** One set of tilings for each possible action */
     protected SetOfTilings arrayTilings[]=new SetOfTilings[3]; 
 
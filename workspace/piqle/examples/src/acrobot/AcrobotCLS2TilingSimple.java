@@ -31,6 +31,8 @@ import tiling.HyperRectangularSparseTiling;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 import environment.*;
 
 /** An attempt to implement the CLSquare version of the acrobot described in 
@@ -50,7 +52,7 @@ public class AcrobotCLS2TilingSimple extends AcrobotCLS2 implements TileAbleEnvi
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	private static Random generateur=new Random(); 
+	private Random generateur=RandomSource.newGenerator(); 
     /** One set of tilings for each possible action */
     protected SetOfTilings arrayTilings[]=new SetOfTilings[3]; 
 
@@ -22,13 +22,14 @@ package acrobot;
  */
 
 import environment.*; 
+import util.Hashing;
 
 /** As in <a href="http://www.cs.ualberta.ca/~sutton/book/ebook/node110.html"> Sutton and Barto</a>, Acrobot states are defined by two angles and two speeds. But tiling is not used, states are equals if they lie not to far from each other. See the code for method <code>equals</code>
  @author Francesco De Comite (decomite at lifl.fr)
   @version $Revision: 1.0 $ 
 */
 
-public class AcrobotState extends AbstractState{
+public class AcrobotState extends AbstractState implements IContinuousState,IMutableState{
 
     /**
 	 * 
@@ -50,6 +51,19 @@ public class AcrobotState extends AbstractState{
 	return new AcrobotState(this.theta1,this.theta2,this.angularSpeed1,
 			this.angularSpeed2,myEnvironment); 
     }
+
+    public void copyFrom(IState s){
+	AcrobotState ea=(AcrobotState)s; 
+	set(ea.theta1,ea.theta2,ea.angularSpeed1,ea.angularSpeed2); 
+    }
+
+    /** Move the acrobot in place (see Acrobot.successorState(IState,IAction,IMutableState)) */
+    protected void set(double t1,double t2,double a1,double a2){
+	this.theta1=t1; 
+	this.theta2=t2; 
+	this.angularSpeed1=a1; 
+	this.angularSpeed2=a2; 
+    }
   
     public int nnCodingSize(){return 4;}
 
@@ -65,12 +79,12 @@ public class AcrobotState extends AbstractState{
 
     /** Q-Learning memorizing techniques use hashcoding : it is necessary to redefine it for each problem/game */
     public int hashCode(){
-	int hc=0; 
-	hc+=(int)Math.round(Math.abs(theta1)); 
-	hc+=3*(int)Math.round(Math.abs(theta2)); 
-	hc+=5*(int)Math.round(Math.abs(angularSpeed1)); 
-	hc+=7*(int)Math.round(Math.abs(angularSpeed2)); 
-	return hc%31; 
+	int hc=Hashing.SEED; 
+	hc=Hashing.combine(hc,(int)Math.round(Math.abs(theta1))); 
+	hc=Hashing.combine(hc,(int)Math.round(Math.abs(theta2))); 
+	hc=Hashing.combine(hc,(int)Math.round(Math.abs(angularSpeed1))); 
+	hc=Hashing.combine(hc,(int)Math.round(Math.abs(angularSpeed2))); 
+	return hc; 
     }
     /** Q-Learning memorizing techniques use equality: it is necessary to redefine it for each problem/game */
     public boolean equalsXXX(Object o){
@@ -116,5 +130,17 @@ public boolean equals(Object o){
     protected double getAngularSpeed1(){return this.angularSpeed1;}
     protected double getAngularSpeed2(){return this.angularSpeed2;}
 
+    /** The two angles and the two speeds, for quantization. */
+    public int getNbDimensions(){return 4;}
+
+    public double getCoordinate(int i){
+	switch(i){
+	case 0 : return this.theta1; 
+	case 1 : return this.theta2; 
+	case 2 : return this.angularSpeed1; 
+	default : return this.angularSpeed2; 
+	}
+    }
+
    
 }
\ No newline at end of file
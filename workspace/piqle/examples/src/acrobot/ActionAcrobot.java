@@ -31,7 +31,7 @@ import environment.*;
 
 */
 
-public class ActionAcrobot implements IAction{
+public class ActionAcrobot implements IOrdinalAction{
     /**
 	 * 
 	 */
@@ -72,6 +72,8 @@ public class ActionAcrobot implements IAction{
     }
     
     
+    public int ordinal(){return this.torque+1; }
+
     public int hashCode(){
 	return this.torque; 
     }
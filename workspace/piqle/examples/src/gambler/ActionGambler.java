@@ -25,6 +25,8 @@ package gambler;
 
 
 import environment.IAction;
+import environment.ActionRegistry;
+import environment.IOrdinalAction;
 
 	
 /** An action is a bet (lesser or equal than the gambler's capital)
@@ -36,7 +38,7 @@ import environment.IAction;
 
  */
 
-public class ActionGambler implements IAction{
+public class ActionGambler implements IOrdinalAction{
 
     /**
 	 * 
@@ -49,18 +51,31 @@ public class ActionGambler implements IAction{
 	this.amount=i;
     }
 
+    /** The shared bets */
+    private static final ActionRegistry<ActionGambler> bets=new ActionRegistry<ActionGambler>(); 
+
+    /** The shared instance of the bet i */
+    public static ActionGambler valueOf(int i){
+	ActionGambler a=bets.get(i); 
+	return a!=null?a:bets.intern(new ActionGambler(i)); 
+    }
+
     public int getValue(){return this.amount;}
 
-    public int hashCode(){return this.amount%23;}
+    /** The bet itself numbers the action */
+    public int ordinal(){return this.amount;}
+
+    public int hashCode(){return this.amount;}
     
     public boolean equals(Object o){
+	if(o==this) return true; 
 	if(!(o instanceof ActionGambler)) return false; 
 	ActionGambler ag=(ActionGambler)o; 
 	return (this.amount==ag.amount); 
     }
 
     public IAction copy(){
-	return new ActionGambler(this.amount); 
+	return valueOf(this.amount); 
     }
     
     public String toString(){
@@ -5,12 +5,15 @@ package gambler;
 
 import environment.AbstractEnvironmentSingle; 
 import environment.ActionList; 
+import environment.IActionListFiller; 
 import environment.IState; 
 import environment.IAction; 
 
 import qlearning.ValueIteration; 
 
 import java.util.Random; 
+
+import util.RandomSource;
 /** A simple game : 
  <ul>
     <li> The player has an initial capital. </li>
@@ -33,7 +36,7 @@ href="http://www.cs.ualberta.ca/~sutton/book/4/node45.html">Sutton
 </i> 
 
 */
-public class GamblerGame extends AbstractEnvironmentSingle implements ValueIteration {
+public class GamblerGame extends AbstractEnvironmentSingle implements ValueIteration,IActionListFiller {
 
     /**
 	 * 
@@ -43,7 +46,7 @@ public class GamblerGame extends AbstractEnvironmentSingle implements ValueItera
 	/** The probability the coin comes up heads*/
     private double proba; 
 
-    static private Random generateur=new Random(); 
+    private Random generateur=RandomSource.newGenerator(); 
 
     /** An array for Value Iteration */
     private double vStar[]; 
@@ -53,11 +56,16 @@ public class GamblerGame extends AbstractEnvironmentSingle implements ValueItera
     }
     
     public ActionList  getActionList(IState s){
+	ActionList loa=new ActionList(s); 
+	fillActionList(s,loa); 
+	return loa; 
+    }
+
+    /** Bets from 1 to the capital (or to what is missing to reach 100) */
+    public void fillActionList(IState s,ActionList loa){
 	GamblerState eg=(GamblerState)s; 
-	ActionList loa=new ActionList(eg); 
 	for(int i=1;i<=Math.min(eg.getValue(),100-eg.getValue());i++)
-	    loa.add(new ActionGambler(i)); 
-	return loa; 
+	    loa.addDistinct(ActionGambler.valueOf(i)); 
     }
 
     public IState successorState(IState s,IAction a){
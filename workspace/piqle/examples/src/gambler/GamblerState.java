@@ -57,7 +57,7 @@ public class GamblerState extends AbstractState{
     }
 
     public int hashCode(){
-	return this.capital%23;
+	return this.capital;
     }
 
     public boolean equals(Object o){
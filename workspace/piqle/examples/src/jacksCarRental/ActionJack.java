@@ -24,7 +24,7 @@ package jacksCarRental;
 
 import environment.*;  
 
-public class ActionJack implements IAction{
+public class ActionJack implements IOrdinalAction{
 
     /**
 	 * 
@@ -39,10 +39,24 @@ public class ActionJack implements IAction{
 	moveCars=i;
     }
 
+    /** The shared moves */
+    private static final ActionRegistry<ActionJack> moves=new ActionRegistry<ActionJack>(); 
+
+    /** The shared instance moving i cars */
+    public static ActionJack valueOf(int i){
+	ActionJack a=moves.get(ordinal(i)); 
+	return a!=null?a:moves.intern(new ActionJack(i)); 
+    }
+
+    /** 0,-1,1,-2,2... numbered 0,1,2,3,4... */
+    private static int ordinal(int i){return i>=0?2*i:-2*i-1; }
+
+    public int ordinal(){return ordinal(moveCars); }
+
     public int getNumber(){return moveCars;}
     
     public IAction copy(){
-	return new ActionJack(this.moveCars); 
+	return valueOf(this.moveCars); 
     }
 
    
@@ -58,6 +72,7 @@ public class ActionJack implements IAction{
     }
 
      public boolean equals(Object o){
+	if (o==this) return true; 
 	if (!(o instanceof ActionJack)) return false; 
 	 ActionJack a=(ActionJack)o; 
 	 return (this.moveCars==a.moveCars); 
@@ -26,12 +26,14 @@ import qlearning.ValueIteration;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** Here are defined the settings of the problem : probabilities, rewards...
 
 The code for Value Iteration is copied/adapted from <ahref="http://www.cs.ualberta.ca/~sutton/book/code/jacks.lisp">Sutton & Barto code</a>
  */
-public class CarRental extends AbstractEnvironmentSingle implements ValueIteration{
-    private Random generateur=new Random(); 
+public class CarRental extends AbstractEnvironmentSingle implements ValueIteration,IActionListFiller{
+    private Random generateur=RandomSource.newGenerator(); 
     /** Maximum number of cars to move from one location to another */
     private int maxMove=5; 
     /** Cars requested at location 1 */
@@ -57,16 +59,22 @@ public class CarRental extends AbstractEnvironmentSingle implements ValueIterati
 
 
     public ActionList getActionList(IState s){
+	ActionList loa=new ActionList(s); 
+	fillActionList(s,loa); 
+	return loa; 
+    }// getListeAction 
+
+    /** Moving up to 4 cars, in both directions */
+    public void fillActionList(IState s,ActionList loa){
 	EtatJack ej=(EtatJack)s; 
 	int nbPos1=ej.getPos1(); 
 	int nbPos2=ej.getPos2(); 
-	ActionList loa=new ActionList(ej); 
-	for(int i=0;i<5;i++){
-	    if(i<=nbPos1) loa.add(new ActionJack(i)); 
-	    if(i<=nbPos2) loa.add(new ActionJack(-i)); 
+	loa.addDistinct(ActionJack.valueOf(0)); 
+	for(int i=1;i<5;i++){
+	    if(i<=nbPos1) loa.addDistinct(ActionJack.valueOf(i)); 
+	    if(i<=nbPos2) loa.addDistinct(ActionJack.valueOf(-i)); 
 	}
-	return loa; 
-    }// getListeAction 
+    }
 
     /** Next state is probabilistic */
     public IState successorState(IState s,IAction a){
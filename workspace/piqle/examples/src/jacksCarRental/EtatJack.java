@@ -22,6 +22,7 @@ package jacksCarRental;
  */
 
 import environment.*;
+import util.Hashing;
 
 public class EtatJack extends AbstractState{
 
@@ -69,7 +70,7 @@ public class EtatJack extends AbstractState{
     }
 
     public int hashCode(){
-	return (pos1+pos2)%13; 
+	return Hashing.hash(pos1,pos2); 
     }
 
      /** Issuing information in FOIL-readable format */
@@ -23,6 +23,7 @@ package jenga;
 
 
 import environment.*; 
+import util.Hashing;
 
 /** 
     Following the analysis of <a href="http://www.cs.tau.ac.il/~zwick/papers/jenga-SODA.pdf"> this paper</a>, a state can be coded with three integers. <i> In fact, there is still a more compact coding sufficient to found the optimal strategy...</i>
@@ -122,8 +123,7 @@ public class StateJenga extends AbstractTwoPlayerState{
 
    
     public int hashCode(){
-	int sum=(fullLevels*13)+(twoAdjacentBlocksLevels*7)+topBlocks; 
-	return sum%23;
+	return Hashing.hash(fullLevels,twoAdjacentBlocksLevels,topBlocks);
     }
 
     
@@ -28,6 +28,7 @@ package maabac;
 import environment.AbstractState; 
 import environment.IEnvironment; 
 import environment.IState; 
+import util.Hashing;
 
 
 public class Contraction extends AbstractState{
@@ -85,8 +86,7 @@ public class Contraction extends AbstractState{
     }
 
     public int hashCode(){
-	return (this.value*7+5*this.maxValue)%23;
-	//return (this.value*7+5*this.maxValue+11*this.dist+13*this.dir)%23;
+	return Hashing.combine(Hashing.hash(this.value,this.maxValue,this.dist),this.dir);
     }
 
     public String toString(){
@@ -35,6 +35,8 @@ import environment.TileAbleEnvironment;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** Actions are contract, decontract, let the muscle still. Tile coding is used.*/
 
 public class ElementaryMuscleTiling extends ElementaryMultiAgentEnvironment implements TileAbleEnvironment{
@@ -43,7 +45,7 @@ public class ElementaryMuscleTiling extends ElementaryMultiAgentEnvironment impl
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	protected Random generateur=new Random(); 
+	protected Random generateur=RandomSource.newGenerator(); 
 
       public ActionList getActionList(IState s){
 	ActionList loa=new ActionList(s); 
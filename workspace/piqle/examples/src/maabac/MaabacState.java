@@ -29,7 +29,9 @@ import environment.AbstractState;
 import environment.IEnvironment; 
 import environment.IState; 
 
-import java.util.Random; 
+
+import util.RandomSource;
+import util.Hashing;
 
 public class MaabacState extends AbstractState{
     
@@ -38,7 +40,6 @@ public class MaabacState extends AbstractState{
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private static Random gene=new Random();
     
     protected int taille=4; 
     protected int contractionValues[]; 
@@ -129,11 +130,10 @@ public class MaabacState extends AbstractState{
     }
 
     public int hashCode(){
-	int sum=0; 
+	int h=Hashing.hash(this.discreteDistance,this.discreteDirection); 
 	for(int i=0;i<this.taille;i++)
-	    sum+=this.contractionValues[i]; 
-	sum+=this.discreteDistance+this.discreteDirection; 
-	return sum%23; 
+	    h=Hashing.combine(h,this.contractionValues[i]); 
+	return h; 
     }
 
     public int nnCodingSize(){return this.taille+4;}
@@ -155,7 +155,7 @@ public class MaabacState extends AbstractState{
 	b=false initialize to 0 */
     protected void init(int i,boolean b){
 	int max=this.maxValues[i]; 
-	if(b) this.contractionValues[i]=gene.nextInt(max); 
+	if(b) this.contractionValues[i]=RandomSource.current().nextInt(max); 
 	else this.contractionValues[i]=0; 
     }
 
@@ -22,10 +22,11 @@ package maabac;
  */
 
 import environment.IAction;
+import environment.IOrdinalAction;
 
 /** Elementary action : increment, decrement or do not change the contraction level of a Muscle.*/
 
-public class MuscleAction implements IAction{
+public class MuscleAction implements IOrdinalAction{
 
     /**
 	 * 
@@ -57,6 +58,8 @@ public class MuscleAction implements IAction{
 	}
     }
 
+    public int ordinal(){return this.typeMove+1; }
+
     public int hashCode(){return this.typeMove+1; }
 
      public boolean equals(Object o){
@@ -29,6 +29,7 @@ package maabacVersion2;
 import environment.AbstractState;
 import environment.IEnvironment;
 import environment.IState;
+import util.Hashing;
 
 /**
  * A ContractionV2 is a local vision on the general state by a single muscle.
@@ -101,8 +102,7 @@ public class ContractionV2 extends AbstractState {
         }
 
         public int hashCode(){
-    	return (this.value*7+5*this.maxValue)%23;
-    	//return (this.value*7+5*this.maxValue+11*this.dist+13*this.dir)%23;
+    	return Hashing.combine(Hashing.hash(this.value,this.maxValue,this.dist),this.dir);
         }
 
         public String toString(){
@@ -24,12 +24,14 @@
 
 package maabacVersion2;
 
-import java.util.Random;
+
+import util.RandomSource;
 
 
 import environment.AbstractState;
 import environment.IEnvironment;
 import environment.IState;
+import util.Hashing;
 
 /**
  * @author Francesco De Comit
@@ -43,7 +45,6 @@ public class MaabacStateV2 extends AbstractState {
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private static Random gene=new Random();
     
     protected int taille=4; 
     protected int contractionValues[]; 
@@ -134,11 +135,10 @@ public class MaabacStateV2 extends AbstractState {
     }
 
     public int hashCode(){
-	int sum=0; 
+	int h=Hashing.hash(this.discreteDistance,this.discreteDirection); 
 	for(int i=0;i<this.taille;i++)
-	    sum+=this.contractionValues[i]; 
-	sum+=this.discreteDistance+this.discreteDirection; 
-	return sum%23; 
+	    h=Hashing.combine(h,this.contractionValues[i]); 
+	return h; 
     }
 
     public int nnCodingSize(){return this.taille+4;}
@@ -160,7 +160,7 @@ public class MaabacStateV2 extends AbstractState {
 	b=false initialize to 0 */
     protected void init(int i,boolean b){
 	int max=this.maxValues[i]; 
-	if(b) this.contractionValues[i]=gene.nextInt(max); 
+	if(b) this.contractionValues[i]=RandomSource.current().nextInt(max); 
 	else this.contractionValues[i]=0; 
     }
 
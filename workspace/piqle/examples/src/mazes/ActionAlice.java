@@ -23,6 +23,7 @@ package mazes;
  */
 
 import environment.IAction; 
+import environment.IOrdinalAction; 
 
 
 // TODO : doublon with AliceAction ???
@@ -42,7 +43,7 @@ import environment.IAction;
 
 */
 
-public class ActionAlice implements IAction{
+public class ActionAlice implements IOrdinalAction{
     /**
 	 * 
 	 */
@@ -95,6 +96,8 @@ public class ActionAlice implements IAction{
     }
     
    
+    public int ordinal(){return typeMove; }
+
     public int hashCode(){
 	return typeMove; 
     }
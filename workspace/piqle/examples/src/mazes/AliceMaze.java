@@ -112,15 +112,13 @@ public AliceMaze(int lo,int la){
 	return null; 
     }// etatSuivant
 
-    public ActionList getActionList(IState s){
+    public void fillActionList(IState s,ActionList l){
 	AliceState el=(AliceState) s;
-	ActionList l=new ActionList(el);  
 	l.add(ActionAlice.LEFT); 
 	l.add(ActionAlice.RIGHT); 
 	if(el.getWSM(0)==0) l.add(ActionAlice.FORWARD); 
-	if(el.getWSM(2)==0) l.add(ActionAlice.BACKWARD); 
-	return l; 
-    }//getListeActions
+	if(el.getWSM(2)==0) l.add(ActionAlice.BACKWARD);  
+    }//fillActionList
 
     /** No notion of treasure in this maze */
     protected double distanceToTreasure(MazeState s){return 0; }
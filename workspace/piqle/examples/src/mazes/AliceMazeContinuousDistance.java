@@ -112,14 +112,12 @@ public AliceMazeContinuousDistance(int lo,int la){
 	return null; 
     }// etatSuivant
 
-    public ActionList getActionList(IState s){
+    public void fillActionList(IState s,ActionList l){
 	AliceContinuousDistanceState el=(AliceContinuousDistanceState) s;
-	ActionList l=new ActionList(el);  
 	l.add(ActionAlice.LEFT); 
 	l.add(ActionAlice.RIGHT); 
 	if(el.getWSM(0)!=1) l.add(ActionAlice.FORWARD); 
-	if(el.getWSM(2)!=1) l.add(ActionAlice.BACKWARD); 
-	return l; 
-    }//getListeActions
+	if(el.getWSM(2)!=1) l.add(ActionAlice.BACKWARD);  
+    }//fillActionList
 
 }
\ No newline at end of file
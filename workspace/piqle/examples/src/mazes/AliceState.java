@@ -26,6 +26,7 @@ package mazes;
 
 import environment.IState; 
 import environment.IEnvironment; 
+import util.Hashing;
 
 
 /** A view on a maze, as it can be perceived by a mobile robot, like Alice : 
@@ -85,10 +86,10 @@ public class AliceState extends MazeState{
     }   
 
  public int hashCode(){
-	int sum=0; 
+	int h=Hashing.SEED; 
 	for(int i=0;i<4;i++)
-	    sum=3*sum+whatSurroundsMe[(i+orientation)%4]; 
-	return sum%53; 
+	    h=Hashing.combine(h,whatSurroundsMe[(i+orientation)%4]); 
+	return h; 
     }
 
     public boolean equals(Object o){
@@ -27,6 +27,7 @@ package mazes;
 
 import environment.IState; 
 import environment.IEnvironment;  
+import util.Hashing;
 
 /** A local view of a maze state consists of : 
     <ul>
@@ -71,10 +72,7 @@ public class LocalMazeState extends MazeState{
     }
 
     public int hashCode(){
-	int sum=0; 
-	for(int i=0;i<8;i++)
-	    sum=3*sum+whatISee[i];
-	return sum%53; 
+	return Hashing.hash(whatISee); 
     }
 
     public boolean equals(Object o){
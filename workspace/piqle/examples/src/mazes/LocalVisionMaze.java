@@ -100,9 +100,8 @@ public class LocalVisionMaze extends Maze{
 				  (el.getY()+al.getY()),this);
     }
 
- public ActionList getActionList(IState s){
+ public void fillActionList(IState s,ActionList l){
 	LocalMazeState el=(LocalMazeState) s;
-	ActionList l=new ActionList(el);  
 	for (int i=0;i<9;i++) {
 	    MazeAction a=MazeAction.direction[i]; 
 	    int newX=el.getX()+a.getX(); 
@@ -111,8 +110,7 @@ public class LocalVisionMaze extends Maze{
 	    if((newY<0)||(newY>=longueur)) continue; 
 	    if(forme[newX][newY].isWall()) continue; 
 	    l.add(MazeAction.direction[i]); 
-	}
-	return l; 
+	} 
 
     }
 
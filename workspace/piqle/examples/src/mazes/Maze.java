@@ -32,6 +32,8 @@ import java.awt.event.WindowEvent;
 
 import environment.*;
 import java.util.Random; 
+
+import util.RandomSource;
  
 
 /** Standard rectangular maze : each position is either free, a wall, a treasure.
@@ -49,7 +51,7 @@ It is up to you to add new types of positions, non-rectangular shapes ...
 
 
 
-public class Maze extends AbstractEnvironmentSingle{
+public class Maze extends AbstractEnvironmentSingle implements IActionListFiller{
 
     /**
 	 * 
@@ -70,11 +72,15 @@ public class Maze extends AbstractEnvironmentSingle{
     /** Array describing the maze's shape */
     protected composantLabyrinthe[][] forme; 
     
-    protected Random generateur=new Random(); 
+    protected Random generateur=RandomSource.newGenerator(); 
 
   
     protected MazeState defaultCurrentState; 
 
+    /** One state per position, shared by all the moves reaching it : 
+	maze states are never modified. */
+    private transient MazeState cells[][]; 
+
     public Maze(int lo,int la){
 	this.longueur=lo; 
 	this.largeur=la; 
@@ -155,25 +161,34 @@ public class Maze extends AbstractEnvironmentSingle{
 	MazeState el=(MazeState) s;
 	MazeAction al=(MazeAction)a;
 	oldState=el; 
-	return new MazeState((el.getX()+al.getX()),
-				  (el.getY()+al.getY()),this);
+	return cell((el.getX()+al.getX()),(el.getY()+al.getY())); 
+    }
+
+    /** The shared state at position (x,y) */
+    protected MazeState cell(int x,int y){
+	if(cells==null) cells=new MazeState[largeur][longueur]; 
+	if(cells[x][y]==null) cells[x][y]=new MazeState(x,y,this); 
+	return cells[x][y]; 
     }
 
     
     public ActionList getActionList(IState s){
+	ActionList l=new ActionList(s);  
+	fillActionList(s,l); 
+	return l; 
+    }
+
+    public void fillActionList(IState s,ActionList l){
 	MazeState el=(MazeState) s;
-	ActionList l=new ActionList(el);  
 	for (int i=0;i<9;i++) {
-	    MazeAction a=MazeAction.direction[i]; //???? useless
+	    MazeAction a=MazeAction.direction[i]; 
 	    int newX=el.getX()+a.getX(); 
 	    int newY=el.getY()+a.getY(); 
 	    if((newX<0)||(newX>=largeur)) continue; 
 	    if((newY<0)||(newY>=longueur)) continue; 
 	    if(forme[newX][newY].isWall()) continue; 
-	    l.add(MazeAction.direction[i]); 
+	    l.add(a); 
 	}
-	return l; 
-
     }
     
     /** @return true is there is a wall at this place.*/
@@ -24,6 +24,7 @@ package mazes;
 
 
 import environment.IAction; 
+import environment.IOrdinalAction; 
 
 
 
@@ -40,7 +41,7 @@ import environment.IAction;
  @version $Revision: 1.0 $ 
 
 */
-public class MazeAction implements IAction{
+public class MazeAction implements IOrdinalAction{
 
     /**
 	 * 
@@ -77,11 +78,18 @@ public class MazeAction implements IAction{
 
     public String toString(){return " x : "+x+" y :"+y;}
 
+    /** The shared move of rank o (see ordinal()) */
+    public static MazeAction valueOf(int o){return direction[o]; }
+
+    /** Rank in the array of moves */
+    public int ordinal(){return getValue(); }
+
     public int hashCode(){
 	return 10*x+y; 
     }
 
      public boolean equals(Object o){
+	if(o==this) return true; 
 	if(!(o instanceof MazeAction)) return false; 
 	MazeAction el=(MazeAction)o; 
 	return((el.x==this.x)&&(el.y==this.y)); 
@@ -89,7 +97,8 @@ public class MazeAction implements IAction{
 
   
 
-    public IAction copy(){return new MazeAction(x,y); }
+    /** Moves are immutable : the shared instance is returned */
+    public IAction copy(){return direction[getValue()]; }
 
     public int nnCodingSize(){
 	return 9; 
@@ -0,0 +1,55 @@
+/**
+ *	This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU Lesser General Public License as published by
+ *    the Free Software Foundation; either version 2.1 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU Lesser General Public License for more details.
+ *
+ *    You should have received a copy of the GNU Lesser General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301 USA.
+ *
+ *
+ *    MazePairCodec.java
+ *
+ */
+package mazes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import environment.IAction;
+import environment.IState;
+import qlearning.ActionStatePair;
+import qlearning.IPairCodec;
+
+/** Binary form of the pairs of a maze : position of the state and 
+    rank of the move, 5 bytes. */
+public class MazePairCodec implements IPairCodec{
+
+    private static final long serialVersionUID = 1L;
+
+    private Maze maze; 
+
+    public MazePairCodec(Maze m){
+	this.maze=m; 
+    }
+
+    public void write(IState s,IAction a,DataOutput out)throws IOException{
+	MazeState e=(MazeState)s; 
+	out.writeShort(e.getX()); 
+	out.writeShort(e.getY()); 
+	out.writeByte(((MazeAction)a).ordinal()); 
+    }
+
+    public ActionStatePair read(DataInput in)throws IOException{
+	int x=in.readShort(); 
+	int y=in.readShort(); 
+	return new ActionStatePair(MazeAction.valueOf(in.readByte()),new MazeState(x,y,maze)); 
+    }
+}
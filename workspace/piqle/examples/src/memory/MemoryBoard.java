@@ -24,8 +24,11 @@ package memory;
 import environment.*; 
 
 import java.util.Random; 
+
 import java.util.ArrayList; 
 
+import util.RandomSource;
+
 
 /**This version of the Memory game tries to maximize the probability to win the game. It is different than the version studied by Zwick & Patterson, where they try to maximize the number of cards.
 
@@ -34,7 +37,7 @@ import java.util.ArrayList;
 @author Francesco De Comite (decomite at lifl.fr)
  @version $Revision: 1.0 $ 
  */
-public class MemoryBoard implements IEnvironmentTwoPlayers{
+public class MemoryBoard implements IEnvironmentTwoPlayers,IActionListFiller{
     
    
 
@@ -77,19 +80,23 @@ public class MemoryBoard implements IEnvironmentTwoPlayers{
     }
 
      public ActionList getActionList(IState s){
+	ActionList loa=new ActionList(s); 
+	fillActionList(s,loa); 
+	return loa; 
+     }
+
+     public void fillActionList(IState s,ActionList loa){
 	MemoryState em=(MemoryState)s; 
-	ActionList loa=new ActionList(em); 
-	if(em.known()>=2) loa.add(ActionMemory.MOVEZERO); 
+	if(em.known()>=2) loa.addDistinct(ActionMemory.MOVEZERO); 
 	if((em.known()>=1)&&(em.unknown()>=1))
-	    loa.add(ActionMemory.MOVEONE); 
+	    loa.addDistinct(ActionMemory.MOVEONE); 
 	if(em.unknown()>=2)
-	    loa.add(ActionMemory.MOVETWO); 
-	return loa; 
+	    loa.addDistinct(ActionMemory.MOVETWO); 
      }
 
    
     protected void initialize(){
-	Random generateur=new Random(); 
+	Random generateur=RandomSource.current(); 
 	ArrayList<Integer> bigBag=new ArrayList<Integer>(); 
 	tableau=new int[this.largeur][]; 
 	for(int i=0;i<this.largeur;i++) tableau[i]=new int[this.longueur]; 
@@ -122,7 +129,7 @@ public class MemoryBoard implements IEnvironmentTwoPlayers{
 
     
     public IState successorState(IState s,IAction a){
-	Random generateur=new Random(); 
+	Random generateur=RandomSource.current(); 
 	MemoryState em=(MemoryState)s; 
 	MemoryState neuf=(MemoryState)em.copy(); 
 	neuf.toggleTurn(); 
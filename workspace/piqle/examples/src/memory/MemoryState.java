@@ -26,6 +26,7 @@ package memory;
 import environment.*; 
 import java.util.HashMap; 
 import java.util.ArrayList; 
+import util.Hashing;
 
 
 /** A state for the Memory game gathers a lot of information : 
@@ -153,7 +154,8 @@ public class MemoryState extends AbstractTwoPlayerState{
     }
 
     public int hashCode(){
-	return (7*this.unknownCards.size()+this.knownCards.size())%13;
+	int h=Hashing.hash(this.unknownCards.size(),this.knownCards.size(),this.nbTurns); 
+	return Hashing.combine(Hashing.combine(h,nbPairsFound[0]),nbPairsFound[1]);
 	    }
     
   
@@ -1,4 +1,6 @@
 package memory; 
+
+import util.Hashing;
 /*
  *    This program is free software; you can redistribute it and/or modify
  *    it under the terms of the GNU Lesser General Public License as published by
@@ -46,7 +48,7 @@ package memory;
     }
 
     public int hashCode(){
-	return (7*x+y)%13; 
+	return Hashing.hash(x,y); 
     }
 
     public String toString(){
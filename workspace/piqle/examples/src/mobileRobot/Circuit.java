@@ -38,8 +38,9 @@ import java.awt.event.WindowEvent;
  @version $Revision: 1.0 $ 
 */
 
-abstract public class Circuit extends AbstractEnvironmentSingle{
+abstract public class Circuit extends AbstractEnvironmentSingle implements IMutableEnvironment,IActionListFiller{
     protected Polyline inside,outside; 
+    /** The state before the last move (not a copy) */
     protected MobileState preceedingState=null; 
 
     /** An upper bound of the distance between the car and the external wall */
@@ -49,29 +50,40 @@ abstract public class Circuit extends AbstractEnvironmentSingle{
 	/**  Gives the list of possible actions from a given state. */
     public ActionList getActionList(IState s){
 	ActionList l=new ActionList(s);
+	fillActionList(s,l); 
+	return l; 
+    }// getListeActions
+
+    public void fillActionList(IState s,ActionList l){
 	MobileState ev=(MobileState)s; 
 	int speed=ev.getSpeed(); 
 	double angle=ev.getAngle(); 
 	// TODO parametrize the loop boundaries with the number
 	// of possible steering wheel positions (and not -3,4)
 	for(int i=-3; i<4;i++){
-	    if(speed>0) l.add(new MobileAction(-1,angle,i)); // freiner 
-	    if(speed<MobileState.maxSpeed) l.add(new MobileAction(1,angle,i));  // acclerer
-	    if(speed!=0) l.add(new MobileAction(0,angle,i)); // constant speed
+	    if(speed>0) l.addDistinct(new MobileAction(-1,angle,i)); // freiner 
+	    if(speed<MobileState.maxSpeed) l.addDistinct(new MobileAction(1,angle,i));  // acclerer
+	    if(speed!=0) l.addDistinct(new MobileAction(0,angle,i)); // constant speed
 	}
-	return l; 
-    }// getListeActions
+    }// fillActionList
 
 	/**  Computes the next state, given a start state and an action. */
     public IState successorState(IState s,IAction a){
 	MobileState ev=(MobileState)s; 
 	MobileAction av=(MobileAction)a; 
 	//	System.out.println(ev.getX()+" "+ev.getY()+" "+ev.getAngle()+" "+ev.getDistance(0)+" "+ev.getDistance(1)+" "+ev.getDistance(2)); 
-	preceedingState=(MobileState)ev.copy(); 	
+	preceedingState=ev; 	
 	MobileState newEV=new MobileState(ev,av); 
 	return newEV; 
     }//etatSuivant
 
+    /**  Writes the next state into target, reusing its arrays. */
+    public void successorState(IState s,IAction a,IMutableState target){
+	MobileState ev=(MobileState)s; 
+	preceedingState=ev; 
+	((MobileState)target).move(ev,(MobileAction)a); 
+    }
+
 
     /** Must be define in each instantiation */
     abstract public IState defaultInitialState(); 
@@ -91,9 +103,14 @@ abstract public class Circuit extends AbstractEnvironmentSingle{
 /** Compute the view of a state (how far are we from the walls ?) */
     protected double[] getView(MobileState ev){
 	double v[]=new double[retinaSize]; 
+	getView(ev,v); 
+	return v; 
+    }
+
+    /** Same as above, written into v (of length retinaSize) */
+    protected void getView(MobileState ev,double v[]){
 	for(int i=0;i<retinaSize; i++)
 	    v[i]=getViewInOneDir(ev,(-angle*((retinaSize-1.0)/2.0))+angle*i);
-	return v; 
     }
 
     /** How far are we from a wall in a given direction ?*/
@@ -24,6 +24,8 @@ package mobileRobot;
 import environment.IState; 
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** This circuit is a portion of plane between two origin-centered circles : the agent (a racing car ...) has to keep in lane.
 
 @author Francesco De Comite (decomite at lifl.fr)
@@ -36,7 +38,7 @@ public class CircularCircuit extends Circuit{
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	protected Random generateur=new Random(); 
+	protected Random generateur=RandomSource.newGenerator(); 
     private double innerRadius,outerRadius; 
     public CircularCircuit(double inner,double outer){
 	super(); 
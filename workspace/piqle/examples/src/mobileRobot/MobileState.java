@@ -22,6 +22,7 @@ package mobileRobot;
  */
 
 import environment.*; 
+import util.Hashing;
 
 /** A racing car is defined with : 
 <ul>
@@ -37,7 +38,7 @@ import environment.*;
 */
 
 
-public class MobileState extends AbstractState{
+public class MobileState extends AbstractState implements IContinuousState,IMutableState{
     /**
 	 * 
 	 */
@@ -69,40 +70,49 @@ public class MobileState extends AbstractState{
 	if(s>maxSpeed)this.speed=maxSpeed; 
 	else this.speed=s; 
 	this.angle=a; 
-	this.distances=((Circuit)this.myEnvironment).getView(this); 
-	double dmax=((Circuit)this.myEnvironment).maxSize(); 
-	//	double R1=((CircularCircuit)this.myContraintes).smallRadius();
-	//double dmax=2.0*Math.sqrt(R2*R2-R1*R1); 
-	this.discreteDistances=new int[this.distances.length]; 
-	for(int i=0; i<this.distances.length; i++){
-	    if(this.distances[i]<dmax/10.0) {this.discreteDistances[i]=0; continue;} 
-	    if(this.distances[i]<(2*dmax/3)) {this.discreteDistances[i]=1; continue;}
-	    this.discreteDistances[i]=2; 
-	}
+	look(10.0); 
     }
 
     public MobileState(MobileState ev,MobileAction av){
 	super(ev.myEnvironment); 
+	move(ev,av); 
+    }//EtatVoiture
+
+    /** An empty state, to be filled by copyFrom() or move() */
+    protected MobileState(IEnvironment univers){
+	super(univers); 
+    }
+
+    /** Become the state reached from ev by av (ev is not this state) */
+    protected void move(MobileState ev,MobileAction av){
 	double angleInRad=(ev.angle*Math.PI)/180.0;
 	double nx=ev.XCoordinate+(ev.speed*Math.cos(angleInRad)); 
 	double ny=ev.YCoordinate+(ev.speed*Math.sin(angleInRad)); 
+	this.myEnvironment=ev.myEnvironment; 
 	this.XCoordinate=nx; 
 	this.YCoordinate=ny; 
 	this.angle=av.getAngle(); 
 	this.speed=ev.getSpeed()+av.getSpeed(); 
-	this.distances=((Circuit)this.myEnvironment).getView(this); 
+	look(3.0); 
+    }
+
+    /** Compute the distances to the walls, and their discretized values : 
+	close under dmax/closeness, far over 2dmax/3. The arrays are 
+	reused when the state moves. */
+    private void look(double closeness){
+	int size=((Circuit)this.myEnvironment).getRetinaSize(); 
+	if((this.distances==null)||(this.distances.length!=size)){
+	    this.distances=new double[size]; 
+	    this.discreteDistances=new int[size]; 
+	}
+	((Circuit)this.myEnvironment).getView(this,this.distances); 
 	double dmax=((Circuit)this.myEnvironment).maxSize(); 
-// 	double R2=((CircularCircuit)this.myContraintes).bigRadius(); 
-// 	double R1=((CircularCircuit)this.myContraintes).smallRadius();
-// 	double dmax=2.0*Math.sqrt(R2*R2-R1*R1); 
-	this.discreteDistances=new int[this.distances.length]; 
 	for(int i=0; i<this.distances.length; i++){
-	    if(this.distances[i]<dmax/3.0) {this.discreteDistances[i]=0; continue;}
+	    if(this.distances[i]<dmax/closeness) {this.discreteDistances[i]=0; continue;}
 	    if(this.distances[i]<(2*dmax/3)) {this.discreteDistances[i]=1; continue;}
 	    this.discreteDistances[i]=2; 
 	}
-
-    }//EtatVoiture
+    }
 
     protected double getDistance(int i){return distances[i];}
 
@@ -125,8 +135,26 @@ public class MobileState extends AbstractState{
     	this.speed=i;}
     
 
+    /** An exact copy : the distances are not computed again. */
     public IState copy(){
-	return new MobileState(this.XCoordinate,this.YCoordinate,this.angle,this.speed,this.myEnvironment); 
+	MobileState ev=new MobileState(this.myEnvironment); 
+	ev.copyFrom(this); 
+	return ev; 
+    }
+
+    public void copyFrom(IState s){
+	MobileState ev=(MobileState)s; 
+	this.myEnvironment=ev.myEnvironment; 
+	this.XCoordinate=ev.XCoordinate; 
+	this.YCoordinate=ev.YCoordinate; 
+	this.angle=ev.angle; 
+	this.speed=ev.speed; 
+	if((this.distances==null)||(this.distances.length!=ev.distances.length)){
+	    this.distances=new double[ev.distances.length]; 
+	    this.discreteDistances=new int[ev.distances.length]; 
+	}
+	System.arraycopy(ev.distances,0,this.distances,0,this.distances.length); 
+	System.arraycopy(ev.discreteDistances,0,this.discreteDistances,0,this.distances.length); 
     }
 
     public String toString(){
@@ -137,11 +165,10 @@ public class MobileState extends AbstractState{
     }
 
     public int hashCode(){
-	int construct=this.speed;
+	int construct=Hashing.combine(Hashing.SEED,this.speed);
 	for(int i=0;i<this.discreteDistances.length;i++){
-	    construct+=primes[i]*discreteDistances[i]; 
+	    construct=Hashing.combine(construct,discreteDistances[i]); 
 	}
-	construct=construct%primes[this.distances.length]; 
 	return construct; 
     }//hashCode
    
@@ -155,6 +182,13 @@ public class MobileState extends AbstractState{
 	return true; 
     }//equals
     
+    /** The speed, then the (continuous) distances to the walls, for quantization. */
+    public int getNbDimensions(){return 1+this.distances.length;}
+
+    public double getCoordinate(int i){
+	return i==0?this.speed:this.distances[i-1]; 
+    }
+
     public int nnCodingSize(){return 2+this.discreteDistances.length;}
 
     /** Dummy coding .. TODO */
@@ -24,6 +24,8 @@ package mobileRobot;
 import environment.*;
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** A pinball is a circular arena into one can put several bumpers 
 
 @author Francesco De Comite (decomite at lifl.fr)
@@ -37,7 +39,7 @@ public class Pinball extends Circuit{
 	 */
 	private static final long serialVersionUID = 1L;
 	private double outerRadius; 
-    private Random generateur=new Random(); 
+    private Random generateur=RandomSource.newGenerator(); 
     
     public double bigRadius(){return this.outerRadius;}
 
@@ -22,6 +22,7 @@ package mountaincar;
  */
 
 import environment.IAction;
+import environment.IOrdinalAction;
 
 
 
@@ -31,7 +32,7 @@ import environment.IAction;
  @version $Revision: 1.0 $ 
 
 */
-public class ActionMountainCar implements IAction{
+public class ActionMountainCar implements IOrdinalAction{
     
     /**
 	 * 
@@ -63,6 +64,8 @@ public class ActionMountainCar implements IAction{
 	}
     }
 
+    public int ordinal(){return this.typeMove+1; }
+
     public int hashCode(){return this.typeMove+1; }
 
      public boolean equals(Object o){
@@ -32,6 +32,8 @@ import javax.swing.BoxLayout;
  
  
 import java.util.Random; 
+
+import util.RandomSource;
 import environment.*; 
 
 /**
@@ -44,14 +46,14 @@ import environment.*;
 
 
 
-public class MountainCar extends AbstractEnvironmentSingle{
+public class MountainCar extends AbstractEnvironmentSingle implements IMutableEnvironment,IActionListFiller{
     
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
-	protected Random generateur=new Random(); 
+	protected Random generateur=RandomSource.newGenerator(); 
 
     /** Bounds for position*/
     protected double bpleft=-1.5; 
@@ -78,13 +80,24 @@ public class MountainCar extends AbstractEnvironmentSingle{
 
     public ActionList getActionList(IState s){
 	ActionList loa=new ActionList(s); 
+	fillActionList(s,loa); 
+	return loa; 
+    } 
+
+    public void fillActionList(IState s,ActionList loa){
 	loa.add(ActionMountainCar.FORWARD); 
 	loa.add(ActionMountainCar.BACKWARD); 
 	loa.add(ActionMountainCar.STILL); 
-	return loa; 
     } 
 
      public IState successorState(IState s,IAction a){
+	 MountainCarState next=new MountainCarState(this); 
+	 successorState(s,a,next); 
+	 return next; 
+     }
+
+     /** The car moves from s into target, without any allocation. */
+     public void successorState(IState s,IAction a,IMutableState target){
 	 MountainCarState em=(MountainCarState)s; 
 	 ActionMountainCar am=(ActionMountainCar)a; 
 	 double speedt1= em.getSpeed()+(0.001*am.getType())+(-0.0025*Math.cos(3.0*em.getPosition())); 
@@ -93,8 +106,7 @@ public class MountainCar extends AbstractEnvironmentSingle{
 	 double post1=em.getPosition()+speedt1; 
 	 if(post1<=bpleft) {post1=bpleft; speedt1=0.0;}
 	 if(post1>=bpright){post1=bpright;speedt1=0.0;} 
-	 return new MountainCarState(post1,speedt1,this); 
-	 
+	 ((MountainCarState)target).set(post1,speedt1); 
      }
 
     /** 0 in case of success, -1 for all other moves */
@@ -24,6 +24,7 @@ package mountaincar;
 
 
 import environment.*; 
+import util.Hashing;
 
 /** A State is composed of a position and a speed. Both are bounded. Continuous values are kept for neural network learning, but discretized for hashCode and equals.
 
@@ -33,7 +34,7 @@ import environment.*;
     
 */
  
-public class MountainCarState extends AbstractState{
+public class MountainCarState extends AbstractState implements IContinuousState,IMutableState{
 
     private double position; 
     private double speed; 
@@ -58,6 +59,13 @@ public class MountainCarState extends AbstractState{
 	return this.speed;
     }
 
+    /** Position and speed, for quantization. */
+    public int getNbDimensions(){return 2;}
+
+    public double getCoordinate(int i){
+	return i==0?this.position:this.speed; 
+    }
+
     public IState copy(){
 	MountainCarState em=new MountainCarState(this.myEnvironment); 
 	em.position=this.position; 
@@ -65,6 +73,18 @@ public class MountainCarState extends AbstractState{
 	return em; 
     }
 
+    public void copyFrom(IState s){
+	MountainCarState em=(MountainCarState)s; 
+	set(em.position,em.speed); 
+    }
+
+    /** Move the car in place (see MountainCar.successorState(IState,IAction,IMutableState)) */
+    protected void set(double p,double s){
+	this.position=p; 
+	this.speed=s; 
+	this.hash=0; 
+    }
+
 
     public double[] nnCoding(){
 	double code[]=new double[2]; 
@@ -80,8 +100,13 @@ public class MountainCarState extends AbstractState{
    
 
     /** Need to discretize states.*/
+    /** Cached hash code, forgotten when the state is moved in place. */
+    private transient int hash; 
+
     public int hashCode(){
-	return ((7*((int)(100*this.position)+12)) +(5*((int)(100*this.speed)+7)))%23; 
+	if(hash==0)
+	    hash=Hashing.cache(Hashing.hash((int)(100*this.position),(int)(100*this.speed))); 
+	return hash; 
     }
 
     /** Need to discretize equality */
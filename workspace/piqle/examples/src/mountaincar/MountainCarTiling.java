@@ -33,6 +33,8 @@ import environment.TileAbleEnvironment;
 
 import java.util.Random; 
 
+import util.RandomSource;
+
 /** Sutton's original definition of the mountain car task with tiling. Tiles are basic 2-dim rectangles.
     See @MountainCarTilingH for a more general version (hyperRectangles with only certain dimensions taken into account)
 */
@@ -42,7 +44,7 @@ public class MountainCarTiling extends MountainCar implements TileAbleEnvironmen
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	protected static Random generateur=new Random(); 
+	protected Random generateur=RandomSource.newGenerator(); 
     /** One set of tilings for each possible action */
     protected SetOfTilings arrayTilings[]=new SetOfTilings[3]; 
 
@@ -31,7 +31,7 @@ import environment.*;
 
  */
 
-public class TicTacToeAction implements IAction {
+public class TicTacToeAction implements IOrdinalAction {
  
     /**
 	 * 
@@ -46,6 +46,17 @@ public class TicTacToeAction implements IAction {
 	colonne=j; 
     }  
 
+    /** The nine shared cells */
+    private static final ActionRegistry<TicTacToeAction> cells=new ActionRegistry<TicTacToeAction>(); 
+
+    /** The shared instance of cell (i,j) */
+    public static TicTacToeAction valueOf(int i,int j){
+	TicTacToeAction a=cells.get(3*i+j); 
+	return a!=null?a:cells.intern(new TicTacToeAction(i,j)); 
+    }
+
+    public int ordinal(){return 3*ligne+colonne; }
+
   
     public int getLine(){return ligne; }
     
@@ -61,13 +72,14 @@ public class TicTacToeAction implements IAction {
     }
 
     public boolean equals(Object o){
+	if (o==this) return true; 
 	if (!(o instanceof TicTacToeAction)) return false; 
 	 TicTacToeAction a=(TicTacToeAction)o; 
 	 return ((ligne==a.ligne)&&(a.colonne==colonne)); 
 	 }
 
     public IAction copy(){
-	return new TicTacToeAction(ligne,colonne); 
+	return valueOf(ligne,colonne); 
     }
 
     /** Coding One among Three, twice. */
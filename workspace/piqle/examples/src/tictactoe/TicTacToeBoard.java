@@ -48,7 +48,7 @@ public class TicTacToeBoard implements IEnvironmentTwoPlayers{
 	int config[][]=el.getConfig(); 
 	for(int i=0;i<3;i++)
 	    for(int j=0;j<3;j++)
-		if(config[i][j]==0) l.add(new TicTacToeAction(i,j));
+		if(config[i][j]==0) l.addDistinct(TicTacToeAction.valueOf(i,j));
 	return l; 
     }// getActionList
 